@@ -0,0 +1,42 @@
+// k6 부하 테스트: /api/recommend/bakeries (FastAPI 지연 주입은 recommend/tools/slow_stub.py)
+//   k6 run -e BASE_URL=http://localhost:8080 -e TOKEN=<카카오 액세스 토큰> be/loadtest/recommend.js
+// 비교 지표: http_reqs(처리량), http_req_duration p95, 같은 시간 /actuator/health 응답 시간
+// 결과와 측정 조건(캐시 끔, 스레드 수 등)은 README.md
+import http from 'k6/http';
+import { check } from 'k6';
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8080';
+
+export const options = {
+    scenarios: {
+        recommend: {
+            executor: 'constant-arrival-rate',
+            rate: Number(__ENV.RATE || 200), // 초당 요청 수
+            timeUnit: '1s',
+            duration: __ENV.DURATION || '60s',
+            preAllocatedVUs: 500,
+            maxVUs: 2000,
+        },
+        health: { // 추천이 밀려도 다른 요청이 서블릿 스레드를 얻는지
+            executor: 'constant-arrival-rate',
+            rate: 5,
+            timeUnit: '1s',
+            duration: __ENV.DURATION || '60s',
+            preAllocatedVUs: 10,
+            exec: 'health',
+        },
+    },
+};
+
+export default function () {
+    const res = http.get(`${BASE_URL}/api/recommend/bakeries?lat=36.3504&lng=127.3845`, {
+        headers: { Authorization: `Bearer ${__ENV.TOKEN}` },
+        tags: { name: 'recommend' },
+    });
+    check(res, { 'status 200': (r) => r.status === 200 });
+}
+
+export function health() {
+    const res = http.get(`${BASE_URL}/actuator/health`, { tags: { name: 'health' } });
+    check(res, { 'health 200': (r) => r.status === 200 });
+}
@@ -0,0 +1,4 @@
+-- 사용자별 최근 검색 수 (최근 7일, created_at 하한으로 파티션을 건너뜀)
+\set uid random(1, :users)
+SELECT count(*) FROM search_history
+WHERE user_id = :uid AND created_at > now() - interval '7 days';
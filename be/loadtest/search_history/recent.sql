@@ -0,0 +1,5 @@
+-- 사용자별 최근 검색 50건 (최근 30일, created_at 하한으로 파티션을 건너뜀)
+\set uid random(1, :users)
+SELECT * FROM search_history
+WHERE user_id = :uid AND created_at > now() - interval '30 days'
+ORDER BY created_at DESC LIMIT 50;
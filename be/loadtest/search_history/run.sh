@@ -0,0 +1,27 @@
+#!/usr/bin/env bash
+# search_history 조회 지연 비교 (파티션 없음 vs 월별 파티션)
+#   PGDATABASE=bench ROWS=30000000 ./run.sh
+# 출력: 두 조회의 실행 계획(프루닝된 파티션 확인)과 pgbench 지연 평균/TPS. -M prepared라 런타임 프루닝까지 포함.
+set -euo pipefail
+cd "$(dirname "$0")"
+
+ROWS=${ROWS:-30000000}
+USERS=${USERS:-200000}
+CLIENTS=${CLIENTS:-8}
+DURATION=${DURATION:-30}
+
+if [[ "${SKIP_SETUP:-0}" != 1 ]]; then
+  psql -v rows="$ROWS" -v users="$USERS" -f setup.sql
+fi
+
+for layout in plain part; do
+  echo "== $layout =="
+  psql -c "SET search_path = bench_$layout" -c "EXPLAIN (ANALYZE, BUFFERS, COSTS OFF)
+    SELECT * FROM search_history WHERE user_id = 42 AND created_at > now() - interval '30 days'
+    ORDER BY created_at DESC LIMIT 50"
+  for script in recent.sql count.sql; do
+    echo "-- $script"
+    PGOPTIONS="-c search_path=bench_$layout" pgbench -n -M prepared -c "$CLIENTS" -j "$CLIENTS" \
+      -T "$DURATION" -D users="$USERS" -f "$script" | grep -E 'latency|tps'
+  done
+done
@@ -0,0 +1,61 @@
+-- search_history 파티션 벤치마크 데이터 (로컬 PostgreSQL 전용, 운영 DB에서 실행하지 말 것)
+--   psql -v rows=30000000 -v users=200000 -f setup.sql
+-- bench_plain.search_history: 파티션 없는 기존 구조, bench_part.search_history: 월별 파티션 (SearchHistoryPartitionRepository와 같은 DDL)
+-- 행은 최근 12개월에 고르게 흩어진다
+\set ON_ERROR_STOP on
+\if :{?rows} \else \set rows 30000000 \endif
+\if :{?users} \else \set users 200000 \endif
+
+DROP SCHEMA IF EXISTS bench_plain CASCADE;
+DROP SCHEMA IF EXISTS bench_part CASCADE;
+CREATE SCHEMA bench_plain;
+CREATE SCHEMA bench_part;
+
+CREATE TABLE bench_plain.search_history (
+    id bigint PRIMARY KEY,
+    user_id bigint NOT NULL,
+    query varchar(200) NOT NULL,
+    lat double precision,
+    lng double precision,
+    created_at timestamp(6) with time zone NOT NULL
+);
+
+CREATE TABLE bench_part.search_history (
+    id bigint NOT NULL,
+    user_id bigint NOT NULL,
+    query varchar(200) NOT NULL,
+    lat double precision,
+    lng double precision,
+    created_at timestamp(6) with time zone NOT NULL,
+    PRIMARY KEY (id, created_at)
+) PARTITION BY RANGE (created_at);
+CREATE TABLE bench_part.search_history_default PARTITION OF bench_part.search_history DEFAULT;
+
+SELECT format('CREATE TABLE bench_part.search_history_y%sm%s PARTITION OF bench_part.search_history FOR VALUES FROM (%L) TO (%L)',
+              to_char(m, 'YYYY'), to_char(m, 'MM'), m, m + interval '1 month')
+FROM generate_series(date_trunc('month', now() AT TIME ZONE 'UTC') - interval '12 months',
+                     date_trunc('month', now() AT TIME ZONE 'UTC') + interval '2 months',
+                     interval '1 month') AS m
+\gexec
+
+-- 인덱스는 적재 후에 만든다
+INSERT INTO bench_plain.search_history
+SELECT g,
+       1 + (random() * (:users - 1))::bigint,
+       (ARRAY['소금빵','베이글','크루아상','식빵','마카롱','스콘','깜빠뉴','휘낭시에','도넛','케이크'])[1 + (g % 10)],
+       37.45 + random() * 0.2,
+       126.9 + random() * 0.2,
+       now() - random() * interval '365 days'
+FROM generate_series(1, :rows) AS g;
+
+INSERT INTO bench_part.search_history SELECT * FROM bench_plain.search_history;
+
+CREATE INDEX ON bench_plain.search_history (user_id, created_at DESC);
+CREATE INDEX ON bench_part.search_history (user_id, created_at DESC);
+VACUUM ANALYZE bench_plain.search_history;
+VACUUM ANALYZE bench_part.search_history;
+
+SELECT 'plain' AS layout, pg_size_pretty(pg_total_relation_size('bench_plain.search_history')) AS total
+UNION ALL
+SELECT 'partitioned', pg_size_pretty(sum(pg_total_relation_size(inhrelid)))
+FROM pg_inherits WHERE inhparent = 'bench_part.search_history'::regclass;
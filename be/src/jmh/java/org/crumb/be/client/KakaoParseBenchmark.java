@@ -0,0 +1,80 @@
+package org.crumb.be.client;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.crumb.be.search.dto.KakaoBakeryDto;
+import org.crumb.be.search.dto.KakaoBakeryPage;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 카카오 응답 한 페이지(15건) 파싱: 기존 방식(String 변환 + 요청마다 new ObjectMapper + readTree)
+ * vs 청크 단위 토큰 파싱. -prof gc 의 gc.alloc.rate.norm 으로 요청당 할당량을 비교한다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class KakaoParseBenchmark {
+
+    /** 네트워크 청크 크기 (reactor-netty 기본 수신 버퍼 근처) */
+    @Param({"1024", "8192"})
+    int chunk;
+
+    byte[] body;
+
+    @Setup
+    public void setup() {
+        StringBuilder sb = new StringBuilder("{\"documents\":[");
+        for (int i = 0; i < KakaoMapClient.PAGE_SIZE; i++) {
+            if (i > 0) sb.append(',');
+            sb.append("{\"address_name\":\"서울 마포구 서교동 ").append(300 + i).append("-1\",")
+                    .append("\"category_group_code\":\"CE7\",\"category_group_name\":\"카페\",")
+                    .append("\"category_name\":\"음식점 > 간식 > 제과,베이커리\",")
+                    .append("\"distance\":\"").append(120 + i * 37).append("\",")
+                    .append("\"id\":\"").append(10000000 + i).append("\",")
+                    .append("\"phone\":\"02-123-45").append(10 + i).append("\",")
+                    .append("\"place_name\":\"빵집 ").append(i).append("호점\",")
+                    .append("\"place_url\":\"http://place.map.kakao.com/").append(10000000 + i).append("\",")
+                    .append("\"road_address_name\":\"서울 마포구 양화로 ").append(i).append("\",")
+                    .append("\"x\":\"126.92").append(i).append("\",\"y\":\"37.55").append(i).append("\"}");
+        }
+        sb.append("],\"meta\":{\"is_end\":false,\"pageable_count\":45,\"same_name\":null,\"total_count\":230}}");
+        body = sb.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public List<KakaoBakeryDto> legacyTree() throws Exception {
+        String json = new String(body, StandardCharsets.UTF_8);
+        ObjectMapper mapper = new ObjectMapper();
+        JsonNode documents = mapper.readTree(json).path("documents");
+        List<KakaoBakeryDto> result = new ArrayList<>();
+        for (JsonNode doc : documents) {
+            KakaoBakeryDto dto = new KakaoBakeryDto();
+            dto.setId(doc.path("id").asLong());
+            dto.setName(doc.path("place_name").asText());
+            dto.setAddress(doc.path("address_name").asText());
+            dto.setRoad_address(doc.path("road_address_name").asText());
+            dto.setPhone(doc.path("phone").asText());
+            dto.setLongitude(doc.path("x").asDouble());
+            dto.setLatitude(doc.path("y").asDouble());
+            dto.setDistance(doc.path("distance").asLong());
+            dto.setPlace_url(doc.path("place_url").asText());
+            result.add(dto);
+        }
+        return result;
+    }
+
+    @Benchmark
+    public KakaoBakeryPage streaming() throws Exception {
+        var parser = new KakaoBakeryPageParser(1);
+        for (int off = 0; off < body.length; off += chunk) {
+            parser.feed(ByteBuffer.wrap(body, off, Math.min(chunk, body.length - off)));
+        }
+        return parser.finish();
+    }
+}
@@ -0,0 +1,36 @@
+package org.crumb.be.recommend.service;
+
+import org.crumb.be.bakery.catalog.BakeryCatalog;
+import org.crumb.be.recommend.dto.RecommendedBakery;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.core.io.DefaultResourceLoader;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/** JVM 추천 한 요청 지연 (번들 카탈로그, 반경 2km, 상위 10개). FastAPI 경로는 HTTP 왕복 + DataFrame 복사가 추가된다 */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class RecommendBenchmark {
+
+    @Param({"", "소금빵", "크루아상,에그타르트,휘낭시에,베이글,케이크"})
+    String keywords;
+
+    LocalRecommendEngine engine;
+    List<String> keywordList;
+
+    @Setup
+    public void setup() {
+        var catalog = new BakeryCatalog(new DefaultResourceLoader(), "classpath:catalog/bakeries_clean.csv");
+        catalog.reload();
+        engine = new LocalRecommendEngine(catalog);
+        keywordList = keywords.isEmpty() ? List.of() : List.of(keywords.split(","));
+    }
+
+    @Benchmark
+    public List<RecommendedBakery> recommend() {
+        return engine.recommend(36.3504, 127.3845, keywordList, Set.of(), 2000, 10);
+    }
+}
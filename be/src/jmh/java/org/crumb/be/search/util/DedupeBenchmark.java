@@ -0,0 +1,71 @@
+package org.crumb.be.search.util;
+
+import org.crumb.be.search.dto.KakaoBakeryDto;
+import org.openjdk.jmh.annotations.*;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/** 기존 O(n²) 중복 제거 vs 공간 해시 중복 제거 (병합 결과 수천 건 기준) */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class DedupeBenchmark {
+
+    @Param({"45", "500", "2000", "5000"})
+    int n;
+
+    List<KakaoBakeryDto> items;
+
+    @Setup
+    public void setup() {
+        Random r = new Random(42);
+        items = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            KakaoBakeryDto b = new KakaoBakeryDto();
+            if (i > 0 && r.nextInt(5) == 0) {
+                // 20%는 다른 제공자에서 온 같은 가게 (이름 공백/좌표 오차)
+                KakaoBakeryDto src = items.get(r.nextInt(i));
+                b.setName(" " + src.getName().replace("빵", "빵 "));
+                b.setLatitude(src.getLatitude() + (r.nextDouble() - 0.5) * 0.0003);
+                b.setLongitude(src.getLongitude() + (r.nextDouble() - 0.5) * 0.0003);
+            } else {
+                b.setName("빵집" + r.nextInt(n));
+                b.setLatitude(37.3 + r.nextDouble() * 0.5);
+                b.setLongitude(126.7 + r.nextDouble() * 0.6);
+            }
+            items.add(b);
+        }
+    }
+
+    @Benchmark
+    public List<KakaoBakeryDto> quadratic() {
+        List<KakaoBakeryDto> result = new ArrayList<>();
+        for (KakaoBakeryDto b : items) {
+            String nameKey = legacyNormalize(b.getName());
+            boolean exists = result.stream().anyMatch(x ->
+                    legacyNormalize(x.getName()).equals(nameKey) &&
+                            GeoUtils.haversineMeters(x.getLatitude(), x.getLongitude(), b.getLatitude(), b.getLongitude()) < 80
+            );
+            if (!exists) result.add(b);
+        }
+        return result;
+    }
+
+    @Benchmark
+    public List<KakaoBakeryDto> spatialHash() {
+        return new SpatialDeduplicator<KakaoBakeryDto>(
+                KakaoBakeryDto::getName, KakaoBakeryDto::getLatitude, KakaoBakeryDto::getLongitude, 80
+        ).offerAll(items).result();
+    }
+
+    private static String legacyNormalize(String s) {
+        if (s == null) return "";
+        String n = Normalizer.normalize(s, Normalizer.Form.NFKC);
+        return n.replaceAll("\\s+", "").toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,67 @@
+package org.crumb.be.search.util;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/** 기준점 하나 → 점 n개 거리: 기존 haversine vs Origin 배치(등장방형 빠른 경로) vs 박스 사전 필터 반경 질의 */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class GeoDistanceBenchmark {
+
+    @Param({"45", "1000", "20000"})
+    int n;
+
+    /** 반경 질의 반경 (m). 점들은 기준점 주변 약 50km 안에 흩어져 있다 */
+    @Param({"2000", "20000"})
+    double radius;
+
+    double originLat = 37.5665, originLng = 126.9780;
+    double[] lats, lngs, out;
+    int[] idx;
+
+    @Setup
+    public void setup() {
+        Random r = new Random(42);
+        lats = new double[n];
+        lngs = new double[n];
+        for (int i = 0; i < n; i++) {
+            lats[i] = originLat + (r.nextDouble() - 0.5) * 0.9;
+            lngs[i] = originLng + (r.nextDouble() - 0.5) * 1.1;
+        }
+        out = new double[n];
+        idx = new int[n];
+    }
+
+    @Benchmark
+    public double[] haversine() {
+        for (int i = 0; i < n; i++) out[i] = GeoUtils.haversineMeters(originLat, originLng, lats[i], lngs[i]);
+        return out;
+    }
+
+    @Benchmark
+    public double[] originBatch() {
+        return GeoUtils.origin(originLat, originLng).distancesMeters(lats, lngs, n, out);
+    }
+
+    @Benchmark
+    public int haversineWithinRadius() {
+        int count = 0;
+        for (int i = 0; i < n; i++) {
+            double d = GeoUtils.haversineMeters(originLat, originLng, lats[i], lngs[i]);
+            if (d <= radius) {
+                idx[count] = i;
+                out[count] = d;
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Benchmark
+    public int originWithinRadius() {
+        return GeoUtils.origin(originLat, originLng).withinRadius(lats, lngs, n, radius, idx, out);
+    }
+}
@@ -0,0 +1,185 @@
+package org.crumb.be.bakery.catalog;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.crumb.be.search.util.NGramIndex;
+import org.crumb.be.search.util.SpatialGridIndex;
+import org.crumb.be.search.util.TfidfModel;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 큐레이션 빵집 카탈로그 (FastAPI 추천 서버와 같은 bakeries_clean.csv).
+ * 로드 시 공간 인덱스를 함께 만들어 두고, 스냅샷 단위로 교체한다.
+ */
+@Slf4j
+@Component
+public class BakeryCatalog {
+
+    private static final double INDEX_CELL_DEG = 0.01; // 약 1.1km
+    /** 키워드 색인 필드 가중치: 이름, 대표 메뉴, 소개 */
+    private static final double[] TEXT_FIELD_WEIGHTS = {1.0, 0.8, 0.6};
+
+    /** 추천 TF-IDF: FastAPI와 같은 name + " " + intro + " " + signature, 문자 2~4-gram */
+    private static final int TFIDF_MIN_N = 2, TFIDF_MAX_N = 4;
+
+    public record Snapshot(List<CatalogBakery> bakeries, SpatialGridIndex index, NGramIndex textIndex, TfidfModel tfidf) {
+        static final Snapshot EMPTY = new Snapshot(List.of(),
+                SpatialGridIndex.build(new double[0], new double[0], INDEX_CELL_DEG),
+                NGramIndex.build(List.of(), TEXT_FIELD_WEIGHTS),
+                TfidfModel.fit(List.of(), TFIDF_MIN_N, TFIDF_MAX_N));
+    }
+
+    private final ResourceLoader resourceLoader;
+    private final String path;
+    private volatile Snapshot snapshot = Snapshot.EMPTY;
+
+    public BakeryCatalog(ResourceLoader resourceLoader,
+                         @Value("${bakery.catalog.path:classpath:catalog/bakeries_clean.csv}") String path) {
+        this.resourceLoader = resourceLoader;
+        this.path = path;
+    }
+
+    @PostConstruct
+    void init() {
+        reload();
+    }
+
+    public Snapshot snapshot() {
+        return snapshot;
+    }
+
+    /** 카탈로그 파일을 다시 읽어 스냅샷 교체. 파일이 없으면 빈 카탈로그 */
+    public synchronized int reload() {
+        Resource resource = resourceLoader.getResource(path);
+        if (!resource.exists()) {
+            log.warn("[catalog] not found: {}", path);
+            snapshot = Snapshot.EMPTY;
+            return 0;
+        }
+        try (Reader reader = new InputStreamReader(resource.getInputStream(), StandardCharsets.UTF_8)) {
+            var bakeries = toBakeries(parseCsv(reader));
+            double[] lat = new double[bakeries.size()], lng = new double[bakeries.size()];
+            List<String[]> texts = new ArrayList<>(bakeries.size());
+            List<String> documents = new ArrayList<>(bakeries.size());
+            for (int i = 0; i < bakeries.size(); i++) {
+                var b = bakeries.get(i);
+                lat[i] = b.lat();
+                lng[i] = b.lng();
+                texts.add(new String[]{b.name(), b.signature(), b.intro()});
+                documents.add(b.name() + " " + b.intro() + " " + b.signature());
+            }
+            var textIndex = NGramIndex.build(texts, TEXT_FIELD_WEIGHTS);
+            snapshot = new Snapshot(List.copyOf(bakeries), SpatialGridIndex.build(lat, lng, INDEX_CELL_DEG), textIndex,
+                    TfidfModel.fit(documents, TFIDF_MIN_N, TFIDF_MAX_N));
+            log.info("[catalog] loaded {} bakeries from {} ({} grams, {} posting bytes)",
+                    bakeries.size(), path, textIndex.gramCount(), textIndex.postingBytes());
+            return bakeries.size();
+        } catch (IOException e) {
+            log.error("[catalog] load failed: {}", path, e);
+            return snapshot.bakeries().size();
+        }
+    }
+
+    /** FastAPI load_data와 같은 규칙: id가 하나라도 비어 있거나 숫자가 아니면 1..N으로 재부여 */
+    private static List<CatalogBakery> toBakeries(List<String[]> rows) {
+        if (rows.isEmpty()) return List.of();
+        Map<String, Integer> col = new HashMap<>();
+        String[] header = rows.get(0);
+        for (int i = 0; i < header.length; i++) col.put(header[i].trim().toLowerCase(), i);
+
+        var data = rows.subList(1, rows.size());
+        boolean renumber = !col.containsKey("id") || data.stream().anyMatch(r -> parseId(field(r, col, "id")) == null);
+
+        List<CatalogBakery> out = new ArrayList<>(data.size());
+        for (int i = 0; i < data.size(); i++) {
+            String[] r = data.get(i);
+            out.add(new CatalogBakery(
+                    renumber ? (long) (i + 1) : parseId(field(r, col, "id")),
+                    field(r, col, "name"),
+                    field(r, col, "address"),
+                    field(r, col, "intro"),
+                    field(r, col, "signature"),
+                    parseCoord(field(r, col, "lat")),
+                    parseCoord(field(r, col, "lng"))
+            ));
+        }
+        return out;
+    }
+
+    private static String field(String[] row, Map<String, Integer> col, String name) {
+        Integer i = col.get(name);
+        return (i == null || i >= row.length) ? "" : row[i];
+    }
+
+    private static Long parseId(String s) {
+        try { return s.isBlank() ? null : (long) Double.parseDouble(s.trim()); } catch (NumberFormatException e) { return null; }
+    }
+
+    private static double parseCoord(String s) {
+        try { return s.isBlank() ? Double.NaN : Double.parseDouble(s.trim()); } catch (NumberFormatException e) { return Double.NaN; }
+    }
+
+    /** RFC 4180 CSV (따옴표 안의 쉼표/줄바꿈, "" 이스케이프) */
+    static List<String[]> parseCsv(Reader raw) throws IOException {
+        Reader in = raw.markSupported() ? raw : new BufferedReader(raw);
+        List<String[]> rows = new ArrayList<>();
+        List<String> row = new ArrayList<>();
+        StringBuilder cell = new StringBuilder();
+        boolean quoted = false;
+        int c;
+        while ((c = in.read()) != -1) {
+            if (quoted) {
+                if (c == '"') {
+                    in.mark(1);
+                    int next = in.read();
+                    if (next == '"') {
+                        cell.append('"');
+                    } else {
+                        quoted = false;
+                        if (next != -1) in.reset();
+                    }
+                } else {
+                    cell.append((char) c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                row.add(cell.toString());
+                cell.setLength(0);
+            } else if (c == '\n' || c == '\r') {
+                if (c == '\r') {
+                    in.mark(1);
+                    if (in.read() != '\n') in.reset();
+                }
+                row.add(cell.toString());
+                cell.setLength(0);
+                if (!(row.size() == 1 && row.get(0).isEmpty())) rows.add(row.toArray(String[]::new));
+                row.clear();
+            } else {
+                cell.append((char) c);
+            }
+        }
+        if (cell.length() > 0 || !row.isEmpty()) {
+            row.add(cell.toString());
+            rows.add(row.toArray(String[]::new));
+        }
+        // BOM 제거
+        if (!rows.isEmpty() && rows.get(0).length > 0 && rows.get(0)[0].startsWith("\uFEFF")) {
+            rows.get(0)[0] = rows.get(0)[0].substring(1);
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,12 @@
+package org.crumb.be.bakery.catalog;
+
+/** 큐레이션 카탈로그(bakeries_clean.csv) 한 행. 좌표가 없으면 NaN */
+public record CatalogBakery(
+        Long id,
+        String name,
+        String address,
+        String intro,
+        String signature,
+        double lat,
+        double lng
+) {}
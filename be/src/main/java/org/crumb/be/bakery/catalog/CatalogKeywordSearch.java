@@ -0,0 +1,52 @@
+package org.crumb.be.bakery.catalog;
+
+import lombok.RequiredArgsConstructor;
+import org.crumb.be.search.util.GeoUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/** 카탈로그 n-gram 색인 + 반경 필터 키워드 검색 (네트워크 호출 없음) */
+@Component
+@RequiredArgsConstructor
+public class CatalogKeywordSearch {
+
+    public record Hit(CatalogBakery bakery, double score, Double distanceMeters) {}
+
+    private final BakeryCatalog catalog;
+
+    /** 질의 gram 커버리지가 이보다 낮은 문서는 결과에서 뺀다 */
+    @Value("${search.keyword.local.min-coverage:0.5}") private double minCoverage;
+
+    /** 점수 내림차순, 같으면 가까운 순으로 최대 limit개. lat/lng가 없으면 반경 필터 없이 점수 순 */
+    public List<Hit> search(String query, Double lat, Double lng, int radiusMeters, int limit) {
+        var snapshot = catalog.snapshot();
+        var index = snapshot.textIndex();
+        double[] scores = new double[index.docCount()];
+        int[] docs = index.search(query, scores);
+
+        boolean located = lat != null && lng != null;
+        var origin = located ? GeoUtils.origin(lat, lng) : null;
+        var box = located ? origin.boundingBox(radiusMeters) : null;
+
+        List<Hit> hits = new ArrayList<>();
+        for (int doc : docs) {
+            if (scores[doc] < minCoverage) continue;
+            var b = snapshot.bakeries().get(doc);
+            Double distance = null;
+            if (located) {
+                if (Double.isNaN(b.lat()) || !box.contains(b.lat(), b.lng())) continue;
+                double d = origin.distanceMeters(b.lat(), b.lng());
+                if (d > radiusMeters) continue;
+                distance = d;
+            }
+            hits.add(new Hit(b, scores[doc], distance));
+        }
+        hits.sort(Comparator.comparingDouble(Hit::score).reversed()
+                .thenComparing(Hit::distanceMeters, Comparator.nullsLast(Comparator.naturalOrder())));
+        return hits.size() > limit ? hits.subList(0, limit) : hits;
+    }
+}
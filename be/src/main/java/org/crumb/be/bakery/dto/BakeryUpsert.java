@@ -0,0 +1,44 @@
+package org.crumb.be.bakery.dto;
+
+import org.crumb.be.recommend.dto.KakaoSearchResponse;
+import org.crumb.be.search.dto.KakaoBakeryDto;
+
+/** bakeries upsert 한 행. 빈 문자열은 null로 (기존 값을 빈 값으로 덮지 않도록) */
+public record BakeryUpsert(
+        String kakaoPlaceId,
+        String name,
+        String address,
+        String roadAddress,
+        String phone,
+        double lat,
+        double lng,
+        String placeUrl
+) {
+    /** id/이름/좌표가 없으면 null */
+    public static BakeryUpsert from(KakaoBakeryDto d) {
+        if (d.getId() == null || d.getId() <= 0 || blank(d.getName())
+                || (d.getLatitude() == 0 && d.getLongitude() == 0)) return null;
+        return new BakeryUpsert(String.valueOf(d.getId()), d.getName(),
+                emptyToNull(d.getAddress()), emptyToNull(d.getRoad_address()), emptyToNull(d.getPhone()),
+                d.getLatitude(), d.getLongitude(), emptyToNull(d.getPlace_url()));
+    }
+
+    public static BakeryUpsert from(KakaoSearchResponse.Document d) {
+        if (blank(d.id()) || blank(d.place_name())) return null;
+        try {
+            return new BakeryUpsert(d.id(), d.place_name(),
+                    emptyToNull(d.address_name()), emptyToNull(d.road_address_name()), null,
+                    Double.parseDouble(d.y()), Double.parseDouble(d.x()), null);
+        } catch (NumberFormatException | NullPointerException e) {
+            return null;
+        }
+    }
+
+    private static boolean blank(String s) {
+        return s == null || s.isBlank();
+    }
+
+    private static String emptyToNull(String s) {
+        return blank(s) ? null : s;
+    }
+}
@@ -0,0 +1,46 @@
+package org.crumb.be.bakery.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.Instant;
+
+/** 검색 제공자(카카오) 결과로 쌓이는 빵집 카탈로그. 쓰기는 BakeryUpsertRepository의 배치 upsert로만 한다 */
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@Entity
+@Table(name = "bakeries",
+        uniqueConstraints = @UniqueConstraint(name = "uk_bakeries_kakao_place", columnNames = "kakaoPlaceId"),
+        indexes = @Index(name = "idx_bakeries_lat_lng", columnList = "lat, lng"))
+public class Bakery {
+
+    @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable=false, length=32)
+    private String kakaoPlaceId;
+
+    @Column(nullable=false, length=200)
+    private String name;
+    @Column(length=300)
+    private String address;
+    @Column(length=300)
+    private String roadAddress;
+    @Column(length=50)
+    private String phone;
+
+    @Column(nullable=false)
+    private double lat;
+    @Column(nullable=false)
+    private double lng;
+
+    @Column(length=300)
+    private String placeUrl;
+
+    @CreationTimestamp @Column(nullable=false, updatable=false)
+    private Instant createdAt;
+    @UpdateTimestamp @Column(nullable=false)
+    private Instant updatedAt;
+}
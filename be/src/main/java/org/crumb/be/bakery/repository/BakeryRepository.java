@@ -0,0 +1,7 @@
+package org.crumb.be.bakery.repository;
+
+import org.crumb.be.bakery.entity.Bakery;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface BakeryRepository extends JpaRepository<Bakery, Long> {
+}
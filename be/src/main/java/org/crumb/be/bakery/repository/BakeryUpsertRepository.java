@@ -0,0 +1,57 @@
+package org.crumb.be.bakery.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.crumb.be.bakery.dto.BakeryUpsert;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.List;
+
+/** bakeries 배치 upsert (JDBC 배치 + INSERT ... ON CONFLICT). 엔티티 save를 거치지 않는다 */
+@Repository
+@RequiredArgsConstructor
+public class BakeryUpsertRepository {
+
+    // 바뀐 값이 있을 때만 UPDATE (같은 결과가 반복 들어와도 dead tuple을 만들지 않음)
+    private static final String UPSERT_SQL = """
+            INSERT INTO bakeries (kakao_place_id, name, address, road_address, phone, lat, lng, place_url, created_at, updated_at)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, now(), now())
+            ON CONFLICT (kakao_place_id) DO UPDATE SET
+                name = EXCLUDED.name,
+                address = COALESCE(EXCLUDED.address, bakeries.address),
+                road_address = COALESCE(EXCLUDED.road_address, bakeries.road_address),
+                phone = COALESCE(EXCLUDED.phone, bakeries.phone),
+                lat = EXCLUDED.lat,
+                lng = EXCLUDED.lng,
+                place_url = COALESCE(EXCLUDED.place_url, bakeries.place_url),
+                updated_at = now()
+            WHERE (bakeries.name, bakeries.address, bakeries.road_address, bakeries.phone,
+                   bakeries.lat, bakeries.lng, bakeries.place_url)
+                IS DISTINCT FROM
+                  (EXCLUDED.name, COALESCE(EXCLUDED.address, bakeries.address),
+                   COALESCE(EXCLUDED.road_address, bakeries.road_address), COALESCE(EXCLUDED.phone, bakeries.phone),
+                   EXCLUDED.lat, EXCLUDED.lng, COALESCE(EXCLUDED.place_url, bakeries.place_url))
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public void upsertAll(List<BakeryUpsert> rows, int batchSize) {
+        jdbcTemplate.batchUpdate(UPSERT_SQL, rows, batchSize, (ps, b) -> {
+            ps.setString(1, b.kakaoPlaceId());
+            ps.setString(2, b.name());
+            setNullable(ps, 3, b.address());
+            setNullable(ps, 4, b.roadAddress());
+            setNullable(ps, 5, b.phone());
+            ps.setDouble(6, b.lat());
+            ps.setDouble(7, b.lng());
+            setNullable(ps, 8, b.placeUrl());
+        });
+    }
+
+    private static void setNullable(PreparedStatement ps, int i, String v) throws SQLException {
+        if (v == null) ps.setNull(i, Types.VARCHAR); else ps.setString(i, v);
+    }
+}
@@ -0,0 +1,91 @@
+package org.crumb.be.bakery.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.crumb.be.bakery.dto.BakeryUpsert;
+import org.crumb.be.bakery.repository.BakeryUpsertRepository;
+import org.crumb.be.common.batch.WriteBehindBuffer;
+import org.crumb.be.recommend.dto.KakaoSearchResponse;
+import org.crumb.be.search.dto.KakaoBakeryDto;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 검색 제공자 결과를 bakeries 테이블에 비동기로 쌓는다.
+ * 요청 경로에서는 버퍼에 넣기만 하고, flush-interval마다 같은 장소를 합쳐 JDBC 배치 upsert 한다.
+ */
+@Slf4j
+@Service
+public class BakeryUpsertService {
+
+    private final BakeryUpsertRepository upsertRepository;
+    private final WriteBehindBuffer<BakeryUpsert> buffer;
+    private final boolean enabled;
+    private final int batchSize;
+    private final Counter written;
+    private final Counter dropped;
+
+    public BakeryUpsertService(
+            BakeryUpsertRepository upsertRepository,
+            MeterRegistry meterRegistry,
+            @Value("${bakery.upsert.enabled:true}") boolean enabled,
+            @Value("${bakery.upsert.capacity:20000}") int capacity,
+            @Value("${bakery.upsert.batch-size:500}") int batchSize
+    ) {
+        this.upsertRepository = upsertRepository;
+        this.buffer = new WriteBehindBuffer<>(capacity);
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        Gauge.builder("bakery.upsert.pending", buffer, WriteBehindBuffer::size).register(meterRegistry);
+        this.written = Counter.builder("bakery.upsert.written").register(meterRegistry);
+        this.dropped = Counter.builder("bakery.upsert.dropped")
+                .description("버퍼가 가득 차서 버린 결과").register(meterRegistry);
+    }
+
+    public void offerAll(List<KakaoBakeryDto> bakeries) {
+        if (!enabled || bakeries == null) return;
+        for (KakaoBakeryDto d : bakeries) offer(BakeryUpsert.from(d));
+    }
+
+    public void offerDocuments(List<KakaoSearchResponse.Document> documents) {
+        if (!enabled || documents == null) return;
+        for (KakaoSearchResponse.Document d : documents) offer(BakeryUpsert.from(d));
+    }
+
+    private void offer(BakeryUpsert row) {
+        if (row != null && !buffer.offer(row)) dropped.increment();
+    }
+
+    @Scheduled(fixedDelayString = "${bakery.upsert.flush-interval:2s}")
+    public void flush() {
+        // 한 번에 버퍼 크기만큼만 (그 사이 들어온 건 다음 주기에)
+        for (int remaining = buffer.size(); remaining > 0; remaining -= batchSize) {
+            List<BakeryUpsert> batch = buffer.drain(batchSize);
+            if (batch.isEmpty()) return;
+
+            // 같은 장소가 여러 번 들어왔으면 마지막 값만
+            Map<String, BakeryUpsert> latest = new LinkedHashMap<>();
+            for (BakeryUpsert b : batch) latest.put(b.kakaoPlaceId(), b);
+            try {
+                upsertRepository.upsertAll(List.copyOf(latest.values()), batchSize);
+                written.increment(latest.size());
+            } catch (Exception e) {
+                // 카탈로그 적재 실패는 검색에 영향을 주지 않는다 (다음 검색 결과로 다시 채워짐)
+                log.warn("[bakery] upsert failed size={}: {}", latest.size(), e.toString());
+            }
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+}
@@ -0,0 +1,232 @@
+package org.crumb.be.client;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.crumb.be.client.resilience.Bulkhead;
+import org.crumb.be.client.resilience.CallRejectedException;
+import org.crumb.be.client.resilience.CircuitBreaker;
+import org.crumb.be.client.resilience.LatencyTracker;
+import org.crumb.be.recommend.dto.FastapiBatchResponse;
+import org.crumb.be.recommend.dto.RecommendedBakery;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+/**
+ * FastAPI 추천 서버 호출 (서킷 브레이커 + 헤지 요청 + 벌크헤드 + 기한).
+ * - 서킷이 열려 있거나 동시 호출이 상한이면 호출하지 않고 CallRejectedException
+ * - 첫 요청이 최근 지연 p{hedge.percentile} 안에 안 끝나면 같은 요청을 한 번 더 보내 먼저 온 응답을 쓴다
+ * - deadline 안에 응답이 없으면 CallRejectedException("deadline")
+ * - /recommend/batch는 기준점 수에 따라 응답 시간이 달라 서킷 브레이커를 따로 두고 느린 호출은 세지 않는다
+ *   (에러와 기한 초과만 실패). 배치가 느려도 단건 추천 서킷이 열리지 않는다
+ * 대체 결과(거리순 로컬 추천)는 호출하는 쪽(RecommendService)이 만든다.
+ */
+@Slf4j
+@Component
+public class FastapiRecommendClient {
+
+    private final WebClient fastapiClient;
+    private final CircuitBreaker breaker;
+    private final CircuitBreaker batchBreaker;
+    private final Bulkhead bulkhead;
+    private final LatencyTracker latency;
+    private final Duration deadline;
+    private final boolean hedgeEnabled;
+    private final Duration hedgeMinDelay;
+    private final Counter rejectedOpen;
+    private final Counter rejectedBulkhead;
+    private final Counter hedged;
+    private final Counter deadlineMissed;
+
+    public FastapiRecommendClient(
+            @Qualifier("fastapiClient") WebClient fastapiClient,
+            MeterRegistry meterRegistry,
+            @Value("${recommend.fastapi.deadline:1500ms}") Duration deadline,
+            @Value("${recommend.fastapi.max-concurrency:64}") int maxConcurrency,
+            @Value("${recommend.fastapi.breaker.window-size:50}") int windowSize,
+            @Value("${recommend.fastapi.breaker.minimum-calls:20}") int minimumCalls,
+            @Value("${recommend.fastapi.breaker.failure-rate:50}") double failureRate,
+            @Value("${recommend.fastapi.breaker.slow-call:1s}") Duration slowCall,
+            @Value("${recommend.fastapi.breaker.open-duration:30s}") Duration openDuration,
+            @Value("${recommend.fastapi.breaker.half-open-calls:5}") int halfOpenCalls,
+            @Value("${recommend.fastapi.hedge.enabled:true}") boolean hedgeEnabled,
+            @Value("${recommend.fastapi.hedge.percentile:95}") double hedgePercentile,
+            @Value("${recommend.fastapi.hedge.min-delay:50ms}") Duration hedgeMinDelay
+    ) {
+        this.fastapiClient = fastapiClient;
+        this.deadline = deadline;
+        this.bulkhead = new Bulkhead(maxConcurrency);
+        this.breaker = new CircuitBreaker(windowSize, minimumCalls, failureRate,
+                slowCall.toNanos(), openDuration.toNanos(), halfOpenCalls);
+        this.batchBreaker = new CircuitBreaker(windowSize, minimumCalls, failureRate,
+                Long.MAX_VALUE, openDuration.toNanos(), halfOpenCalls);
+        this.latency = new LatencyTracker(256, hedgePercentile, 20);
+        this.hedgeEnabled = hedgeEnabled;
+        this.hedgeMinDelay = hedgeMinDelay;
+
+        registerBreaker(meterRegistry, "single", breaker);
+        registerBreaker(meterRegistry, "batch", batchBreaker);
+        Gauge.builder("recommend.fastapi.inflight", bulkhead, Bulkhead::inFlight).register(meterRegistry);
+        Gauge.builder("recommend.fastapi.hedge.delay", latency, t -> t.percentileNanos() / 1e6)
+                .description("헤지 요청 기준 지연(ms), 표본 부족이면 음수").register(meterRegistry);
+        this.rejectedOpen = Counter.builder("recommend.fastapi.rejected")
+                .tag("reason", "circuit_open").register(meterRegistry);
+        this.rejectedBulkhead = Counter.builder("recommend.fastapi.rejected")
+                .tag("reason", "bulkhead_full").register(meterRegistry);
+        this.deadlineMissed = Counter.builder("recommend.fastapi.rejected")
+                .tag("reason", "deadline").register(meterRegistry);
+        this.hedged = Counter.builder("recommend.fastapi.hedged")
+                .description("두 번째 요청을 보낸 호출").register(meterRegistry);
+    }
+
+    public Mono<List<RecommendedBakery>> recommend(double lat, double lng, List<String> keywords, int radius, int limit) {
+        return guarded(breaker, true, () -> fastapiClient.get()
+                .uri(uriBuilder -> {
+                    var b = uriBuilder.path("/recommend")
+                            .queryParam("lat", lat)
+                            .queryParam("lng", lng)
+                            .queryParam("radius", radius)
+                            .queryParam("limit", limit);
+                    if (!keywords.isEmpty()) {
+                        // FastAPI는 콤마 기준 split → 콤마로 조인
+                        b.queryParam("keywords", String.join(",", keywords));
+                    }
+                    return b.build();
+                })
+                .accept(MediaType.APPLICATION_JSON)
+                .retrieve()
+                .onStatus(HttpStatusCode::isError, FastapiRecommendClient::errorStatus)
+                .bodyToFlux(RecommendedBakery.class)
+                .collectList());
+    }
+
+    /**
+     * 여러 기준점을 POST /recommend/batch 한 번으로. 결과는 centers와 같은 순서.
+     * 응답 시간이 기준점 수에 따라 달라서 헤지하지 않고, 지연 백분위수 표본에도 넣지 않는다 (서킷도 따로).
+     */
+    public Mono<List<List<RecommendedBakery>>> recommendBatch(List<double[]> centers, List<String> keywords,
+                                                              int radius, int limit) {
+        List<Map<String, Double>> anchors = centers.stream()
+                .map(c -> Map.of("lat", c[0], "lng", c[1]))
+                .toList();
+        var body = Map.of("anchors", anchors, "keywords", keywords, "radius", radius, "limit", limit);
+        return guarded(batchBreaker, false, () -> fastapiClient.post()
+                .uri("/recommend/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaType.APPLICATION_JSON)
+                .bodyValue(body)
+                .retrieve()
+                .onStatus(HttpStatusCode::isError, FastapiRecommendClient::errorStatus)
+                .bodyToMono(FastapiBatchResponse.class)
+                .flatMap(resp -> {
+                    var results = resp.expand();
+                    return results.size() == centers.size() ? Mono.just(results)
+                            : Mono.error(new IllegalStateException(
+                                    "fastapi batch size mismatch: " + results.size() + " != " + centers.size()));
+                }));
+    }
+
+    /** 서킷 브레이커 → 벌크헤드 → (헤지) → 기한 */
+    private <T> Mono<T> guarded(CircuitBreaker breaker, boolean hedgeable, Supplier<Mono<T>> request) {
+        return Mono.defer(() -> {
+            if (!breaker.tryAcquire()) {
+                rejectedOpen.increment();
+                return Mono.error(new CallRejectedException("circuit_open"));
+            }
+            if (!bulkhead.tryAcquire()) {
+                breaker.release();
+                rejectedBulkhead.increment();
+                return Mono.error(new CallRejectedException("bulkhead_full"));
+            }
+
+            long start = System.nanoTime();
+            AtomicBoolean answered = new AtomicBoolean();
+            AtomicBoolean recorded = new AtomicBoolean();
+            Mono<T> call = send(request, hedgeable, answered)
+                    .doFinally(signal -> bulkhead.release());
+            Duration hedgeDelay = hedgeable ? hedgeDelay() : null;
+            if (hedgeDelay != null) {
+                // 헤지 요청도 벌크헤드를 지킨다 (자리가 없으면 보내지 않음)
+                Mono<T> hedge = Mono.delay(hedgeDelay)
+                        .then(Mono.defer(() -> {
+                            if (answered.get() || !bulkhead.tryAcquire()) return Mono.<T>empty();
+                            hedged.increment();
+                            return send(request, true, answered)
+                                    .doFinally(signal -> bulkhead.release());
+                        }));
+                call = Mono.firstWithValue(call, hedge);
+            }
+            // 헤지 여부와 상관없이 호출 하나에 서킷 결과 하나 (기한 초과도 실패 한 번)
+            return call
+                    .timeout(deadline)
+                    .onErrorMap(TimeoutException.class, e -> {
+                        deadlineMissed.increment();
+                        return new CallRejectedException("deadline");
+                    })
+                    .doOnSuccess(v -> {
+                        if (recorded.compareAndSet(false, true)) breaker.onResult(System.nanoTime() - start, false);
+                    })
+                    .doOnError(e -> {
+                        if (recorded.compareAndSet(false, true)) breaker.onResult(System.nanoTime() - start, true);
+                    })
+                    // 호출한 쪽이 먼저 끊으면 FastAPI 탓이 아니므로 허가만 돌려준다
+                    .doOnCancel(() -> {
+                        if (recorded.compareAndSet(false, true)) breaker.release();
+                    });
+        });
+    }
+
+    private static void registerBreaker(MeterRegistry meterRegistry, String call, CircuitBreaker breaker) {
+        for (CircuitBreaker.State s : CircuitBreaker.State.values()) {
+            Gauge.builder("recommend.fastapi.circuit.state", breaker, b -> b.state() == s ? 1 : 0)
+                    .tag("call", call)
+                    .tag("state", s.name().toLowerCase(Locale.ROOT))
+                    .description("현재 상태면 1").register(meterRegistry);
+        }
+        Gauge.builder("recommend.fastapi.circuit.failure.rate", breaker, CircuitBreaker::failureRatePercent)
+                .tag("call", call)
+                .description("슬라이딩 윈도 실패 비율(%)").register(meterRegistry);
+    }
+
+    /** 최근 지연 백분위수 (최소 min-delay). 표본이 부족하거나 deadline보다 길면 헤지하지 않는다 */
+    private Duration hedgeDelay() {
+        long p = latency.percentileNanos();
+        if (!hedgeEnabled || p < 0) return null;
+        long delay = Math.max(p, hedgeMinDelay.toNanos());
+        return delay < deadline.toNanos() ? Duration.ofNanos(delay) : null;
+    }
+
+    /** 요청 한 번 (원 요청 또는 헤지). 응답 지연은 헤지 기준 표본에 넣고, 서킷 결과는 guarded가 호출 단위로 기록한다 */
+    private <T> Mono<T> send(Supplier<Mono<T>> request, boolean trackLatency, AtomicBoolean answered) {
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            return request.get()
+                    .doOnNext(items -> {
+                        answered.set(true);
+                        if (trackLatency) latency.record(System.nanoTime() - start);
+                    });
+        });
+    }
+
+    private static Mono<? extends Throwable> errorStatus(ClientResponse resp) {
+        return resp.bodyToMono(String.class).defaultIfEmpty("").flatMap(body -> {
+            log.warn("[recommend] fastapi error status={} body={}", resp.statusCode(), body);
+            return Mono.error(new IllegalStateException("fastapi error: " + resp.statusCode()));
+        });
+    }
+}
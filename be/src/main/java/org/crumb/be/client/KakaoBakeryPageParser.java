@@ -0,0 +1,128 @@
+package org.crumb.be.client;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.async.ByteBufferFeeder;
+import org.crumb.be.search.dto.KakaoBakeryDto;
+import org.crumb.be.search.dto.KakaoBakeryPage;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 카카오 키워드 검색 응답을 받는 대로(청크 단위) 토큰 파싱해서 documents를 바로 {@link KakaoBakeryDto}로 만든다.
+ * 응답 전체를 String이나 JsonNode 트리로 만들지 않는다. 인스턴스는 응답 하나에만 쓴다.
+ */
+public final class KakaoBakeryPageParser {
+
+    private static final JsonFactory JSON = new JsonFactory();
+
+    private static final int ROOT = 1;      // {"documents": [...], "meta": {...}}
+    private static final int MEMBER = 2;    // meta 필드 / documents 배열
+    private static final int DOCUMENT = 3;  // documents[i] 필드
+
+    private final int page;
+    private final JsonParser parser;
+    private final ByteBufferFeeder feeder;
+
+    private final List<KakaoBakeryDto> documents = new ArrayList<>(KakaoMapClient.PAGE_SIZE);
+    private int depth;
+    private String rootField;
+    private String field;
+    private KakaoBakeryDto current;
+    private int totalCount = -1;
+    private int pageableCount = -1;
+    private boolean end = true;
+
+    public KakaoBakeryPageParser(int page) {
+        this.page = page;
+        try {
+            this.parser = JSON.createNonBlockingByteBufferParser();
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        this.feeder = (ByteBufferFeeder) parser.getNonBlockingInputFeeder();
+    }
+
+    /** 청크 하나를 넣고 지금까지 완성된 토큰을 모두 처리한다 (버퍼는 반환 후 재사용/해제해도 된다) */
+    public void feed(ByteBuffer chunk) throws IOException {
+        feeder.feedInput(chunk);
+        drain();
+    }
+
+    public KakaoBakeryPage finish() throws IOException {
+        feeder.endOfInput();
+        drain();
+        parser.close();
+        int count = documents.size();
+        return new KakaoBakeryPage(page, documents,
+                totalCount < 0 ? count : totalCount,
+                pageableCount < 0 ? count : pageableCount,
+                end, false);
+    }
+
+    private void drain() throws IOException {
+        JsonToken t;
+        while ((t = parser.nextToken()) != null && t != JsonToken.NOT_AVAILABLE) {
+            switch (t) {
+                case START_OBJECT -> {
+                    depth++;
+                    if (depth == DOCUMENT && "documents".equals(rootField)) current = new KakaoBakeryDto();
+                }
+                case START_ARRAY -> depth++;
+                case END_OBJECT -> {
+                    if (depth == DOCUMENT && current != null) {
+                        documents.add(current);
+                        current = null;
+                    }
+                    depth--;
+                }
+                case END_ARRAY -> depth--;
+                case FIELD_NAME -> {
+                    if (depth == ROOT) rootField = parser.currentName();
+                    else field = parser.currentName();
+                }
+                default -> value(t);
+            }
+        }
+    }
+
+    private void value(JsonToken t) throws IOException {
+        if (depth == DOCUMENT && current != null) {
+            document(current, field, t == JsonToken.VALUE_NULL ? "" : parser.getText());
+        } else if (depth == MEMBER && "meta".equals(rootField)) {
+            switch (field) {
+                case "total_count" -> totalCount = parser.getValueAsInt(-1);
+                case "pageable_count" -> pageableCount = parser.getValueAsInt(-1);
+                case "is_end" -> end = parser.getValueAsBoolean(true);
+                default -> { }
+            }
+        }
+    }
+
+    private static void document(KakaoBakeryDto dto, String field, String v) {
+        switch (field) {
+            case "id" -> dto.setId(parseLong(v));
+            case "place_name" -> dto.setName(v);
+            case "address_name" -> dto.setAddress(v);
+            case "road_address_name" -> dto.setRoad_address(v);
+            case "phone" -> dto.setPhone(v);
+            case "x" -> dto.setLongitude(parseDouble(v));
+            case "y" -> dto.setLatitude(parseDouble(v));
+            case "distance" -> dto.setDistance(parseLong(v));
+            case "place_url" -> dto.setPlace_url(v);
+            default -> { }
+        }
+    }
+
+    private static long parseLong(String s) {
+        try { return s.isEmpty() ? 0L : Long.parseLong(s); } catch (NumberFormatException e) { return 0L; }
+    }
+
+    private static double parseDouble(String s) {
+        try { return s.isEmpty() ? 0d : Double.parseDouble(s); } catch (NumberFormatException e) { return 0d; }
+    }
+}
@@ -1,35 +1,150 @@
 package org.crumb.be.client;
 
-import lombok.RequiredArgsConstructor;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.crumb.be.bakery.service.BakeryUpsertService;
 import org.crumb.be.recommend.dto.KakaoSearchResponse;
+import org.crumb.be.search.util.GeoUtils;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 import org.springframework.web.reactive.function.client.WebClient;
 import reactor.core.publisher.Mono;
 
+import java.text.Normalizer;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.regex.Pattern;
+
+/**
+ * 카카오 키워드 검색. 같은 (정규화 검색어, 반올림 좌표, 반경, 개수) 요청은
+ * 진행 중인 카카오 호출 하나를 공유하고(single-flight), 끝난 결과도 memo-ttl 동안 재사용한다.
+ * 정규화/반올림은 공유 키에만 쓰고, 카카오에는 처음 요청한 쪽의 검색어와 좌표를 그대로 보낸다.
+ * 공유한 응답은 요청마다 자기 좌표로 거리를 다시 계산해 정렬하고 반경 밖은 뺀다 (좌표 차이는 반올림 단위 이내).
+ */
 @Component
-@RequiredArgsConstructor
 public class KakaoLocalClient {
 
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    public record SearchKey(String query, Double lat, Double lng, Integer radius, int size) {}
+
     private final WebClient kakaoClient;
+    private final BakeryUpsertService bakeryUpsertService;
+    private final AsyncCache<SearchKey, KakaoSearchResponse> flights;
+    private final double coordScale;
+    private final Counter upstreamCalls;
+    private final Counter coalesced;
+    private final Counter memoHits;
+
+    public KakaoLocalClient(
+            @Qualifier("kakaoClient") WebClient kakaoClient,
+            BakeryUpsertService bakeryUpsertService,
+            MeterRegistry meterRegistry,
+            @Value("${kakao.local-search.memo-ttl:3s}") Duration memoTtl,
+            @Value("${kakao.local-search.coord-decimals:4}") int coordDecimals,
+            @Value("${kakao.local-search.max-entries:10000}") long maxEntries
+    ) {
+        this.kakaoClient = kakaoClient;
+        this.bakeryUpsertService = bakeryUpsertService;
+        this.coordScale = Math.pow(10, coordDecimals);
+        // 진행 중인 future는 만료되지 않고, 실패한 future는 캐시에서 바로 빠진다
+        this.flights = Caffeine.newBuilder()
+                .expireAfterWrite(memoTtl)
+                .maximumSize(maxEntries)
+                .buildAsync();
+        this.upstreamCalls = Counter.builder("kakao.local.search")
+                .tag("source", "upstream").description("카카오로 실제 나간 호출").register(meterRegistry);
+        this.coalesced = Counter.builder("kakao.local.search")
+                .tag("source", "coalesced").description("진행 중인 호출에 합류해 아낀 호출").register(meterRegistry);
+        this.memoHits = Counter.builder("kakao.local.search")
+                .tag("source", "memo").description("직전 결과 재사용으로 아낀 호출").register(meterRegistry);
+    }
 
     public Mono<KakaoSearchResponse> keywordSearch(
             String query, Double lat, Double lng, Integer radius, Integer size
     ) {
         final int sz = (size == null ? 10 : Math.min(size, 15));
+        final boolean located = lat != null && lng != null;
+        var key = new SearchKey(
+                normalize(query),
+                located ? round(lat) : null,
+                located ? round(lng) : null,
+                located ? radius : null,
+                sz);
+
+        return Mono.defer(() -> {
+            boolean[] leader = {false};
+            CompletableFuture<KakaoSearchResponse> flight = flights.get(key, (k, executor) -> {
+                leader[0] = true;
+                return fetch(query, lat, lng, k).toFuture();
+            });
+            if (leader[0]) upstreamCalls.increment();
+            else if (flight.isDone()) memoHits.increment();
+            else coalesced.increment();
+            // 구독자 하나가 취소해도 공유 중인 호출은 취소하지 않는다
+            Mono<KakaoSearchResponse> shared = Mono.fromFuture(flight, true);
+            return located ? shared.map(resp -> rerank(resp, lat, lng, key.radius())) : shared;
+        });
+    }
 
+    /** 키를 처음 만든 요청의 검색어/좌표 그대로 (키의 정규화/반올림 값은 보내지 않음) */
+    private Mono<KakaoSearchResponse> fetch(String query, Double lat, Double lng, SearchKey key) {
         return kakaoClient.get()
                 .uri(uri -> {
                     var b = uri.path("/v2/local/search/keyword.json")
-                            .queryParam("query", query)
-                            .queryParam("size", sz);
-                    if (lat != null && lng != null) {
+                            .queryParam("query", query == null ? "" : query)
+                            .queryParam("size", key.size());
+                    if (key.lat() != null) {
                         b.queryParam("y", lat).queryParam("x", lng);
-                        if (radius != null) b.queryParam("radius", radius);
+                        if (key.radius() != null) b.queryParam("radius", key.radius());
                         b.queryParam("sort", "distance");
                     }
                     return b.build();
                 })
                 .retrieve()
-                .bodyToMono(KakaoSearchResponse.class);
+                .bodyToMono(KakaoSearchResponse.class)
+                .doOnNext(resp -> bakeryUpsertService.offerDocuments(resp.documents()));
+    }
+
+    /** 요청 좌표 기준 거리로 다시 쓰고 가까운 순 정렬, 반경 밖은 뺀다 (좌표가 없는 문서는 그대로 뒤에) */
+    static KakaoSearchResponse rerank(KakaoSearchResponse resp, double lat, double lng, Integer radius) {
+        if (resp == null || resp.documents() == null) return resp;
+        var origin = GeoUtils.origin(lat, lng);
+        record Ranked(KakaoSearchResponse.Document doc, double distance) {}
+        List<Ranked> ranked = new ArrayList<>(resp.documents().size());
+        for (var d : resp.documents()) {
+            double y = parseCoord(d.y()), x = parseCoord(d.x());
+            if (Double.isNaN(y) || Double.isNaN(x)) {
+                ranked.add(new Ranked(d, Double.POSITIVE_INFINITY));
+                continue;
+            }
+            double distance = origin.distanceMeters(y, x);
+            if (radius != null && Math.round(distance) > radius) continue;
+            ranked.add(new Ranked(new KakaoSearchResponse.Document(d.id(), d.place_name(), d.address_name(),
+                    d.road_address_name(), d.x(), d.y(), String.valueOf(Math.round(distance))), distance));
+        }
+        ranked.sort(Comparator.comparingDouble(Ranked::distance));
+        return new KakaoSearchResponse(ranked.stream().map(Ranked::doc).toList(), resp.meta());
+    }
+
+    private static double parseCoord(String s) {
+        try { return s == null ? Double.NaN : Double.parseDouble(s); } catch (NumberFormatException e) { return Double.NaN; }
+    }
+
+    private double round(double v) {
+        return Math.round(v * coordScale) / coordScale;
+    }
+
+    static String normalize(String query) {
+        if (query == null) return "";
+        String n = Normalizer.normalize(query, Normalizer.Form.NFKC).strip();
+        return WHITESPACE.matcher(n).replaceAll(" ").toLowerCase(Locale.ROOT);
     }
 }
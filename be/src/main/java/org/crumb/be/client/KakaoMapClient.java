@@ -1,94 +1,107 @@
 package org.crumb.be.client;
 
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
-
-import org.crumb.be.search.dto.KakaoBakeryDto;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.http.HttpEntity;
-import org.springframework.http.HttpHeaders;
-import org.springframework.http.HttpMethod;
-import org.springframework.http.ResponseEntity;
+import lombok.extern.slf4j.Slf4j;
+import org.crumb.be.bakery.service.BakeryUpsertService;
+import org.crumb.be.client.quota.CallPriority;
+import org.crumb.be.client.quota.KakaoQuotaScheduler;
+import org.crumb.be.search.dto.KakaoBakeryPage;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
-import org.springframework.web.util.UriComponentsBuilder;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.List;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 
+/** 카카오 로컬 키워드 검색 ("bakery") - 공용 kakaoClient(WebClient) 위에서 논블로킹으로 동작 */
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class KakaoMapClient {
 
-    private final RestTemplate restTemplate = new RestTemplate();
-
-    @Value("${kakao.rest-api-key}")
-    private String kakaoKey;
-    private String searchUrl = "https://dapi.kakao.com/v2/local/search/keyword.json";
-
-    public List<KakaoBakeryDto> searchBakery(double lat, double lng, int radiusMeters) {
-        String query = "bakery";
-
-        String url = UriComponentsBuilder
-                .fromHttpUrl(searchUrl)
-                .queryParam("query", query)
-                .queryParam("x", lng)
-                .queryParam("y", lat)
-                .queryParam("radius", radiusMeters)
-                .queryParam("size", 15)
-                .toUriString();
-        System.out.println("url: " + url);
-
-        HttpHeaders headers = new HttpHeaders();
-        headers.set("Authorization", "KakaoAK " + kakaoKey);
-        headers.set(HttpHeaders.ACCEPT, "application/json;charset=UTF-8");
-        headers.set(HttpHeaders.ACCEPT_CHARSET, "UTF-8");
-
-        System.out.println("Authorization: KakaoAK " + kakaoKey);
+    /** 카카오 키워드 검색 radius 파라미터 상한 (m) */
+    public static final int MAX_RADIUS_METERS = 20000;
+    /** 페이지당 최대 건수 / 조회 가능한 최대 페이지 (pageable_count 상한 45) */
+    public static final int PAGE_SIZE = 15;
+    public static final int MAX_PAGES = 3;
 
-        HttpEntity<Void> entity = new HttpEntity<>(headers);
+    private static final String QUERY = "bakery";
 
-        try {
-            ResponseEntity<String> response = restTemplate.exchange(
-                    url,
-                    HttpMethod.GET,
-                    entity,
-                    String.class
-            );
+    @Qualifier("kakaoClient")
+    private final WebClient kakaoClient;
+    private final BakeryUpsertService bakeryUpsertService;
 
-            System.out.println("Raw Kakao Response: " + response.getBody());
-            System.out.println("Status: " + response.getStatusCode());
-
-            ObjectMapper objectMapper = new ObjectMapper();
-            JsonNode root = objectMapper.readTree(response.getBody());
-            JsonNode documents = root.path("documents");
+    public static int pagesFor(int size) {
+        return Math.max(1, Math.min((size + PAGE_SIZE - 1) / PAGE_SIZE, MAX_PAGES));
+    }
 
-            if (documents.isMissingNode() || !documents.isArray()) {
-                return Collections.emptyList();
-            }
+    /**
+     * 필요한 페이지를 동시에 요청하고 페이지 순서대로 흘려보낸다.
+     * is_end를 만나거나 size를 채우면 남은 요청은 취소된다.
+     */
+    public Flux<KakaoBakeryPage> searchBakeryPages(double lat, double lng, int radiusMeters, int size) {
+        return searchBakeryPages(lat, lng, radiusMeters, size, CallPriority.USER);
+    }
 
-            List<KakaoBakeryDto> result = new ArrayList<>();
-            for (JsonNode doc : documents) {
-                KakaoBakeryDto dto = new KakaoBakeryDto();
-                dto.setId(doc.path("id").asLong());
-                dto.setName(doc.path("place_name").asText());
-                dto.setAddress(doc.path("address_name").asText());
-                dto.setRoad_address(doc.path("road_address_name").asText());
-                dto.setPhone(doc.path("phone").asText());
-                dto.setLongitude(doc.path("x").asDouble());
-                dto.setLatitude(doc.path("y").asDouble());
-                dto.setDistance(doc.path("distance").asLong());
-                dto.setPlace_url(doc.path("place_url").asText());
-                result.add(dto);
-            }
+    /** priority: 카카오 한도를 나눠 쓰는 순서 (BACKGROUND는 USER에게 양보, KakaoQuotaScheduler) */
+    public Flux<KakaoBakeryPage> searchBakeryPages(double lat, double lng, int radiusMeters, int size,
+                                                   CallPriority priority) {
+        int pages = pagesFor(size);
+        return Flux.defer(() -> {
+            int[] received = {0};
+            return Flux.range(1, pages)
+                    .flatMapSequential(p -> searchBakeryPage(lat, lng, radiusMeters, p, priority), pages)
+                    .takeUntil(page -> {
+                        received[0] += page.documents().size();
+                        return page.end() || received[0] >= size;
+                    });
+        });
+    }
 
-            return result;
+    /** 한 페이지 조회. 실패하면 (한도 초과 429 포함) 빈 페이지 (failed) */
+    public Mono<KakaoBakeryPage> searchBakeryPage(double lat, double lng, int radiusMeters, int page,
+                                                  CallPriority priority) {
+        return kakaoClient.get()
+                .uri(uri -> uri.path("/v2/local/search/keyword.json")
+                        .queryParam("query", QUERY)
+                        .queryParam("x", lng)
+                        .queryParam("y", lat)
+                        .queryParam("radius", Math.min(radiusMeters, MAX_RADIUS_METERS))
+                        .queryParam("size", PAGE_SIZE)
+                        .queryParam("page", page)
+                        .queryParam("sort", "distance")
+                        .build())
+                .attribute(KakaoQuotaScheduler.PRIORITY_ATTRIBUTE, priority)
+                .accept(MediaType.APPLICATION_JSON)
+                .exchangeToMono(resp -> {
+                    if (!resp.statusCode().is2xxSuccessful()) {
+                        log.warn("[kakao] keyword search failed status={} page={}", resp.statusCode(), page);
+                        return resp.releaseBody().thenReturn(KakaoBakeryPage.failed(page));
+                    }
+                    var parser = new KakaoBakeryPageParser(page);
+                    return resp.bodyToFlux(DataBuffer.class)
+                            .doOnNext(buffer -> feed(parser, buffer))
+                            .then(Mono.fromCallable(parser::finish));
+                })
+                .doOnNext(p -> bakeryUpsertService.offerAll(p.documents()))
+                .onErrorResume(e -> {
+                    log.warn("[kakao] keyword search error page={}: {}", page, e.toString());
+                    return Mono.just(KakaoBakeryPage.failed(page));
+                });
+    }
 
-        } catch (Exception e) {
-            e.printStackTrace();
-            return Collections.emptyList();
+    private static void feed(KakaoBakeryPageParser parser, DataBuffer buffer) {
+        try (var chunks = buffer.readableByteBuffers()) {
+            while (chunks.hasNext()) parser.feed(chunks.next());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            DataBufferUtils.release(buffer);
         }
     }
 }
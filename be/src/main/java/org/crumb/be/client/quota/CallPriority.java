@@ -0,0 +1,7 @@
+package org.crumb.be.client.quota;
+
+/** 카카오 호출 우선순위. 한도가 빠듯하면 BACKGROUND(프리페치, 캐시 갱신 등)가 USER 뒤로 밀린다 */
+public enum CallPriority {
+    USER,
+    BACKGROUND
+}
@@ -0,0 +1,54 @@
+package org.crumb.be.client.quota;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 하루 호출 한도. 카카오 쿼터는 자정(KST)에 초기화되므로 고정 창(일 단위)으로 센다.
+ * 상태는 (epoch day 상위 24비트, 사용량 하위 40비트)를 묶은 long 하나이고 CAS로만 갱신한다.
+ */
+public final class DailyQuota {
+
+    private static final int COUNT_BITS = 40;
+    private static final long COUNT_MASK = (1L << COUNT_BITS) - 1;
+
+    private final long limit;
+    private final Clock clock;
+    private final AtomicLong state;
+
+    public DailyQuota(long limit, Clock clock) {
+        this.limit = limit;
+        this.clock = clock;
+        this.state = new AtomicLong(pack(today(), 0));
+    }
+
+    /** 사용 후에도 keep개 이상 남을 때만 하나 쓴다 */
+    public boolean tryAcquire(long keep) {
+        long day = today();
+        while (true) {
+            long s = state.get();
+            long used = (s >>> COUNT_BITS) == day ? (s & COUNT_MASK) : 0;
+            if (limit - used - 1 < keep) return false;
+            if (state.compareAndSet(s, pack(day, used + 1))) return true;
+        }
+    }
+
+    public long remaining() {
+        long s = state.get();
+        long used = (s >>> COUNT_BITS) == today() ? (s & COUNT_MASK) : 0;
+        return Math.max(0, limit - used);
+    }
+
+    public long limit() {
+        return limit;
+    }
+
+    private long today() {
+        return LocalDate.now(clock).toEpochDay();
+    }
+
+    private static long pack(long day, long used) {
+        return (day << COUNT_BITS) | used;
+    }
+}
@@ -0,0 +1,124 @@
+package org.crumb.be.client.quota;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import reactor.core.publisher.Mono;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.ZoneId;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * kakaoClient 공용 호출 스케줄러. 초당/일일 한도를 넘기지 않게 호출을 늦추거나 거절한다.
+ * - USER: 초당 한도가 차면 user-max-wait까지 기다린다
+ * - BACKGROUND: 초당 토큰을 background-keep-per-second개, 일일 한도를 background-keep-daily개 남겨두고만 쓴다.
+ *   여유가 없으면 토큰 간격마다 다시 시도하면서 background-max-wait까지 USER 호출 뒤로 밀린다
+ * 한도를 넘긴 호출은 카카오에 보내지 않고 429 응답으로 끝낸다 (카카오 쿼터 초과와 같은 처리 경로).
+ */
+@Slf4j
+@Component
+public class KakaoQuotaScheduler {
+
+    /** 요청 우선순위 지정: kakaoClient.get().attribute(PRIORITY_ATTRIBUTE, CallPriority.BACKGROUND) */
+    public static final String PRIORITY_ATTRIBUTE = CallPriority.class.getName();
+
+    private static final ZoneId KST = ZoneId.of("Asia/Seoul");
+
+    private final TokenBucket perSecond;
+    private final DailyQuota perDay;
+    private final long userMaxWaitNanos;
+    private final long backgroundMaxWaitNanos;
+    private final long backgroundKeepPerSecond;
+    private final long backgroundKeepDaily;
+    private final Map<CallPriority, Counter> rejected = new EnumMap<>(CallPriority.class);
+    private final Counter delayed;
+
+    public KakaoQuotaScheduler(
+            MeterRegistry meterRegistry,
+            @Value("${kakao.quota.per-second:20}") double perSecondLimit,
+            @Value("${kakao.quota.burst:20}") long burst,
+            @Value("${kakao.quota.per-day:100000}") long perDayLimit,
+            @Value("${kakao.quota.user-max-wait:500ms}") Duration userMaxWait,
+            @Value("${kakao.quota.background-max-wait:10s}") Duration backgroundMaxWait,
+            @Value("${kakao.quota.background-keep-per-second:5}") long backgroundKeepPerSecond,
+            @Value("${kakao.quota.background-keep-daily:10000}") long backgroundKeepDaily
+    ) {
+        this.perSecond = new TokenBucket(perSecondLimit, burst);
+        this.perDay = new DailyQuota(perDayLimit, Clock.system(KST));
+        this.userMaxWaitNanos = userMaxWait.toNanos();
+        this.backgroundMaxWaitNanos = backgroundMaxWait.toNanos();
+        this.backgroundKeepPerSecond = Math.min(backgroundKeepPerSecond, burst - 1);
+        this.backgroundKeepDaily = backgroundKeepDaily;
+
+        Gauge.builder("kakao.quota.remaining", perSecond, TokenBucket::available)
+                .tag("window", "second").description("지금 바로 쓸 수 있는 초당 토큰").register(meterRegistry);
+        Gauge.builder("kakao.quota.remaining", perDay, DailyQuota::remaining)
+                .tag("window", "day").description("오늘 남은 카카오 호출 수").register(meterRegistry);
+        for (CallPriority p : CallPriority.values()) {
+            rejected.put(p, Counter.builder("kakao.quota.rejected")
+                    .tag("priority", p.name()).description("한도 초과로 보내지 않은 호출").register(meterRegistry));
+        }
+        this.delayed = Counter.builder("kakao.quota.delayed")
+                .description("한도 때문에 늦춰서 보낸 호출").register(meterRegistry);
+    }
+
+    /** 호출해도 되면 true (필요하면 그만큼 늦게 완료), 한도 초과면 false */
+    public Mono<Boolean> acquire(CallPriority priority) {
+        return priority == CallPriority.BACKGROUND
+                ? Mono.defer(() -> background(System.nanoTime() + backgroundMaxWaitNanos, false))
+                : Mono.defer(this::user);
+    }
+
+    public ExchangeFilterFunction filter() {
+        return (request, next) -> acquire(priorityOf(request.attribute(PRIORITY_ATTRIBUTE).orElse(null)))
+                .flatMap(ok -> ok
+                        ? next.exchange(request)
+                        : Mono.just(ClientResponse.create(HttpStatus.TOO_MANY_REQUESTS).build()));
+    }
+
+    public long remainingToday() {
+        return perDay.remaining();
+    }
+
+    private Mono<Boolean> user() {
+        if (perDay.remaining() == 0) return reject(CallPriority.USER, "day");
+        long wait = perSecond.reserve(0, userMaxWaitNanos);
+        if (wait < 0) return reject(CallPriority.USER, "second");
+        if (!perDay.tryAcquire(0)) return reject(CallPriority.USER, "day");
+        if (wait == 0) return Mono.just(true);
+        delayed.increment();
+        return Mono.delay(Duration.ofNanos(wait)).thenReturn(true);
+    }
+
+    private Mono<Boolean> background(long deadline, boolean waited) {
+        if (perDay.remaining() <= backgroundKeepDaily) return reject(CallPriority.BACKGROUND, "day");
+        if (perSecond.reserve(backgroundKeepPerSecond, 0) == 0) {
+            if (!perDay.tryAcquire(backgroundKeepDaily)) return reject(CallPriority.BACKGROUND, "day");
+            if (waited) delayed.increment();
+            return Mono.just(true);
+        }
+        if (System.nanoTime() >= deadline) return reject(CallPriority.BACKGROUND, "second");
+        return Mono.delay(Duration.ofNanos(perSecond.intervalNanos()))
+                .then(Mono.defer(() -> background(deadline, true)));
+    }
+
+    private Mono<Boolean> reject(CallPriority priority, String window) {
+        rejected.get(priority).increment();
+        log.debug("[kakao] quota exhausted priority={} window={}", priority, window);
+        return Mono.just(false);
+    }
+
+    private static CallPriority priorityOf(Object attribute) {
+        if (attribute instanceof CallPriority p) return p;
+        return attribute == null ? CallPriority.USER : CallPriority.valueOf(attribute.toString());
+    }
+}
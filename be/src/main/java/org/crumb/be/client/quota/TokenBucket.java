@@ -0,0 +1,53 @@
+package org.crumb.be.client.quota;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * 락 없는 토큰 버킷 (GCRA). 상태는 "다음 토큰의 이론적 도착 시각" long 하나이고 CAS로만 갱신한다.
+ * 토큰 하나 = intervalNanos, 최대 capacity개까지 몰아 쓸 수 있다.
+ */
+public final class TokenBucket {
+
+    private final long intervalNanos;
+    private final long capacity;
+    private final LongSupplier clock;
+    private final AtomicLong tat;
+
+    public TokenBucket(double perSecond, long capacity) {
+        this(perSecond, capacity, System::nanoTime);
+    }
+
+    TokenBucket(double perSecond, long capacity, LongSupplier clock) {
+        this.intervalNanos = Math.max(1, (long) (1_000_000_000L / perSecond));
+        this.capacity = Math.max(1, capacity);
+        this.clock = clock;
+        this.tat = new AtomicLong(clock.getAsLong());
+    }
+
+    /**
+     * 토큰 하나를 예약하고 기다려야 하는 시간(ns)을 반환한다. 0이면 바로 사용 가능.
+     * 가져간 뒤에도 keep개가 남아야 하며, maxWaitNanos보다 오래 기다려야 하면 예약하지 않고 -1.
+     */
+    public long reserve(long keep, long maxWaitNanos) {
+        while (true) {
+            long now = clock.getAsLong();
+            long current = tat.get();
+            long next = Math.max(current, now) + intervalNanos;
+            long wait = Math.max(0, next - now - (capacity - keep) * intervalNanos);
+            if (wait > maxWaitNanos) return -1;
+            if (tat.compareAndSet(current, next)) return wait;
+        }
+    }
+
+    /** 지금 바로 쓸 수 있는 토큰 수 */
+    public long available() {
+        long now = clock.getAsLong();
+        long backlog = Math.max(0, tat.get() - now);
+        return Math.max(0, capacity - (backlog + intervalNanos - 1) / intervalNanos);
+    }
+
+    public long intervalNanos() {
+        return intervalNanos;
+    }
+}
@@ -0,0 +1,34 @@
+package org.crumb.be.client.resilience;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/** 동시 호출 상한. 넘으면 기다리지 않고 거절한다 */
+public final class Bulkhead {
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final int maxConcurrent;
+
+    public Bulkhead(int maxConcurrent) {
+        this.maxConcurrent = maxConcurrent;
+    }
+
+    public boolean tryAcquire() {
+        if (inFlight.incrementAndGet() > maxConcurrent) {
+            inFlight.decrementAndGet();
+            return false;
+        }
+        return true;
+    }
+
+    public void release() {
+        inFlight.decrementAndGet();
+    }
+
+    public int inFlight() {
+        return inFlight.get();
+    }
+
+    public int maxConcurrent() {
+        return maxConcurrent;
+    }
+}
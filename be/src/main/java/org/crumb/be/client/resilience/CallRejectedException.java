@@ -0,0 +1,16 @@
+package org.crumb.be.client.resilience;
+
+/** 하위 서비스를 호출하지 않았거나 기한 안에 답을 못 받았을 때. reason은 지표 태그로 쓴다 */
+public class CallRejectedException extends RuntimeException {
+
+    private final String reason;
+
+    public CallRejectedException(String reason) {
+        super(reason);
+        this.reason = reason;
+    }
+
+    public String reason() {
+        return reason;
+    }
+}
@@ -0,0 +1,112 @@
+package org.crumb.be.client.resilience;
+
+import java.util.function.LongSupplier;
+
+/**
+ * 호출 수 기준 슬라이딩 윈도 서킷 브레이커.
+ * - CLOSED: 최근 windowSize건 중 실패(에러 + slowCall 이상 걸린 호출) 비율이 기준 이상이면 OPEN (최소 minimumCalls건 이후)
+ * - OPEN: openDuration 동안 호출 거부, 지나면 HALF_OPEN
+ * - HALF_OPEN: halfOpenCalls건만 통과시켜 하나라도 실패하면 다시 OPEN, 모두 성공하면 CLOSED
+ * 추천 호출 빈도에서는 경합이 작아 메서드 단위 synchronized로 충분하다.
+ */
+public final class CircuitBreaker {
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final int minimumCalls;
+    private final double failureRateThreshold;
+    private final long slowCallNanos;
+    private final long openNanos;
+    private final int halfOpenCalls;
+    private final LongSupplier clock;
+
+    private final boolean[] window; // true = 실패
+    private int next;
+    private int count;
+    private int failures;
+
+    private State state = State.CLOSED;
+    private long openedAt;
+    private int halfOpenPermits;
+    private int halfOpenSuccesses;
+
+    public CircuitBreaker(int windowSize, int minimumCalls, double failureRatePercent,
+                          long slowCallNanos, long openNanos, int halfOpenCalls) {
+        this(windowSize, minimumCalls, failureRatePercent, slowCallNanos, openNanos, halfOpenCalls, System::nanoTime);
+    }
+
+    CircuitBreaker(int windowSize, int minimumCalls, double failureRatePercent,
+                   long slowCallNanos, long openNanos, int halfOpenCalls, LongSupplier clock) {
+        this.window = new boolean[Math.max(1, windowSize)];
+        this.minimumCalls = Math.max(1, Math.min(minimumCalls, window.length));
+        this.failureRateThreshold = failureRatePercent / 100;
+        this.slowCallNanos = slowCallNanos;
+        this.openNanos = openNanos;
+        this.halfOpenCalls = Math.max(1, halfOpenCalls);
+        this.clock = clock;
+    }
+
+    /** 호출해도 되면 true. true를 받았으면 onResult 또는 release 중 하나를 반드시 호출한다 */
+    public synchronized boolean tryAcquire() {
+        if (state == State.OPEN) {
+            if (clock.getAsLong() - openedAt < openNanos) return false;
+            state = State.HALF_OPEN;
+            halfOpenPermits = halfOpenCalls;
+            halfOpenSuccesses = 0;
+        }
+        if (state == State.HALF_OPEN) {
+            if (halfOpenPermits == 0) return false;
+            halfOpenPermits--;
+        }
+        return true;
+    }
+
+    /** 허가를 받았지만 호출하지 않았을 때 (예: 벌크헤드 초과) */
+    public synchronized void release() {
+        if (state == State.HALF_OPEN) halfOpenPermits++;
+    }
+
+    public synchronized void onResult(long elapsedNanos, boolean error) {
+        boolean failure = error || elapsedNanos >= slowCallNanos;
+        switch (state) {
+            case HALF_OPEN -> {
+                if (failure) open();
+                else if (++halfOpenSuccesses >= halfOpenCalls) close();
+            }
+            case CLOSED -> {
+                if (count == window.length) {
+                    if (window[next]) failures--;
+                } else {
+                    count++;
+                }
+                window[next] = failure;
+                if (failure) failures++;
+                next = (next + 1) % window.length;
+                if (count >= minimumCalls && failures >= failureRateThreshold * count) open();
+            }
+            case OPEN -> { } // 열리기 전에 나간 호출의 늦은 결과는 무시
+        }
+    }
+
+    /** OPEN 대기가 끝나도 다음 tryAcquire 전까지는 OPEN으로 보인다 */
+    public synchronized State state() {
+        return state;
+    }
+
+    /** CLOSED 윈도의 실패 비율 (%) */
+    public synchronized double failureRatePercent() {
+        return count == 0 ? 0 : 100.0 * failures / count;
+    }
+
+    private void open() {
+        state = State.OPEN;
+        openedAt = clock.getAsLong();
+    }
+
+    private void close() {
+        state = State.CLOSED;
+        next = 0;
+        count = 0;
+        failures = 0;
+    }
+}
@@ -0,0 +1,44 @@
+package org.crumb.be.client.resilience;
+
+import java.util.Arrays;
+
+/**
+ * 최근 성공 호출 지연의 백분위수. 고정 크기 링 버퍼에 쌓고 recomputeEvery건마다 다시 계산해 둔다
+ * (요청마다 정렬하지 않음).
+ */
+public final class LatencyTracker {
+
+    private final long[] samples;
+    private final double percentile;
+    private final int minSamples;
+    private final int recomputeEvery;
+    private int next;
+    private int count;
+    private int sinceRecompute;
+    private volatile long cachedNanos = -1;
+
+    public LatencyTracker(int size, double percentile, int minSamples) {
+        this.samples = new long[Math.max(1, size)];
+        this.percentile = percentile;
+        this.minSamples = Math.max(1, Math.min(minSamples, samples.length));
+        this.recomputeEvery = Math.max(1, samples.length / 16);
+    }
+
+    public synchronized void record(long nanos) {
+        samples[next] = nanos;
+        next = (next + 1) % samples.length;
+        if (count < samples.length) count++;
+        if (count >= minSamples && ++sinceRecompute >= recomputeEvery) {
+            sinceRecompute = 0;
+            long[] sorted = Arrays.copyOf(samples, count);
+            Arrays.sort(sorted);
+            int rank = (int) Math.ceil(percentile / 100 * count) - 1;
+            cachedNanos = sorted[Math.max(0, Math.min(rank, count - 1))];
+        }
+    }
+
+    /** 표본이 minSamples보다 적으면 -1 */
+    public long percentileNanos() {
+        return cachedNanos;
+    }
+}
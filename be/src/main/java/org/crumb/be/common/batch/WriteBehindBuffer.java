@@ -0,0 +1,66 @@
+package org.crumb.be.common.batch;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 요청 경로에서 넣고 스케줄러가 모아서 쓰는 쓰기 지연 버퍼.
+ * offer는 락 없이 끝나며, 가득 차면 기다리지 않고 overflow 정책대로 하나를 버린다 (요청 경로를 DB 쓰기로 막지 않는다).
+ */
+public final class WriteBehindBuffer<T> {
+
+    /** 가득 찼을 때 버릴 항목 */
+    public enum Overflow {
+        /** 새로 들어온 항목 */
+        DROP_NEWEST,
+        /** 가장 오래된 항목 (최근 것을 남김) */
+        DROP_OLDEST
+    }
+
+    private final ConcurrentLinkedQueue<T> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger size = new AtomicInteger();
+    private final int capacity;
+    private final Overflow overflow;
+
+    public WriteBehindBuffer(int capacity) {
+        this(capacity, Overflow.DROP_NEWEST);
+    }
+
+    public WriteBehindBuffer(int capacity, Overflow overflow) {
+        this.capacity = capacity;
+        this.overflow = overflow;
+    }
+
+    /** 버린 항목이 없으면 true */
+    public boolean offer(T item) {
+        if (size.incrementAndGet() <= capacity) {
+            queue.offer(item);
+            return true;
+        }
+        size.decrementAndGet();
+        // DROP_OLDEST: 가장 오래된 것을 꺼낸 자리에 넣는다 (개수는 그대로)
+        if (overflow == Overflow.DROP_OLDEST && queue.poll() != null) queue.offer(item);
+        return false;
+    }
+
+    /** 최대 max개를 넣은 순서대로 꺼낸다 */
+    public List<T> drain(int max) {
+        List<T> batch = new ArrayList<>(Math.min(max, Math.max(size.get(), 0)));
+        T item;
+        while (batch.size() < max && (item = queue.poll()) != null) {
+            size.decrementAndGet();
+            batch.add(item);
+        }
+        return batch;
+    }
+
+    public int size() {
+        return size.get();
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+}
@@ -0,0 +1,82 @@
+package org.crumb.be.common.sketch;
+
+import java.util.Arrays;
+
+/**
+ * Count-Min Sketch. 항목별 횟수를 depth x width 카운터로 근사한다.
+ * 추정치는 항상 실제 이상 (과대 추정만), 오차는 전체 횟수 / width 정도.
+ * 스레드 안전하지 않다 (쓰는 쪽이 잠금/단일 스레드로 보호).
+ */
+public final class CountMinSketch {
+
+    private static final char SEPARATOR = '\u001F';
+
+    private final int depth;
+    private final int width;
+    private final int mask;
+    private final int[] table;
+
+    /** width는 2의 거듭제곱으로 올린다 */
+    public CountMinSketch(int depth, int width) {
+        if (depth < 1 || width < 1) throw new IllegalArgumentException("depth/width must be positive");
+        this.depth = depth;
+        this.width = width == 1 ? 1 : Integer.highestOneBit(width - 1) << 1;
+        this.mask = this.width - 1;
+        this.table = new int[depth * this.width];
+    }
+
+    public void add(long hash, int count) {
+        int h1 = (int) hash, h2 = (int) (hash >>> 32);
+        for (int d = 0; d < depth; d++) {
+            table[d * width + ((h1 + d * h2) & mask)] += count;
+        }
+    }
+
+    public int estimate(long hash) {
+        int h1 = (int) hash, h2 = (int) (hash >>> 32);
+        int min = Integer.MAX_VALUE;
+        for (int d = 0; d < depth; d++) {
+            min = Math.min(min, table[d * width + ((h1 + d * h2) & mask)]);
+        }
+        return min;
+    }
+
+    public void clear() {
+        Arrays.fill(table, 0);
+    }
+
+    public int depth() {
+        return depth;
+    }
+
+    public int width() {
+        return width;
+    }
+
+    /** 스냅샷용 카운터 복사본 (행 우선) */
+    public int[] toArray() {
+        return table.clone();
+    }
+
+    /** 같은 모양 스케치의 카운터를 더한다 (스냅샷 복원, 병합) */
+    public void merge(int[] counters) {
+        if (counters.length != table.length) throw new IllegalArgumentException("sketch shape mismatch");
+        for (int i = 0; i < table.length; i++) table[i] += counters[i];
+    }
+
+    /** 여러 문자열을 구분자로 이은 키의 64비트 해시 (FNV-1a + 최종 섞기) */
+    public static long hash(String... parts) {
+        long h = 0xcbf29ce484222325L;
+        for (int p = 0; p < parts.length; p++) {
+            if (p > 0) h = (h ^ SEPARATOR) * 0x100000001b3L;
+            String s = parts[p];
+            for (int i = 0; i < s.length(); i++) h = (h ^ s.charAt(i)) * 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -0,0 +1,103 @@
+package org.crumb.be.common.sketch;
+
+import java.util.Arrays;
+
+/**
+ * HyperLogLog. 서로 다른 항목 수를 2^precision 바이트 레지스터로 근사한다.
+ * 표준 오차 ≈ 1.04 / sqrt(2^precision) (precision 12: 4KB, 약 1.6%). 항목 수와 상관없이 크기 고정.
+ * 같은 precision끼리 레지스터별 max로 합칠 수 있다.
+ * 스레드 안전하지 않다 (쓰는 쪽이 잠금/단일 스레드로 보호).
+ */
+public final class HyperLogLog {
+
+    private final int precision;
+    private final byte[] registers;
+
+    public HyperLogLog(int precision) {
+        if (precision < 4 || precision > 16) throw new IllegalArgumentException("precision must be 4..16");
+        this.precision = precision;
+        this.registers = new byte[1 << precision];
+    }
+
+    /** 저장된 레지스터로 만든다 (길이로 precision 결정) */
+    public static HyperLogLog of(byte[] registers) {
+        int p = Integer.numberOfTrailingZeros(registers.length);
+        if (registers.length != 1 << p) throw new IllegalArgumentException("register count must be a power of 2");
+        HyperLogLog hll = new HyperLogLog(p);
+        hll.merge(registers);
+        return hll;
+    }
+
+    /** 64비트 해시 하나 (상위 precision비트 = 레지스터, 나머지의 앞쪽 0 개수 + 1 = 값). 레지스터가 바뀌었으면 true */
+    public boolean add(long hash) {
+        int index = (int) (hash >>> (64 - precision));
+        int rank = Math.min(Long.numberOfLeadingZeros(hash << precision), 64 - precision) + 1;
+        if (rank <= registers[index]) return false;
+        registers[index] = (byte) rank;
+        return true;
+    }
+
+    public long estimate() {
+        int m = registers.length;
+        double sum = 0;
+        int zeros = 0;
+        for (byte r : registers) {
+            sum += 1.0 / (1L << r);
+            if (r == 0) zeros++;
+        }
+        double e = alpha(m) * m * m / sum;
+        // 작은 수는 빈 레지스터 비율로 (linear counting)
+        if (e <= 2.5 * m && zeros > 0) e = m * Math.log((double) m / zeros);
+        return Math.round(e);
+    }
+
+    /** 같은 precision 레지스터를 레지스터별 max로 합친다 */
+    public void merge(byte[] other) {
+        if (other.length != registers.length) throw new IllegalArgumentException("sketch shape mismatch");
+        for (int i = 0; i < registers.length; i++) {
+            if (other[i] > registers[i]) registers[i] = other[i];
+        }
+    }
+
+    public void merge(HyperLogLog other) {
+        merge(other.registers);
+    }
+
+    public int precision() {
+        return precision;
+    }
+
+    public boolean isEmpty() {
+        for (byte r : registers) if (r != 0) return false;
+        return true;
+    }
+
+    /** 저장용 레지스터 복사본 */
+    public byte[] toByteArray() {
+        return registers.clone();
+    }
+
+    public void clear() {
+        Arrays.fill(registers, (byte) 0);
+    }
+
+    /** long 값(사용자 id 등)의 64비트 해시 (murmur3 최종 섞기) */
+    public static long hash(long value) {
+        long h = value;
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    private static double alpha(int m) {
+        return switch (m) {
+            case 16 -> 0.673;
+            case 32 -> 0.697;
+            case 64 -> 0.709;
+            default -> 0.7213 / (1 + 1.079 / m);
+        };
+    }
+}
@@ -0,0 +1,135 @@
+package org.crumb.be.common.sketch;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Space-Saving top-k. 최대 capacity개 항목만 세고, 가득 찼을 때 새 항목은 가장 작은 항목을 밀어내며 그 횟수를 물려받는다.
+ * count는 실제 이상, count - error는 실제 이하. 최소 힙이라 갱신은 O(log k).
+ * 스레드 안전하지 않다.
+ */
+public final class SpaceSaving {
+
+    public record Entry(String item, long count, long error) {}
+
+    private final int capacity;
+    private final String[] items;
+    private final long[] counts;
+    private final long[] errors;
+    private final Map<String, Integer> index;
+    private int size;
+
+    public SpaceSaving(int capacity) {
+        if (capacity < 1) throw new IllegalArgumentException("capacity must be positive");
+        this.capacity = capacity;
+        this.items = new String[capacity];
+        this.counts = new long[capacity];
+        this.errors = new long[capacity];
+        this.index = new HashMap<>(capacity * 2);
+    }
+
+    public void offer(String item, long count) {
+        Integer i = index.get(item);
+        if (i != null) {
+            counts[i] += count;
+            siftDown(i); // 커졌으니 아래로
+            return;
+        }
+        if (size < capacity) {
+            set(size, item, count, 0);
+            siftUp(size++);
+            return;
+        }
+        long min = counts[0];
+        index.remove(items[0]);
+        set(0, item, min + count, min);
+        siftDown(0);
+    }
+
+    /** 실제 횟수의 상한 (세지 않는 항목이면 최솟값, 자리가 남아 있으면 0) */
+    public long upperBound(String item) {
+        Integer i = index.get(item);
+        if (i != null) return counts[i];
+        return size < capacity ? 0 : counts[0];
+    }
+
+    /** 스냅샷 복원: 빈 자리에만 넣는다 */
+    public void restore(String item, long count, long error) {
+        if (size >= capacity || index.containsKey(item)) return;
+        set(size, item, count, error);
+        siftUp(size++);
+    }
+
+    /** 순서 없는 복사본 */
+    public List<Entry> entries() {
+        List<Entry> out = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) out.add(new Entry(items[i], counts[i], errors[i]));
+        return out;
+    }
+
+    /** 횟수 내림차순 상위 n개 */
+    public List<Entry> top(int n) {
+        List<Entry> out = entries();
+        out.sort(Comparator.comparingLong(Entry::count).reversed());
+        return out.size() > n ? out.subList(0, n) : out;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    public void clear() {
+        index.clear();
+        Arrays.fill(items, null);
+        size = 0;
+    }
+
+    private void set(int i, String item, long count, long error) {
+        items[i] = item;
+        counts[i] = count;
+        errors[i] = error;
+        index.put(item, i);
+    }
+
+    private void siftUp(int i) {
+        while (i > 0) {
+            int parent = (i - 1) / 2;
+            if (counts[i] >= counts[parent]) return;
+            swap(i, parent);
+            i = parent;
+        }
+    }
+
+    private void siftDown(int i) {
+        while (true) {
+            int child = 2 * i + 1;
+            if (child >= size) return;
+            if (child + 1 < size && counts[child + 1] < counts[child]) child++;
+            if (counts[i] <= counts[child]) return;
+            swap(i, child);
+            i = child;
+        }
+    }
+
+    private void swap(int a, int b) {
+        String item = items[a];
+        items[a] = items[b];
+        items[b] = item;
+        long c = counts[a];
+        counts[a] = counts[b];
+        counts[b] = c;
+        long e = errors[a];
+        errors[a] = errors[b];
+        errors[b] = e;
+        index.put(items[a], a);
+        index.put(items[b], b);
+    }
+}
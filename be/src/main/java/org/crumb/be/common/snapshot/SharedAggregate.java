@@ -0,0 +1,140 @@
+package org.crumb.be.common.snapshot;
+
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * trending_snapshots 행 하나에 대응하는 메모리 집계 (SnapshotStore가 만든다).
+ * add는 응답용 view와 지난 저장 뒤 몫(unsaved)에 같이 더한다. sync는 unsaved만 행을 잠그고 저장된 합계에 더한 뒤
+ * view를 그 합계(+ 그동안 더한 unsaved)로 바꾼다. 그래서 인스턴스가 여럿이어도 서로의 몫을 덮어쓰지 않고,
+ * 모든 인스턴스가 같은 합계를 응답한다 (차이는 다른 인스턴스가 아직 저장하지 않은 몫, sync 주기 이하).
+ */
+public final class SharedAggregate<T> {
+
+    public record Synced(int entries, Instant takenAt) {}
+
+    private final String name;
+    private final SnapshotCodec<T> codec;
+    private final TrendingSnapshotRepository repository;
+    private final TransactionTemplate transaction;
+    private final Object lock = new Object();
+    private volatile T view;
+    private T unsaved;
+    private boolean changed;
+
+    SharedAggregate(String name, SnapshotCodec<T> codec, TrendingSnapshotRepository repository,
+                    TransactionTemplate transaction, long nowMillis) {
+        this.name = name;
+        this.codec = codec;
+        this.repository = repository;
+        this.transaction = transaction;
+        this.view = codec.empty(nowMillis);
+        this.unsaved = codec.empty(nowMillis);
+    }
+
+    public String name() {
+        return name;
+    }
+
+    /** 응답용 집계 (쓰기는 add로만, sync마다 새 객체로 바뀐다) */
+    public T view() {
+        return view;
+    }
+
+    /** change를 view와 unsaved에 한 번씩 적용한다 (반영 스레드 하나에서) */
+    public void add(Consumer<T> change) {
+        synchronized (lock) {
+            change.accept(view);
+            change.accept(unsaved);
+            changed = true;
+        }
+    }
+
+    /**
+     * 지난 저장 뒤의 몫을 저장된 합계에 더하고(없으면 읽기만) view를 그 합계로 바꾼다. 기동 시 복원도 이것.
+     * 실패하면 그 몫을 되돌려 두고(다음 sync에 다시) view는 그대로 둔 채 예외를 던진다. 행이 없으면 empty
+     */
+    public Optional<Synced> sync(long nowMillis) {
+        T delta;
+        boolean dirty;
+        synchronized (lock) {
+            dirty = changed;
+            delta = unsaved;
+            unsaved = codec.empty(nowMillis);
+            changed = false;
+        }
+        byte[] deltaPayload = dirty ? encode(delta, nowMillis) : null;
+        TrendingSnapshot row;
+        try {
+            row = dirty ? transaction.execute(s -> merge(deltaPayload, nowMillis))
+                    : repository.findById(name).orElse(null);
+        } catch (RuntimeException e) {
+            if (dirty) {
+                synchronized (lock) {
+                    decode(deltaPayload, unsaved, nowMillis);
+                    changed = true;
+                }
+            }
+            throw e;
+        }
+        if (row == null) return Optional.empty();
+
+        T next = codec.empty(nowMillis);
+        int entries = decode(row.getPayload(), next, nowMillis);
+        synchronized (lock) {
+            // 저장하는 동안 더한 몫 (다음 sync에 저장)
+            if (changed) decode(encode(unsaved, nowMillis), next, nowMillis);
+            view = next;
+        }
+        return Optional.of(new Synced(entries, row.getTakenAt()));
+    }
+
+    private TrendingSnapshot merge(byte[] deltaPayload, long nowMillis) {
+        Optional<TrendingSnapshot> stored = repository.findWithLockByName(name);
+        T merged = codec.empty(nowMillis);
+        stored.ifPresent(row -> decode(row.getPayload(), merged, nowMillis));
+        decode(deltaPayload, merged, nowMillis);
+        byte[] payload = encode(merged, nowMillis);
+        if (stored.isPresent()) {
+            stored.get().update(payload, Instant.now());
+            return stored.get();
+        }
+        // 다른 인스턴스가 동시에 처음 만들면 한쪽이 키 충돌로 실패하고 다음 주기에 더한다
+        return repository.save(new TrendingSnapshot(name, payload, Instant.now()));
+    }
+
+    private byte[] encode(T value, long nowMillis) {
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new GZIPOutputStream(bytes)))) {
+                codec.write(value, out, nowMillis);
+            }
+            return bytes.toByteArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /** payload를 into에 더한다 */
+    private int decode(byte[] payload, T into, long nowMillis) {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(
+                new GZIPInputStream(new ByteArrayInputStream(payload))))) {
+            return codec.read(in, into, nowMillis);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
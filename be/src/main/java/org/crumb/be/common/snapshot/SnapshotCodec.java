@@ -0,0 +1,16 @@
+package org.crumb.be.common.snapshot;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+/** SharedAggregate가 trending_snapshots payload로 주고받는 집계 형식 (gzip은 SharedAggregate가 씌운다) */
+public interface SnapshotCodec<T> {
+
+    T empty(long nowMillis);
+
+    void write(T value, DataOutputStream out, long nowMillis) throws IOException;
+
+    /** in의 내용을 into에 더한다. 읽은 항목 수 */
+    int read(DataInputStream in, T into, long nowMillis) throws IOException;
+}
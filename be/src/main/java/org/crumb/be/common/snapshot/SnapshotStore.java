@@ -0,0 +1,22 @@
+package org.crumb.be.common.snapshot;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/** trending_snapshots 행마다 SharedAggregate를 만든다 (인기 검색어, 인기 코스 window별) */
+@Component
+public class SnapshotStore {
+
+    private final TrendingSnapshotRepository repository;
+    private final TransactionTemplate transaction;
+
+    public SnapshotStore(TrendingSnapshotRepository repository, PlatformTransactionManager transactionManager) {
+        this.repository = repository;
+        this.transaction = new TransactionTemplate(transactionManager);
+    }
+
+    public <T> SharedAggregate<T> aggregate(String name, SnapshotCodec<T> codec, long nowMillis) {
+        return new SharedAggregate<>(name, codec, repository, transaction, nowMillis);
+    }
+}
@@ -0,0 +1,33 @@
+package org.crumb.be.common.snapshot;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+/**
+ * 메모리 인기 순위 스냅샷 (이름당 한 행, 재시작 후 창을 이어가기 위함). payload 형식은 만든 쪽이 정한다.
+ * 인스턴스가 여럿이면 각자 지난 저장 뒤의 몫만 행을 잠그고 더한다 (덮어쓰지 않음).
+ */
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@AllArgsConstructor
+@Entity
+@Table(name = "trending_snapshots")
+public class TrendingSnapshot {
+
+    @Id
+    @Column(length=50)
+    private String name;
+
+    @Column(nullable=false)
+    private byte[] payload; // gzip
+
+    @Column(nullable=false)
+    private Instant takenAt;
+
+    public void update(byte[] payload, Instant takenAt) {
+        this.payload = payload;
+        this.takenAt = takenAt;
+    }
+}
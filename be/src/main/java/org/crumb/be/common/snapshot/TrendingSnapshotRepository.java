@@ -0,0 +1,14 @@
+package org.crumb.be.common.snapshot;
+
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+
+import java.util.Optional;
+
+public interface TrendingSnapshotRepository extends JpaRepository<TrendingSnapshot, String> {
+
+    /** 병합 저장용 (다른 인스턴스의 저장은 커밋까지 기다린다) */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<TrendingSnapshot> findWithLockByName(String name);
+}
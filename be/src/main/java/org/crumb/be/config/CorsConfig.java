@@ -1,5 +1,6 @@
 package org.crumb.be.config;
 
+import org.crumb.be.search.controller.BakeryController;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
@@ -16,7 +17,8 @@ public class CorsConfig {
                 registry.addMapping("/**")
                         .allowedOrigins("*") // 배포시 프론트 도메인으로 제한
                         .allowedMethods("GET","POST","PUT","DELETE","PATCH","OPTIONS")
-                        .allowedHeaders("*");
+                        .allowedHeaders("*")
+                        .exposedHeaders(BakeryController.PARTIAL_HEADER); // 브라우저에서 읽을 수 있게
             }
         };
     }
@@ -0,0 +1,22 @@
+package org.crumb.be.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+@Configuration
+public class SchedulerConfig {
+
+    /**
+     * 리액티브 흐름 안의 블로킹 JPA 호출 전용 스케줄러.
+     * 스레드 수는 커넥션 풀(Hikari 기본 10) 크기에 맞추고, 대기열이 넘치면 바로 실패시킨다.
+     */
+    @Bean(name = "jdbcScheduler", destroyMethod = "dispose")
+    public Scheduler jdbcScheduler(
+            @Value("${scheduler.jdbc.threads:10}") int threads,
+            @Value("${scheduler.jdbc.queue-size:1000}") int queueSize) {
+        return Schedulers.newBoundedElastic(threads, queueSize, "jdbc");
+    }
+}
@@ -1,5 +1,7 @@
 package org.crumb.be.config;
 
+import io.netty.channel.ChannelOption;
+import org.crumb.be.client.quota.KakaoQuotaScheduler;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -7,17 +9,25 @@ import org.springframework.http.client.reactive.ReactorClientHttpConnector;
 import org.springframework.web.reactive.function.client.WebClient;
 import reactor.netty.http.client.HttpClient;
 
+import java.time.Duration;
+
 @Configuration
 public class WebClientConfig {
 
     @Bean("kakaoClient")
     public WebClient kakaoClient(
             @Value("${kakao.base-url}") String baseUrl,
-            @Value("${kakao.rest-api-key}") String kakaoKey) {
+            @Value("${kakao.rest-api-key}") String kakaoKey,
+            KakaoQuotaScheduler quotaScheduler) {
+        // 커넥션 풀 공유, RestTemplateConfig와 같은 3초 타임아웃
+        HttpClient httpClient = HttpClient.create()
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, 3000)
+                .responseTimeout(Duration.ofSeconds(3));
         return WebClient.builder()
                 .baseUrl(baseUrl)
                 .defaultHeader("Authorization", kakaoKey.startsWith("KakaoAK ") ? kakaoKey : "KakaoAK " + kakaoKey)
-                .clientConnector(new ReactorClientHttpConnector(HttpClient.create()))
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .filter(quotaScheduler.filter()) // 초당/일일 호출 한도
                 .build();
     }
 
@@ -25,7 +35,9 @@ public class WebClientConfig {
     public WebClient fastapiClient(@Value("${fastapi.base-url}") String baseUrl) {
         return WebClient.builder()
                 .baseUrl(baseUrl)
-                .clientConnector(new ReactorClientHttpConnector(HttpClient.create()))
+                // 응답 기한은 FastapiRecommendClient가 정한다. 서버가 죽었으면 연결 단계에서 빨리 실패
+                .clientConnector(new ReactorClientHttpConnector(HttpClient.create()
+                        .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, 1000)))
                 .build();
     }
 }
@@ -6,6 +6,7 @@ import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.crumb.be.common.response.ApiResponse;
 import org.crumb.be.course.service.CourseService;
+import org.crumb.be.course.service.TrendingCourseService;
 import org.crumb.be.course.dto.*;
 import org.springframework.web.bind.annotation.*;
 
@@ -18,6 +19,7 @@ import java.util.List;
 public class CourseController {
 
     private final CourseService courseService;
+    private final TrendingCourseService trendingCourseService;
 
     /** 로그인 붙이기 전까지 임시 사용자 ID */
     private static Long me(String header) {
@@ -52,20 +54,34 @@ public class CourseController {
     }
 
     // 모든 공개 코스 조회
-    @Operation(summary = "모든 공개 코스 조회(로그인 사용자 코스 제외)")
+    @Operation(summary = "모든 공개 코스 조회(로그인 사용자 코스 제외, 최신순, 다음 페이지는 nextCursor를 cursor로, size 최대 50)")
     @GetMapping("/public")
-    public ApiResponse<List<CourseResponse>> listPublicExcludeMe(
-            @RequestHeader(name="X-User-Id", required=false) String userId) {
+    public ApiResponse<CoursePageResponse> listPublicExcludeMe(
+            @RequestHeader(name="X-User-Id", required=false) String userId,
+            @RequestParam(required=false) String cursor,
+            @RequestParam(required=false) Integer size) {
         Long me = (userId==null ? -1L : Long.parseLong(userId));
-        return ApiResponse.ok(courseService.listPublicExcludeMe(me));
+        return ApiResponse.ok(courseService.listPublicExcludeMe(me, cursor, size));
     }
 
     // 내 코스 조회
-    @Operation(summary = "내 코스 전체 조회 (공개/비공개 포함)")
+    @Operation(summary = "내 코스 조회 (공개/비공개 포함, 최신순, 다음 페이지는 nextCursor를 cursor로, size 최대 50)")
     @GetMapping("/me")
-    public ApiResponse<List<CourseResponse>> listMine(
-            @RequestHeader(name="X-User-Id", required=false) String userId) {
-        return ApiResponse.ok(courseService.listMine(me(userId)));
+    public ApiResponse<CoursePageResponse> listMine(
+            @RequestHeader(name="X-User-Id", required=false) String userId,
+            @RequestParam(required=false) String cursor,
+            @RequestParam(required=false) Integer size) {
+        return ApiResponse.ok(courseService.listMine(me(userId), cursor, size));
+    }
+
+    // 인기 코스 (메모리에서 바로 응답)
+    @Operation(summary = "인기 코스(window: hour|day|week = 조회 가중치 반감기, 기본 day / 최대 50개)")
+    @GetMapping("/trending")
+    public ApiResponse<List<TrendingCourseResponse>> trending(
+            @RequestParam(required = false) String window,
+            @RequestParam(defaultValue = "10") int limit) {
+        int n = Math.max(1, Math.min(limit, TrendingCourseService.MAX_LIMIT));
+        return ApiResponse.ok(trendingCourseService.top(window, n));
     }
 
     // 코스 상세 조회
@@ -0,0 +1,47 @@
+package org.crumb.be.course.dto;
+
+import org.crumb.be.common.exception.BusinessException;
+import org.crumb.be.common.exception.ErrorCode;
+
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.util.Base64;
+
+/**
+ * 코스 목록 커서 = 이전 페이지 마지막 행의 (createdAt, id). 목록은 이 값보다 작은 행부터 이어진다.
+ * 토큰은 버전 1바이트 + 초 + 나노 + id를 base64url로 (클라이언트는 그대로 돌려주기만).
+ */
+public record CourseCursor(Instant createdAt, Long id) {
+
+    private static final byte VERSION = 1;
+    private static final int LENGTH = 1 + Long.BYTES + Integer.BYTES + Long.BYTES;
+
+    /** 첫 페이지: 모든 행보다 큰 값 */
+    public static final CourseCursor FIRST = new CourseCursor(Instant.parse("9999-12-31T23:59:59Z"), Long.MAX_VALUE);
+
+    public static CourseCursor after(CourseRow last) {
+        return new CourseCursor(last.createdAt(), last.id());
+    }
+
+    public String encode() {
+        ByteBuffer buf = ByteBuffer.allocate(LENGTH)
+                .put(VERSION)
+                .putLong(createdAt.getEpochSecond())
+                .putInt(createdAt.getNano())
+                .putLong(id);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(buf.array());
+    }
+
+    /** null/빈 값이면 첫 페이지 */
+    public static CourseCursor decode(String token) {
+        if (token == null || token.isBlank()) return FIRST;
+        try {
+            byte[] bytes = Base64.getUrlDecoder().decode(token);
+            ByteBuffer buf = ByteBuffer.wrap(bytes);
+            if (bytes.length != LENGTH || buf.get() != VERSION) throw new IllegalArgumentException();
+            return new CourseCursor(Instant.ofEpochSecond(buf.getLong(), buf.getInt()), buf.getLong());
+        } catch (RuntimeException e) {
+            throw new BusinessException(ErrorCode.VALIDATION_ERROR, "invalid cursor");
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package org.crumb.be.course.dto;
+
+import java.util.List;
+
+/** nextCursor가 null이면 마지막 페이지 */
+public record CoursePageResponse(
+        List<CourseResponse> items,
+        String nextCursor
+) {}
@@ -9,6 +9,7 @@ public record CourseResponse(
         String description,
         boolean isPublic,
         long viewCount,
+        long uniqueViewers, // 순 조회자 수 (로그인 사용자, HyperLogLog 추정치, 오차 약 2%)
         Instant createdAt,
         Instant updatedAt,
         List<CourseSpotResponse> spots
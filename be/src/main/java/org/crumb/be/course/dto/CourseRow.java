@@ -0,0 +1,16 @@
+package org.crumb.be.course.dto;
+
+import java.time.Instant;
+
+/** 목록 조회용 courses 행 프로젝션 (엔티티를 영속성 컨텍스트에 올리지 않음) */
+public record CourseRow(
+        Long id,
+        Long authorId,
+        String title,
+        String description,
+        boolean isPublic,
+        long viewCount,
+        long uniqueViewers,
+        Instant createdAt,
+        Instant updatedAt
+) {}
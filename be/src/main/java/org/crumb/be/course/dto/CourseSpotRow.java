@@ -0,0 +1,16 @@
+package org.crumb.be.course.dto;
+
+import java.time.Instant;
+
+/** 여러 코스의 스팟을 한 번에 읽을 때의 course_spots 행 프로젝션 */
+public record CourseSpotRow(
+        Long courseId,
+        Long spotId,
+        Long bakeryId,
+        String note,
+        Instant createdAt
+) {
+    public CourseSpotResponse toResponse() {
+        return new CourseSpotResponse(spotId, bakeryId, note, createdAt);
+    }
+}
@@ -0,0 +1,4 @@
+package org.crumb.be.course.dto;
+
+/** 조회수 증가용 (엔티티 없이 공개 여부와 DB 조회수/순 조회자 수만) */
+public record CourseViewRow(boolean isPublic, long viewCount, long uniqueViewers) {}
@@ -0,0 +1,11 @@
+package org.crumb.be.course.dto;
+
+/** score: 반감기 가중 최근 조회 수 (window 반감기마다 절반, 실제 이상일 수 있음) */
+public record TrendingCourseResponse(
+        int rank,
+        Long courseId,
+        String title,
+        long viewCount,
+        long uniqueViewers,
+        double score
+) {}
@@ -1,3 +1,4 @@
 package org.crumb.be.course.dto;
 
-public record ViewCountResponse(long viewCount) {}
+/** uniqueViewers: 순 조회자 수 추정치 (모아서 반영하므로 몇 초 늦을 수 있음) */
+public record ViewCountResponse(long viewCount, long uniqueViewers) {}
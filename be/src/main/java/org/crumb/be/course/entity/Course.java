@@ -10,7 +10,9 @@ import java.time.Instant;
 @Getter
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
 @Entity
-@Table(name = "courses")
+// 공개 코스 목록용 부분 인덱스(idx_courses_public_feed)는 CourseIndexInitializer가 만든다
+@Table(name = "courses",
+        indexes = @Index(name="idx_courses_author_feed", columnList="authorId, createdAt DESC, id DESC"))
 public class Course {
 
     @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -22,7 +24,8 @@ public class Course {
 
     @Column(nullable=false) private boolean isPublic = false;
 
-    @Column(nullable=false) private long viewCount = 0L;
+    // CourseViewCounter가 UPDATE로만 더한다 (엔티티 수정이 읽어 둔 옛값으로 덮어쓰지 않게)
+    @Column(nullable=false, updatable=false) private long viewCount = 0L;
 
     @CreationTimestamp @Column(nullable=false)
     private Instant createdAt;
@@ -42,9 +45,4 @@ public class Course {
         if (description != null) this.description = description;
         if (isPublic != null) this.isPublic = isPublic;
     }
-
-    /** 조회수 증가 도메인 메서드 */
-    public void increaseViewCount() {
-        this.viewCount++;
-    }
 }
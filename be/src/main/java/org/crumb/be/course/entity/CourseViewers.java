@@ -0,0 +1,29 @@
+package org.crumb.be.course.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+/**
+ * 코스별 순 조회자 HyperLogLog (코스당 한 행, 레지스터 4KB 고정).
+ * CourseViewerCounter가 모아서 병합·갱신하고, 목록/상세는 uniqueViewers(추정치)만 읽는다.
+ */
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@Entity
+@Table(name = "course_viewers")
+public class CourseViewers {
+
+    @Id
+    private Long courseId;
+
+    @Column(nullable=false)
+    private byte[] registers;
+
+    @Column(nullable=false)
+    private long uniqueViewers;
+
+    @Column(nullable=false)
+    private Instant updatedAt;
+}
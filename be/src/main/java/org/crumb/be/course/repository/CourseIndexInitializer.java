@@ -0,0 +1,35 @@
+package org.crumb.be.course.repository;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * JPA @Index로 만들 수 없는 courses 부분 인덱스 (PostgreSQL). 기동 시 없으면 만든다.
+ * 공개 코스 목록은 공개 행만 (created_at, id) 순으로 읽으므로 비공개 행은 인덱스에 넣지 않는다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CourseIndexInitializer {
+
+    // CONCURRENTLY: 기존 테이블에 만들 때 쓰기를 막지 않음 (트랜잭션 밖에서 실행)
+    private static final String PUBLIC_FEED_INDEX = """
+            CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_courses_public_feed
+            ON courses (created_at DESC, id DESC) WHERE is_public
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void createIndexes() {
+        try {
+            jdbcTemplate.execute(PUBLIC_FEED_INDEX);
+        } catch (Exception e) {
+            log.warn("[course] public feed index not created: {}", e.toString());
+        }
+    }
+}
@@ -1,13 +1,77 @@
 package org.crumb.be.course.repository;
 
+import org.crumb.be.course.dto.CourseRow;
+import org.crumb.be.course.dto.CourseViewRow;
 import org.crumb.be.course.entity.Course;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
+/**
+ * 목록은 (createdAt, id) 내림차순 keyset 페이지: 커서보다 작은 행부터 limit개.
+ * createdAt <= :createdAt 가 인덱스 범위 조건이 되고, 같은 시각인 행만 id로 거른다.
+ * 순 조회자 수는 course_viewers를 같은 문장에서 붙인다 (아직 없으면 0).
+ */
 public interface CourseRepository extends JpaRepository<Course, Long> {
-    // 내 코스(공개/비공개 모두)
-    List<Course> findAllByAuthorIdOrderByCreatedAtDesc(Long authorId);
-    // 공개 코스 중, 특정 사용자 제외
-    List<Course> findAllByIsPublicTrueAndAuthorIdNotOrderByCreatedAtDesc(Long excludedAuthorId);
+
+    // 내 코스(공개/비공개 모두). 목록용 프로젝션 (스팟은 CourseFeedAssembler가 한 번에) — idx_courses_author_feed
+    @Query("""
+            select new org.crumb.be.course.dto.CourseRow(
+                c.id, c.authorId, c.title, c.description, c.isPublic, c.viewCount,
+                coalesce(v.uniqueViewers, 0L), c.createdAt, c.updatedAt)
+            from Course c left join CourseViewers v on v.courseId = c.id
+            where c.authorId = :authorId
+              and c.createdAt <= :createdAt and (c.createdAt < :createdAt or c.id < :id)
+            order by c.createdAt desc, c.id desc
+            """)
+    List<CourseRow> findRowsByAuthorId(@Param("authorId") Long authorId,
+                                       @Param("createdAt") Instant createdAt, @Param("id") Long id, Limit limit);
+
+    // 공개 코스 중, 특정 사용자 제외 — idx_courses_public_feed (공개 행만 담은 부분 인덱스)
+    @Query("""
+            select new org.crumb.be.course.dto.CourseRow(
+                c.id, c.authorId, c.title, c.description, c.isPublic, c.viewCount,
+                coalesce(v.uniqueViewers, 0L), c.createdAt, c.updatedAt)
+            from Course c left join CourseViewers v on v.courseId = c.id
+            where c.isPublic = true and c.authorId <> :excludedAuthorId
+              and c.createdAt <= :createdAt and (c.createdAt < :createdAt or c.id < :id)
+            order by c.createdAt desc, c.id desc
+            """)
+    List<CourseRow> findPublicRowsExcludingAuthor(@Param("excludedAuthorId") Long excludedAuthorId,
+                                                  @Param("createdAt") Instant createdAt, @Param("id") Long id,
+                                                  Limit limit);
+
+    // 상세 (공개 여부/작성자 확인 포함 한 문장)
+    @Query("""
+            select new org.crumb.be.course.dto.CourseRow(
+                c.id, c.authorId, c.title, c.description, c.isPublic, c.viewCount,
+                coalesce(v.uniqueViewers, 0L), c.createdAt, c.updatedAt)
+            from Course c left join CourseViewers v on v.courseId = c.id
+            where c.id = :id
+            """)
+    Optional<CourseRow> findRowById(@Param("id") Long id);
+
+    // 인기 코스 응답용 (TrendingCourseService 반영 스레드가 순위에 새로 든 코스만)
+    @Query("""
+            select new org.crumb.be.course.dto.CourseRow(
+                c.id, c.authorId, c.title, c.description, c.isPublic, c.viewCount,
+                coalesce(v.uniqueViewers, 0L), c.createdAt, c.updatedAt)
+            from Course c left join CourseViewers v on v.courseId = c.id
+            where c.id in :ids
+            """)
+    List<CourseRow> findRowsByIdIn(@Param("ids") Collection<Long> ids);
+
+    // 조회수 증가 전 확인용 (PK 한 행, 엔티티를 올리지 않음)
+    @Query("""
+            select new org.crumb.be.course.dto.CourseViewRow(c.isPublic, c.viewCount, coalesce(v.uniqueViewers, 0L))
+            from Course c left join CourseViewers v on v.courseId = c.id
+            where c.id = :id
+            """)
+    Optional<CourseViewRow> findViewRow(@Param("id") Long id);
 }
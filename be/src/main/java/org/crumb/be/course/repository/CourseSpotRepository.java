@@ -1,12 +1,25 @@
 package org.crumb.be.course.repository;
 
+import org.crumb.be.course.dto.CourseSpotRow;
 import org.crumb.be.course.entity.CourseSpot;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface CourseSpotRepository extends JpaRepository<CourseSpot, Long> {
     List<CourseSpot> findByCourseIdOrderByCreatedAtAsc(Long courseId);
     long countByCourseId(Long courseId);
     boolean existsByCourseIdAndBakeryId(Long courseId, Long bakeryId);
-}
\ No newline at end of file
+
+    // 여러 코스의 스팟을 한 번에 (idx_course_spots_course)
+    @Query("""
+            select new org.crumb.be.course.dto.CourseSpotRow(s.courseId, s.id, s.bakeryId, s.note, s.createdAt)
+            from CourseSpot s
+            where s.courseId in :courseIds
+            order by s.courseId, s.createdAt, s.id
+            """)
+    List<CourseSpotRow> findRowsByCourseIdIn(@Param("courseIds") Collection<Long> courseIds);
+}
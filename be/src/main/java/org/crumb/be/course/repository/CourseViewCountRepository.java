@@ -0,0 +1,35 @@
+package org.crumb.be.course.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+
+/**
+ * courses.view_count 증분 반영 (PostgreSQL).
+ * 코스 여러 개를 배열 두 개로 묶어 UPDATE 한 문장으로 더한다 (엔티티를 읽지 않고, 동시에 더해도 잃지 않음).
+ */
+@Repository
+@RequiredArgsConstructor
+public class CourseViewCountRepository {
+
+    private static final String ADD_VIEWS_SQL = """
+            UPDATE courses c SET view_count = c.view_count + v.delta
+            FROM unnest(?::bigint[], ?::bigint[]) AS v(id, delta)
+            WHERE c.id = v.id
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /** ids[i]에 deltas[i]를 더한다. ids는 정렬해서 넘긴다 (인스턴스끼리 행 잠금 순서를 같게). 갱신된 행 수 */
+    public int addViews(Long[] ids, Long[] deltas) {
+        if (ids.length == 0) return 0;
+        return jdbcTemplate.update(con -> {
+            PreparedStatement ps = con.prepareStatement(ADD_VIEWS_SQL);
+            ps.setArray(1, con.createArrayOf("bigint", ids));
+            ps.setArray(2, con.createArrayOf("bigint", deltas));
+            return ps;
+        });
+    }
+}
@@ -0,0 +1,77 @@
+package org.crumb.be.course.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * course_viewers 레지스터 병합 (PostgreSQL). 한 트랜잭션에서 ensureRows → lockRegisters → updateAll 순으로 호출.
+ * 레지스터 max 병합은 앱에서 하므로 행을 먼저 잠가 다른 인스턴스의 병합과 겹치지 않게 한다.
+ */
+@Repository
+@RequiredArgsConstructor
+public class CourseViewerRepository {
+
+    // 빈 레지스터('')로 행부터 만든다: 동시에 만드는 인스턴스도 뒤의 FOR UPDATE에서 기다렸다가 병합
+    private static final String ENSURE_ROWS_SQL = """
+            INSERT INTO course_viewers (course_id, registers, unique_viewers, updated_at)
+            SELECT id, ''::bytea, 0, now() FROM unnest(?::bigint[]) AS id
+            ON CONFLICT (course_id) DO NOTHING
+            """;
+
+    private static final String LOCK_SQL = """
+            SELECT course_id, registers FROM course_viewers
+            WHERE course_id = ANY(?) ORDER BY course_id FOR UPDATE
+            """;
+
+    private static final String UPDATE_SQL =
+            "UPDATE course_viewers SET registers = ?, unique_viewers = ?, updated_at = ? WHERE course_id = ?";
+
+    public record Merged(long courseId, byte[] registers, long uniqueViewers) {}
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /** ids는 정렬해서 넘긴다 (행 잠금 순서) */
+    public void ensureRows(Long[] ids) {
+        jdbcTemplate.update(con -> {
+            PreparedStatement ps = con.prepareStatement(ENSURE_ROWS_SQL);
+            ps.setArray(1, con.createArrayOf("bigint", ids));
+            return ps;
+        });
+    }
+
+    /** 행을 잠그고 저장된 레지스터를 읽는다 (막 만든 행은 빈 배열) */
+    public Map<Long, byte[]> lockRegisters(Long[] ids) {
+        Map<Long, byte[]> out = new HashMap<>(ids.length * 2);
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(LOCK_SQL);
+            ps.setArray(1, con.createArrayOf("bigint", ids));
+            return ps;
+        }, rs -> { out.put(rs.getLong(1), rs.getBytes(2)); });
+        return out;
+    }
+
+    public void updateAll(List<Merged> rows, int batchSize) {
+        Timestamp now = Timestamp.from(Instant.now());
+        jdbcTemplate.batchUpdate(UPDATE_SQL, rows, batchSize, (ps, r) -> {
+            ps.setBytes(1, r.registers());
+            ps.setLong(2, r.uniqueViewers());
+            ps.setTimestamp(3, now);
+            ps.setLong(4, r.courseId());
+        });
+    }
+
+    /** 단건 응답용 추정치 (행이 없으면 0) */
+    public long findUniqueViewers(long courseId) {
+        List<Long> v = jdbcTemplate.queryForList(
+                "SELECT unique_viewers FROM course_viewers WHERE course_id = ?", Long.class, courseId);
+        return v.isEmpty() ? 0 : v.get(0);
+    }
+}
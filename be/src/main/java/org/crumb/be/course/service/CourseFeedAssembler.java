@@ -0,0 +1,73 @@
+package org.crumb.be.course.service;
+
+import lombok.RequiredArgsConstructor;
+import org.crumb.be.course.dto.CourseResponse;
+import org.crumb.be.course.dto.CourseRow;
+import org.crumb.be.course.dto.CourseSpotResponse;
+import org.crumb.be.course.dto.CourseSpotRow;
+import org.crumb.be.course.entity.Course;
+import org.crumb.be.course.repository.CourseSpotRepository;
+import org.crumb.be.course.repository.CourseViewerRepository;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 코스 행 목록 → CourseResponse 목록.
+ * 스팟은 코스 id IN (...) 한 번으로 읽어 코스별로 나눈다 (코스마다 조회하던 N+1 제거).
+ * 조회수는 DB 값에 아직 반영하지 않은 조회수를 더한다.
+ */
+@Component
+@RequiredArgsConstructor
+public class CourseFeedAssembler {
+
+    /** IN 목록 하나에 넣는 코스 수 (이보다 많으면 나눠서 조회) */
+    private static final int IN_CHUNK = 1000;
+
+    private final CourseSpotRepository courseSpotRepository;
+    private final CourseViewCounter courseViewCounter;
+    private final CourseViewerRepository courseViewerRepository;
+
+    public List<CourseResponse> assemble(List<CourseRow> courses) {
+        if (courses.isEmpty()) return List.of();
+        Map<Long, List<CourseSpotResponse>> spots = spotsByCourse(courses.stream().map(CourseRow::id).toList());
+
+        List<CourseResponse> out = new ArrayList<>(courses.size());
+        for (CourseRow c : courses) {
+            out.add(new CourseResponse(
+                    c.id(), c.title(), c.description(), c.isPublic(),
+                    courseViewCounter.viewCount(c.id(), c.viewCount()), c.uniqueViewers(),
+                    c.createdAt(), c.updatedAt(),
+                    spots.getOrDefault(c.id(), List.of())
+            ));
+        }
+        return out;
+    }
+
+    /** 단건 (생성/수정 직후 등 영속 엔티티). 순 조회자 수는 course_viewers에서 따로 */
+    public CourseResponse assemble(Course c) {
+        // 스팟 조회가 먼저 flush 하므로 updatedAt 등은 그 뒤에 읽는다
+        List<CourseSpotResponse> spots = spotsByCourse(List.of(c.getId())).getOrDefault(c.getId(), List.of());
+        return new CourseResponse(
+                c.getId(), c.getTitle(), c.getDescription(), c.isPublic(),
+                courseViewCounter.viewCount(c.getId(), c.getViewCount()),
+                courseViewerRepository.findUniqueViewers(c.getId()),
+                c.getCreatedAt(), c.getUpdatedAt(), spots
+        );
+    }
+
+    private Map<Long, List<CourseSpotResponse>> spotsByCourse(List<Long> courseIds) {
+        Map<Long, List<CourseSpotResponse>> spots = new HashMap<>(courseIds.size() * 2);
+        for (int from = 0; from < courseIds.size(); from += IN_CHUNK) {
+            // courseId, createdAt 순으로 오므로 코스별 목록도 생성 순
+            for (CourseSpotRow s : courseSpotRepository.findRowsByCourseIdIn(
+                    courseIds.subList(from, Math.min(from + IN_CHUNK, courseIds.size())))) {
+                spots.computeIfAbsent(s.courseId(), k -> new ArrayList<>()).add(s.toResponse());
+            }
+        }
+        return spots;
+    }
+}
@@ -8,6 +8,7 @@ import org.crumb.be.course.entity.CourseSpot;
 import org.crumb.be.course.repository.CourseRepository;
 import org.crumb.be.course.repository.CourseSpotRepository;
 import org.crumb.be.course.dto.*;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 
 import java.util.*;
@@ -17,9 +18,15 @@ import java.util.*;
 public class CourseService {
 
     private static final int MAX_SPOTS = 20;
+    public static final int DEFAULT_PAGE_SIZE = 20;
+    public static final int MAX_PAGE_SIZE = 50;
 
     private final CourseRepository courseRepository;
     private final CourseSpotRepository courseSpotRepository;
+    private final CourseFeedAssembler courseFeedAssembler;
+    private final CourseViewCounter courseViewCounter;
+    private final CourseViewerCounter courseViewerCounter;
+    private final TrendingCourseService trendingCourseService;
 
     private Course getCourseOrThrow(Long id) {
         return courseRepository.findById(id)
@@ -57,7 +64,7 @@ public class CourseService {
                 );
             }
         }
-        return toResponse(course.getId());
+        return toResponse(course);
     }
 
     // 코스 수정
@@ -66,7 +73,7 @@ public class CourseService {
         var c = getCourseOrThrow(courseId);
         assertOwner(me, c);
         c.updateMeta(req.title(), req.description(), req.isPublic());
-        return toResponse(courseId);
+        return toResponse(c);
     }
 
     // 코스에 빵집 추가
@@ -89,53 +96,63 @@ public class CourseService {
                         .note(req.note())
                         .build()
         );
-        return toResponse(courseId);
+        return toResponse(c);
     }
 
-    // 모든 공개 코스 조회 (로그인 사용자 코스 제외)
+    // 모든 공개 코스 조회 (로그인 사용자 코스 제외), 최신순 커서 페이지
     @Transactional
-    public List<CourseResponse> listPublicExcludeMe(Long me) {
-        var list = courseRepository.findAllByIsPublicTrueAndAuthorIdNotOrderByCreatedAtDesc(me);
-        return list.stream().map(c -> toResponse(c.getId())).toList();
+    public CoursePageResponse listPublicExcludeMe(Long me, String cursor, Integer size) {
+        var after = CourseCursor.decode(cursor);
+        int n = pageSize(size);
+        // 한 개 더 읽어 다음 페이지 여부 판단. 코스 1번 + 스팟 1번 (전체 코스 수와 무관)
+        return page(courseRepository.findPublicRowsExcludingAuthor(me, after.createdAt(), after.id(), Limit.of(n + 1)), n);
     }
 
-    // 내 코스 조회 (공개/비공개 포함)
+    // 내 코스 조회 (공개/비공개 포함), 최신순 커서 페이지
     @Transactional
-    public List<CourseResponse> listMine(Long me) {
-        var list = courseRepository.findAllByAuthorIdOrderByCreatedAtDesc(me);
-        return list.stream().map(c -> toResponse(c.getId())).toList();
+    public CoursePageResponse listMine(Long me, String cursor, Integer size) {
+        var after = CourseCursor.decode(cursor);
+        int n = pageSize(size);
+        return page(courseRepository.findRowsByAuthorId(me, after.createdAt(), after.id(), Limit.of(n + 1)), n);
     }
 
     // 코스 상세 조회
     @Transactional
     public CourseResponse getDetail(Long me, Long id) {
-        var c = getCourseOrThrow(id);
-        if (!c.isPublic() && !Objects.equals(me, c.getAuthorId()))
+        var c = courseRepository.findRowById(id)
+                .orElseThrow(() -> new NotFoundException("course not found: " + id));
+        if (!c.isPublic() && !Objects.equals(me, c.authorId()))
             throw new BusinessException(ErrorCode.FORBIDDEN, "forbidden");
-        return toResponse(id);
+        return courseFeedAssembler.assemble(List.of(c)).get(0);
     }
 
-    // 코스 조회수 증가
-    @Transactional
+    // 코스 조회수 증가 (DB에는 CourseViewCounter가 모아서 더한다)
     public ViewCountResponse increaseView(Long me, Long id) {
-        var c = getCourseOrThrow(id);
+        var c = courseRepository.findViewRow(id)
+                .orElseThrow(() -> new NotFoundException("course not found: " + id));
         // 공개 코스가 아니면 조회수 증가 불가
         if (!c.isPublic()) {
             throw new BusinessException(ErrorCode.FORBIDDEN, "only public course can increase view");
         }
-        c.increaseViewCount();
-        return new ViewCountResponse(c.getViewCount());
+        // 순 조회자는 로그인 사용자만 (비로그인은 모두 -1)
+        if (me != null && me > 0) courseViewerCounter.add(id, me);
+        trendingCourseService.record(id);
+        return new ViewCountResponse(courseViewCounter.increment(id, c.viewCount()), c.uniqueViewers());
     }
 
-    private CourseResponse toResponse(Long id) {
-        var c = getCourseOrThrow(id);
-        var spots = courseSpotRepository.findByCourseIdOrderByCreatedAtAsc(id).stream()
-                .map(s -> new CourseSpotResponse(s.getId(), s.getBakeryId(), s.getNote(), s.getCreatedAt()))
-                .toList();
+    private CoursePageResponse page(List<CourseRow> rows, int size) {
+        boolean hasNext = rows.size() > size;
+        var items = hasNext ? rows.subList(0, size) : rows;
+        String next = hasNext ? CourseCursor.after(items.get(size - 1)).encode() : null;
+        return new CoursePageResponse(courseFeedAssembler.assemble(items), next);
+    }
 
-        return new CourseResponse(
-                c.getId(), c.getTitle(), c.getDescription(), c.isPublic(),
-                c.getViewCount(), c.getCreatedAt(), c.getUpdatedAt(), spots
-        );
+    private static int pageSize(Integer size) {
+        if (size == null) return DEFAULT_PAGE_SIZE;
+        return Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+    }
+
+    private CourseResponse toResponse(Course c) {
+        return courseFeedAssembler.assemble(c);
     }
 }
@@ -0,0 +1,165 @@
+package org.crumb.be.course.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.crumb.be.course.repository.CourseViewCountRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 코스 조회수 쓰기 지연.
+ * 조회 1회는 코스별 LongAdder에 더하기만 하고 (락 없음), 전용 스레드 하나가 flush-interval마다
+ * 또는 미반영 합계가 max-pending을 넘으면 바로 UPDATE 한 문장으로 DB에 더한다.
+ * 비정상 종료 시 잃는 조회수는 많아야 한 주기 분량 또는 max-pending.
+ */
+@Slf4j
+@Service
+public class CourseViewCounter {
+
+    private static final class Pending {
+        final LongAdder delta = new LongAdder();    // 아직 DB에 더하지 않은 조회수
+        final AtomicLong served = new AtomicLong(); // 이 인스턴스가 돌려준 가장 큰 값 (줄어들어 보이지 않게)
+    }
+
+    private final CourseViewCountRepository viewCountRepository;
+    // 한 번이라도 조회된 공개 코스만 들어온다 (조회수 증가 전에 공개 여부 확인)
+    private final Map<Long, Pending> pending = new ConcurrentHashMap<>();
+    private final LongAdder unflushed = new LongAdder();
+    private final ScheduledExecutorService writer;
+    private final AtomicBoolean flushRequested = new AtomicBoolean();
+    private final long maxPending;
+    private final long capacity;
+    private final Duration shutdownTimeout;
+    private final Timer flushTimer;
+    private final Counter flushed;
+    private final Counter dropped;
+    private final Counter failed;
+
+    public CourseViewCounter(
+            CourseViewCountRepository viewCountRepository,
+            MeterRegistry meterRegistry,
+            @Value("${course.views.flush-interval:1s}") Duration flushInterval,
+            @Value("${course.views.max-pending:10000}") long maxPending,
+            @Value("${course.views.capacity:1000000}") long capacity,
+            @Value("${course.views.shutdown-timeout:5s}") Duration shutdownTimeout
+    ) {
+        this.viewCountRepository = viewCountRepository;
+        this.maxPending = maxPending;
+        this.capacity = capacity;
+        this.shutdownTimeout = shutdownTimeout;
+        this.writer = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "course-view-writer");
+            t.setDaemon(true);
+            return t;
+        });
+
+        Gauge.builder("course.views.pending", unflushed, LongAdder::sum).register(meterRegistry);
+        this.flushTimer = Timer.builder("course.views.flush")
+                .description("조회수 UPDATE 한 번의 시간").register(meterRegistry);
+        this.flushed = Counter.builder("course.views.flushed").register(meterRegistry);
+        this.dropped = Counter.builder("course.views.dropped")
+                .description("미반영 조회수가 capacity를 넘어 버린 조회").register(meterRegistry);
+        this.failed = Counter.builder("course.views.failed")
+                .description("실패한 UPDATE (조회수는 다음 주기에 다시)").register(meterRegistry);
+
+        long intervalMs = flushInterval.toMillis();
+        writer.scheduleWithFixedDelay(this::flush, intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    /** 조회 1회. persisted: 호출자가 읽은 DB 값. 반환: 미반영분을 더한 조회수 */
+    public long increment(long courseId, long persisted) {
+        Pending p = pending.computeIfAbsent(courseId, k -> new Pending());
+        // DB가 계속 실패해 쌓이기만 할 때 메모리 상한 (버린 만큼은 세지 않음)
+        if (unflushed.sum() >= capacity) {
+            dropped.increment();
+        } else {
+            p.delta.increment();
+            unflushed.increment();
+        }
+
+        // max-pending만큼 쌓이면 주기를 기다리지 않고 한 번 깨운다
+        if (unflushed.sum() >= maxPending && flushRequested.compareAndSet(false, true)) {
+            try {
+                writer.execute(this::flush);
+            } catch (Exception e) {
+                flushRequested.set(false); // 종료 중
+            }
+        }
+        return serve(p, persisted);
+    }
+
+    /** 목록/상세 응답용: DB 값 + 아직 반영하지 않은 조회수 */
+    public long viewCount(long courseId, long persisted) {
+        Pending p = pending.get(courseId);
+        return p == null ? persisted : serve(p, persisted);
+    }
+
+    /**
+     * flush는 UPDATE 전에 delta에서 빼므로, 그 사이 DB 옛값을 읽은 요청은 잠깐 작게 계산한다.
+     * 이미 돌려준 값보다 작으면 그 값을 준다.
+     */
+    private static long serve(Pending p, long persisted) {
+        long v = persisted + p.delta.sum();
+        return p.served.accumulateAndGet(v, Math::max);
+    }
+
+    private void flush() {
+        flushRequested.set(false);
+        // 인스턴스끼리 같은 순서로 행을 잠그도록 id 순
+        TreeMap<Long, Long> batch = new TreeMap<>();
+        long total = 0;
+        for (Map.Entry<Long, Pending> e : pending.entrySet()) {
+            LongAdder delta = e.getValue().delta;
+            long d = delta.sum();
+            if (d == 0) continue;
+            // 읽은 만큼만 뺀다 (그 사이 들어온 조회는 남아서 다음 주기에)
+            delta.add(-d);
+            batch.put(e.getKey(), d);
+            total += d;
+        }
+        if (batch.isEmpty()) return;
+        unflushed.add(-total);
+
+        try {
+            Long[] ids = batch.keySet().toArray(Long[]::new);
+            Long[] deltas = batch.values().toArray(Long[]::new);
+            flushTimer.record(() -> viewCountRepository.addViews(ids, deltas));
+            flushed.increment(total);
+        } catch (Exception e) {
+            // 되돌려 두고 다음 주기에 다시
+            batch.forEach((id, d) -> pending.get(id).delta.add(d));
+            unflushed.add(total);
+            failed.increment();
+            log.warn("[course-views] flush failed courses={} views={}: {}", batch.size(), total, e.toString());
+        }
+    }
+
+    /** 예약된 flush를 멈추고 남은 조회수를 모두 쓴다 */
+    @PreDestroy
+    public void flushOnShutdown() {
+        writer.shutdown();
+        try {
+            if (!writer.awaitTermination(shutdownTimeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                writer.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flush();
+    }
+}
@@ -0,0 +1,255 @@
+package org.crumb.be.course.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.crumb.be.common.batch.WriteBehindBuffer;
+import org.crumb.be.common.exception.BusinessException;
+import org.crumb.be.common.exception.ErrorCode;
+import org.crumb.be.common.snapshot.SharedAggregate;
+import org.crumb.be.common.snapshot.SnapshotCodec;
+import org.crumb.be.common.snapshot.SnapshotStore;
+import org.crumb.be.course.dto.CourseRow;
+import org.crumb.be.course.dto.TrendingCourseResponse;
+import org.crumb.be.course.repository.CourseRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * 인기 코스 (반감기 감쇠 조회 수, window별).
+ * 조회 경로는 락 없는 버퍼에 넣기만 하고, apply-interval마다 한 스레드가 TrendingCourses에 반영한 뒤
+ * 응답 목록(코스 정보 포함)을 미리 만들어 둔다. 조회 API는 그 목록을 잘라 주기만 한다 (courses 조회 없음).
+ * window마다 trending_snapshots 행 하나(SharedAggregate)에 저장하고, 그 합계(모든 인스턴스의 조회)로 순위를 만든다.
+ */
+@Slf4j
+@Service
+public class TrendingCourseService {
+
+    private static final String SNAPSHOT_PREFIX = "courses-";
+    /** 한 번에 돌려줄 수 있는 최대 개수 */
+    public static final int MAX_LIMIT = 50;
+    private static final int APPLY_BATCH = 5000;
+
+    /** 조회 가중치가 반감기마다 절반 (hour: 최근 몇 시간, day: 최근 며칠, week: 최근 몇 주 위주) */
+    public enum Window {
+        HOUR(Duration.ofHours(1)),
+        DAY(Duration.ofDays(1)),
+        WEEK(Duration.ofDays(7));
+
+        private final Duration halfLife;
+
+        Window(Duration halfLife) {
+            this.halfLife = halfLife;
+        }
+
+        /** null이면 day */
+        public static Window of(String name) {
+            if (name == null || name.isBlank()) return DAY;
+            try {
+                return valueOf(name.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new BusinessException(ErrorCode.VALIDATION_ERROR, "window must be hour, day or week");
+            }
+        }
+    }
+
+    private record View(long courseId, long atMillis) {}
+
+    private final CourseRepository courseRepository;
+    private final CourseViewCounter courseViewCounter;
+    private final Map<Window, SharedAggregate<TrendingCourses>> rankings = new EnumMap<>(Window.class);
+    private final WriteBehindBuffer<View> buffer;
+    // 순위 응답용 코스 정보 (반영 스레드만 DB에서 읽는다, 제목/공개 여부 변경은 ttl 안에 반영). 지워진 코스는 empty
+    private final Cache<Long, Optional<CourseRow>> courses;
+    private volatile Map<Window, List<TrendingCourseResponse>> served = Map.of();
+    private final boolean enabled;
+    private final long bucketMillis;
+    private final int capacity;
+    private final Counter dropped;
+
+    public TrendingCourseService(
+            CourseRepository courseRepository,
+            CourseViewCounter courseViewCounter,
+            SnapshotStore snapshotStore,
+            MeterRegistry meterRegistry,
+            @Value("${course.trending.enabled:true}") boolean enabled,
+            @Value("${course.trending.bucket:1m}") Duration bucket,
+            @Value("${course.trending.capacity:1000}") int capacity,
+            @Value("${course.trending.buffer:50000}") int bufferCapacity,
+            @Value("${course.trending.course-ttl:1m}") Duration courseTtl
+    ) {
+        this.courseRepository = courseRepository;
+        this.courseViewCounter = courseViewCounter;
+        this.enabled = enabled;
+        this.bucketMillis = bucket.toMillis();
+        this.capacity = capacity;
+        long now = System.currentTimeMillis();
+        for (Window w : Window.values()) {
+            rankings.put(w, snapshotStore.aggregate(SNAPSHOT_PREFIX + w.name().toLowerCase(Locale.ROOT),
+                    new Codec(w), now));
+        }
+        this.buffer = new WriteBehindBuffer<>(bufferCapacity);
+        this.courses = Caffeine.newBuilder()
+                .maximumSize(10_000)
+                .expireAfterWrite(courseTtl)
+                .build();
+
+        Gauge.builder("course.trending.pending", buffer, WriteBehindBuffer::size).register(meterRegistry);
+        this.dropped = Counter.builder("course.trending.dropped")
+                .description("버퍼가 가득 차서 버린 조회").register(meterRegistry);
+    }
+
+    /** 공개 코스 조회 1회 (요청 경로: 버퍼에 넣기만) */
+    public void record(long courseId) {
+        if (!enabled) return;
+        if (!buffer.offer(new View(courseId, System.currentTimeMillis()))) dropped.increment();
+    }
+
+    /** 미리 만든 목록의 앞 limit개 */
+    public List<TrendingCourseResponse> top(String window, int limit) {
+        List<TrendingCourseResponse> list = served.getOrDefault(Window.of(window), List.of());
+        return list.size() > limit ? list.subList(0, limit) : list;
+    }
+
+    @Scheduled(fixedDelayString = "${course.trending.apply-interval:1s}")
+    public void apply() {
+        if (!enabled) return;
+        for (int remaining = buffer.size(); remaining > 0; remaining -= APPLY_BATCH) {
+            List<View> batch = buffer.drain(APPLY_BATCH);
+            if (batch.isEmpty()) break;
+            for (SharedAggregate<TrendingCourses> r : rankings.values()) {
+                r.add(t -> {
+                    for (View v : batch) t.add(v.courseId(), v.atMillis());
+                });
+            }
+        }
+        rebuild();
+    }
+
+    /** 점수는 시간이 지나며 모두 같은 비율로 줄므로 조회가 없어도 다시 만든다 (코스 정보는 캐시) */
+    private void rebuild() {
+        long now = System.currentTimeMillis();
+        // 비공개로 바뀌었거나 지워진 코스를 빼도 MAX_LIMIT개가 남도록 더 뽑는다
+        Map<Window, List<TrendingCourses.Trend>> trends = new EnumMap<>(Window.class);
+        Set<Long> ids = new LinkedHashSet<>();
+        rankings.forEach((w, r) -> {
+            List<TrendingCourses.Trend> t = r.view().top(MAX_LIMIT * 2, now);
+            trends.put(w, t);
+            for (TrendingCourses.Trend trend : t) ids.add(trend.courseId());
+        });
+        if (ids.isEmpty()) {
+            served = Map.of();
+            return;
+        }
+
+        Map<Long, Optional<CourseRow>> rows;
+        try {
+            rows = courses.getAll(ids, this::loadCourses);
+        } catch (Exception e) {
+            log.warn("[trending-courses] course lookup failed: {}", e.toString());
+            return; // 지난 목록 유지
+        }
+
+        Map<Window, List<TrendingCourseResponse>> next = new EnumMap<>(Window.class);
+        trends.forEach((w, t) -> {
+            List<TrendingCourseResponse> out = new ArrayList<>(MAX_LIMIT);
+            for (TrendingCourses.Trend trend : t) {
+                if (out.size() >= MAX_LIMIT) break;
+                CourseRow c = rows.getOrDefault(trend.courseId(), Optional.empty()).orElse(null);
+                if (c == null || !c.isPublic()) continue;
+                out.add(new TrendingCourseResponse(out.size() + 1, c.id(), c.title(),
+                        courseViewCounter.viewCount(c.id(), c.viewCount()), c.uniqueViewers(), trend.score()));
+            }
+            next.put(w, List.copyOf(out));
+        });
+        served = next;
+    }
+
+    private Map<Long, Optional<CourseRow>> loadCourses(Set<? extends Long> ids) {
+        Map<Long, Optional<CourseRow>> out = new HashMap<>(ids.size() * 2);
+        for (Long id : ids) out.put(id, Optional.empty());
+        for (CourseRow c : courseRepository.findRowsByIdIn(new ArrayList<>(ids))) out.put(c.id(), Optional.of(c));
+        return out;
+    }
+
+    /** window별로 저장하고 합계를 다시 읽는다 (실패한 window는 다음 저장에 다시) */
+    @Scheduled(fixedDelayString = "${course.trending.snapshot-interval:1m}",
+            initialDelayString = "${course.trending.snapshot-interval:1m}")
+    public void snapshot() {
+        if (!enabled) return;
+        long now = System.currentTimeMillis();
+        rankings.forEach((w, r) -> {
+            try {
+                r.sync(now);
+            } catch (Exception e) {
+                log.warn("[trending-courses] snapshot {} failed: {}", w, e.toString());
+            }
+        });
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void restore() {
+        if (!enabled) return;
+        long now = System.currentTimeMillis();
+        Map<Window, Integer> restored = new HashMap<>();
+        rankings.forEach((w, r) -> {
+            try {
+                r.sync(now).ifPresent(x -> restored.put(w, x.entries()));
+            } catch (Exception e) {
+                log.warn("[trending-courses] restore {} failed: {}", w, e.toString());
+            }
+        });
+        if (!restored.isEmpty()) log.info("[trending-courses] restored courses per window {}", restored);
+        rebuild();
+    }
+
+    @PreDestroy
+    public void snapshotOnShutdown() {
+        apply();
+        snapshot();
+    }
+
+    private final class Codec implements SnapshotCodec<TrendingCourses> {
+        private final Window window;
+
+        Codec(Window window) {
+            this.window = window;
+        }
+
+        @Override
+        public TrendingCourses empty(long nowMillis) {
+            return new TrendingCourses(window.halfLife.toMillis(), bucketMillis, capacity, nowMillis);
+        }
+
+        @Override
+        public void write(TrendingCourses value, DataOutputStream out, long nowMillis) throws IOException {
+            value.writeTo(out);
+        }
+
+        @Override
+        public int read(DataInputStream in, TrendingCourses into, long nowMillis) throws IOException {
+            return into.readFrom(in);
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package org.crumb.be.course.service;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * 반감기 감쇠 인기 코스 순위 (상위 capacity개만 유지).
+ * 조회 1회의 가중치는 2^((버킷 시작 - 기준 시각) / 반감기)로, 최근 조회일수록 크다 (forward decay).
+ * 모든 점수가 같은 기준 시각이라 시간이 지나도 다시 계산할 필요 없이 순서가 유지되고,
+ * 지금 시점 점수는 2^(-(지금 - 기준 시각) / 반감기)를 곱하면 된다. 가중치가 너무 커지면 기준 시각을 옮긴다.
+ * 가득 찼을 때 새 코스는 가장 낮은 항목을 밀어내고 그 점수를 이어받는다 (Space-Saving, error = 이어받은 점수).
+ */
+public final class TrendingCourses {
+
+    private static final int FORMAT = 0x54524331; // "TRC1"
+    // 가중치가 2^64를 넘으면 기준 시각을 옮긴다 (double 범위 안에서 여유 있게)
+    private static final double MAX_EXPONENT = 64;
+
+    public record Trend(long courseId, double score) {}
+
+    private static final class Entry {
+        final long courseId;
+        double score;
+        double error;
+
+        Entry(long courseId, double score, double error) {
+            this.courseId = courseId;
+            this.score = score;
+            this.error = error;
+        }
+    }
+
+    private static final Comparator<Entry> RANK = Comparator.<Entry>comparingDouble(e -> -e.score)
+            .thenComparingLong(e -> e.courseId);
+
+    private final long halfLifeMillis;
+    private final long bucketMillis;
+    private final int capacity;
+    private final Map<Long, Entry> entries = new HashMap<>();
+    private final TreeSet<Entry> ranked = new TreeSet<>(RANK);
+    private long landmark; // 기준 시각 (버킷 경계)
+
+    public TrendingCourses(long halfLifeMillis, long bucketMillis, int capacity, long nowMillis) {
+        this.halfLifeMillis = halfLifeMillis;
+        this.bucketMillis = bucketMillis;
+        this.capacity = capacity;
+        this.landmark = bucketStart(nowMillis);
+    }
+
+    /** 조회 1회 */
+    public synchronized void add(long courseId, long atMillis) {
+        long at = bucketStart(atMillis);
+        if ((double) (at - landmark) / halfLifeMillis > MAX_EXPONENT) rescale(at);
+        offer(courseId, weight(at), 0);
+    }
+
+    /** 상위 n개, 점수는 nowMillis 시점으로 감쇠한 값 (반감기 단위로 가중한 최근 조회 수) */
+    public synchronized List<Trend> top(int n, long nowMillis) {
+        double decay = Math.pow(2, -(double) (nowMillis - landmark) / halfLifeMillis);
+        List<Trend> out = new ArrayList<>(Math.min(n, ranked.size()));
+        for (Entry e : ranked) {
+            if (out.size() >= n) break;
+            out.add(new Trend(e.courseId, e.score * decay));
+        }
+        return out;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public long halfLifeMillis() {
+        return halfLifeMillis;
+    }
+
+    public synchronized void writeTo(DataOutputStream out) throws IOException {
+        out.writeInt(FORMAT);
+        out.writeLong(halfLifeMillis);
+        out.writeLong(landmark);
+        out.writeInt(ranked.size());
+        for (Entry e : ranked) {
+            out.writeLong(e.courseId);
+            out.writeDouble(e.score);
+            out.writeDouble(e.error);
+        }
+    }
+
+    /** 스냅샷 점수를 지금 기준 시각으로 옮겨 더한다 (기동 후 들어온 조회와 합침). 반감기가 다르면 0 */
+    public synchronized int readFrom(DataInputStream in) throws IOException {
+        if (in.readInt() != FORMAT || in.readLong() != halfLifeMillis) return 0;
+        long theirLandmark = in.readLong();
+        double scale = Math.pow(2, (double) (theirLandmark - landmark) / halfLifeMillis);
+        int n = in.readInt();
+        for (int i = 0; i < n; i++) {
+            long courseId = in.readLong();
+            double score = in.readDouble();
+            double error = in.readDouble();
+            offer(courseId, score * scale, error * scale);
+        }
+        return n;
+    }
+
+    private void offer(long courseId, double weight, double error) {
+        Entry e = entries.get(courseId);
+        if (e != null) {
+            // 정렬 키가 바뀌므로 빼고 다시 넣는다
+            ranked.remove(e);
+            e.score += weight;
+            e.error += error;
+            ranked.add(e);
+            return;
+        }
+        if (entries.size() >= capacity) {
+            Entry min = ranked.pollLast();
+            entries.remove(min.courseId);
+            e = new Entry(courseId, min.score + weight, min.score + error);
+        } else {
+            e = new Entry(courseId, weight, error);
+        }
+        entries.put(courseId, e);
+        ranked.add(e);
+    }
+
+    /** 기준 시각을 옮기고 모든 점수에 같은 배율을 곱한다 (순서는 그대로, 반감기 x 64마다 한 번) */
+    private void rescale(long newLandmark) {
+        double factor = Math.pow(2, -(double) (newLandmark - landmark) / halfLifeMillis);
+        landmark = newLandmark;
+        List<Entry> all = new ArrayList<>(ranked);
+        ranked.clear();
+        for (Entry e : all) {
+            e.score *= factor;
+            e.error *= factor;
+            ranked.add(e);
+        }
+    }
+
+    private double weight(long at) {
+        return Math.pow(2, (double) (at - landmark) / halfLifeMillis);
+    }
+
+    private long bucketStart(long atMillis) {
+        return Math.floorDiv(atMillis, bucketMillis) * bucketMillis;
+    }
+}
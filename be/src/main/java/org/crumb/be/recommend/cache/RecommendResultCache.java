@@ -0,0 +1,324 @@
+package org.crumb.be.recommend.cache;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.crumb.be.bakery.catalog.BakeryCatalog;
+import org.crumb.be.recommend.dto.RecommendedBakery;
+import org.crumb.be.search.util.GeoHash;
+import org.crumb.be.search.util.GeoUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * (검색어 목록 해시, geohash 셀) 단위 추천 후보 캐시.
+ * 후보는 셀 중심에서 "반경 + 셀 반대각선"으로 limit보다 넉넉히 받아 두고,
+ * 꺼낼 때 요청 좌표 기준 정확한 거리로 다시 걸러 (점수 내림차순, 거리 오름차순) 정렬 후 limit을 자른다.
+ * - 검색어 프로필이 바뀌면 키가 바뀐다
+ * - 카탈로그가 다시 로드되면(스냅샷 교체) 이전 엔트리는 미스로 본다
+ * - fresh-ttl이 지나면 기존 결과를 주면서 뒤에서 한 번 새로 받고(stale 응답), max-stale이 지나면 버린다
+ * 후보는 셀 중심 기준 (점수 내림차순, 거리 오름차순) 상위 limit x over-fetch개라 그 밖의 빵집은 모른다.
+ * - 후보가 덜 찼으면 받은 반경 안 전부이므로 그대로 쓴다
+ * - 꽉 찼으면 빠진 빵집은 점수가 마지막 후보 이하이고, 같은 점수면 셀 중심에서 마지막 후보보다 멀다.
+ *   다시 거른 limit번째 점수가 마지막 후보 점수보다 높으면 같은 결과다
+ * - 점수가 같으면(검색어 프로필이 비면 모두 0) 빠진 빵집이 요청 좌표에 더 가까울 수 있다.
+ *   limit번째 거리가 (마지막 후보의 셀 중심 거리 - 셀 중심과 요청 좌표 거리)보다 짧을 때만 같은 결과로 본다
+ * - 그 밖(limit개가 안 남는 경우 포함)에는 요청 좌표로 직접 받는다 (recommend.cache.fallback)
+ */
+@Slf4j
+@Component
+public class RecommendResultCache {
+
+    @FunctionalInterface
+    public interface CandidateLoader {
+        Mono<List<RecommendedBakery>> load(double lat, double lng, int radiusMeters, int limit);
+    }
+
+    /** 여러 기준점을 한 번에 조회. 결과는 centers와 같은 순서 */
+    @FunctionalInterface
+    public interface BatchCandidateLoader {
+        Mono<List<List<RecommendedBakery>>> load(List<double[]> centers, int radiusMeters, int limit);
+    }
+
+    public record Key(long keywordsHash, String geohash, int radius) {}
+
+    private record Entry(List<RecommendedBakery> candidates, double[] center, int limit, long loadedAtNanos,
+                         BakeryCatalog.Snapshot catalog, AtomicBoolean refreshing) {}
+
+    private final BakeryCatalog catalog;
+    private final AsyncCache<Key, Entry> entries;
+    private final boolean enabled;
+    private final int precision;
+    private final long freshNanos;
+    private final int overFetch;
+    private final Counter fresh;
+    private final Counter stale;
+    private final Counter misses;
+    private final Counter fallbacks;
+
+    public RecommendResultCache(
+            BakeryCatalog catalog,
+            MeterRegistry meterRegistry,
+            @Value("${recommend.cache.enabled:true}") boolean enabled,
+            @Value("${recommend.cache.geohash-precision:6}") int precision,
+            @Value("${recommend.cache.fresh-ttl:1m}") Duration freshTtl,
+            @Value("${recommend.cache.max-stale:10m}") Duration maxStale,
+            @Value("${recommend.cache.max-entries:20000}") long maxEntries,
+            @Value("${recommend.cache.over-fetch:3}") int overFetch
+    ) {
+        this.catalog = catalog;
+        this.enabled = enabled;
+        this.precision = precision;
+        this.freshNanos = freshTtl.toNanos();
+        this.overFetch = overFetch;
+        // 실패한 로드는 캐시에 남지 않고, 같은 키 동시 미스는 로드 하나를 공유한다
+        this.entries = Caffeine.newBuilder()
+                .expireAfterWrite(maxStale)
+                .maximumSize(maxEntries)
+                .recordStats()
+                .buildAsync();
+        CaffeineCacheMetrics.monitor(meterRegistry, entries, "recommendResult");
+
+        this.fresh = Counter.builder("recommend.cache.requests")
+                .tag("result", "hit").description("fresh-ttl 이내 결과").register(meterRegistry);
+        this.stale = Counter.builder("recommend.cache.requests")
+                .tag("result", "stale").description("fresh-ttl이 지난 결과를 주고 뒤에서 갱신").register(meterRegistry);
+        this.misses = Counter.builder("recommend.cache.requests")
+                .tag("result", "miss").register(meterRegistry);
+        this.fallbacks = Counter.builder("recommend.cache.fallback")
+                .description("잘린 후보로 상위 limit개를 보장하지 못해 요청 좌표로 직접 받은 횟수").register(meterRegistry);
+        Gauge.builder("recommend.cache.hit.ratio", this, RecommendResultCache::hitRatio)
+                .description("(hit + stale) / 전체").register(meterRegistry);
+    }
+
+    /** 요청 좌표 기준으로 다시 정렬한 상위 limit개 */
+    public Mono<List<RecommendedBakery>> get(List<String> keywords, double lat, double lng,
+                                             int radius, int limit, CandidateLoader loader) {
+        if (!enabled) return loader.load(lat, lng, radius, limit);
+
+        var key = new Key(hash(keywords), GeoHash.encode(lat, lng, precision), radius);
+        return Mono.defer(() -> {
+            BakeryCatalog.Snapshot current = catalog.snapshot();
+            Entry entry = completed(key, current);
+            if (entry != null) {
+                if (System.nanoTime() - entry.loadedAtNanos() <= freshNanos) {
+                    fresh.increment();
+                } else {
+                    stale.increment();
+                    refresh(key, entry, current, loader);
+                }
+                return fromEntry(entry, lat, lng, radius, limit, loader);
+            }
+
+            misses.increment();
+            CompletableFuture<Entry> flight = entries.get(key, (k, executor) -> load(k, current, loader, limit).toFuture());
+            // 구독자 하나가 취소해도 공유 중인 로드는 취소하지 않는다
+            return Mono.fromFuture(flight, true)
+                    .flatMap(e -> fromEntry(e, lat, lng, radius, limit, loader));
+        });
+    }
+
+    /**
+     * 기준점 여러 개를 한 번에. 같은 셀의 기준점은 엔트리 하나를 같이 쓰고,
+     * 없는 셀들은 loader 한 번으로 함께 받는다 (stale 셀 갱신도 한 번에).
+     * @return 기준점 순서대로 get과 같은 결과
+     */
+    public Mono<List<List<RecommendedBakery>>> getAll(List<String> keywords, double[] lats, double[] lngs,
+                                                       int radius, int limit, BatchCandidateLoader loader) {
+        if (!enabled) {
+            List<double[]> points = new ArrayList<>(lats.length);
+            for (int i = 0; i < lats.length; i++) points.add(new double[]{lats[i], lngs[i]});
+            return loader.load(points, radius, limit);
+        }
+
+        long keywordsHash = hash(keywords);
+        List<Key> keys = new ArrayList<>(lats.length);
+        for (int i = 0; i < lats.length; i++) {
+            keys.add(new Key(keywordsHash, GeoHash.encode(lats[i], lngs[i], precision), radius));
+        }
+        return Mono.defer(() -> {
+            BakeryCatalog.Snapshot current = catalog.snapshot();
+            Map<Key, Entry> staleEntries = new LinkedHashMap<>();
+            for (Key key : keys) {
+                Entry entry = completed(key, current);
+                if (entry == null) {
+                    misses.increment();
+                } else if (System.nanoTime() - entry.loadedAtNanos() <= freshNanos) {
+                    fresh.increment();
+                } else {
+                    stale.increment();
+                    if (!staleEntries.containsKey(key) && entry.refreshing().compareAndSet(false, true)) {
+                        staleEntries.put(key, entry);
+                    }
+                }
+            }
+            if (!staleEntries.isEmpty()) refreshAll(staleEntries, current, loader, limit);
+
+            CompletableFuture<Map<Key, Entry>> all = entries.getAll(keys,
+                    (missing, executor) -> loadAll(List.copyOf(missing), current, loader, limit).toFuture());
+            return Mono.fromFuture(all, true).flatMap(loaded -> {
+                List<List<RecommendedBakery>> out = new ArrayList<>(keys.size());
+                List<Integer> shortIdx = new ArrayList<>();
+                List<double[]> shortPoints = new ArrayList<>();
+                for (int i = 0; i < keys.size(); i++) {
+                    Entry e = loaded.get(keys.get(i));
+                    List<RecommendedBakery> reranked = rerank(e.candidates(), lats[i], lngs[i], radius, limit);
+                    out.add(reranked);
+                    if (truncated(e, reranked, lats[i], lngs[i], limit)) {
+                        shortIdx.add(i);
+                        shortPoints.add(new double[]{lats[i], lngs[i]});
+                    }
+                }
+                if (shortIdx.isEmpty()) return Mono.just(out);
+                fallbacks.increment(shortIdx.size());
+                // 모자란 기준점만 요청 좌표로 한 번에
+                return loader.load(shortPoints, radius, limit).map(direct -> {
+                    for (int j = 0; j < shortIdx.size(); j++) out.set(shortIdx.get(j), direct.get(j));
+                    return out;
+                });
+            });
+        });
+    }
+
+    public void invalidateAll() {
+        entries.synchronous().invalidateAll();
+    }
+
+    /** stale 엔트리는 키당 한 번만 뒤에서 다시 받는다. 실패하면 max-stale까지 기존 결과를 계속 쓴다 */
+    private void refresh(Key key, Entry entry, BakeryCatalog.Snapshot current, CandidateLoader loader) {
+        if (!entry.refreshing().compareAndSet(false, true)) return;
+        load(key, current, loader, entry.limit()).subscribe(
+                e -> entries.put(key, CompletableFuture.completedFuture(e)),
+                ex -> {
+                    entry.refreshing().set(false);
+                    log.warn("[recommend] cache refresh failed key={}: {}", key, ex.toString());
+                });
+    }
+
+    private void refreshAll(Map<Key, Entry> staleEntries, BakeryCatalog.Snapshot current,
+                            BatchCandidateLoader loader, int limit) {
+        loadAll(List.copyOf(staleEntries.keySet()), current, loader, limit).subscribe(
+                loaded -> loaded.forEach((k, e) -> entries.put(k, CompletableFuture.completedFuture(e))),
+                ex -> {
+                    staleEntries.values().forEach(e -> e.refreshing().set(false));
+                    log.warn("[recommend] cache refresh failed keys={}: {}", staleEntries.size(), ex.toString());
+                });
+    }
+
+    /** 로드가 끝난 현재 카탈로그 기준 엔트리, 없으면 null (이전 카탈로그 엔트리는 지운다) */
+    private Entry completed(Key key, BakeryCatalog.Snapshot current) {
+        CompletableFuture<Entry> cached = entries.getIfPresent(key);
+        Entry entry = cached != null && cached.isDone() && !cached.isCompletedExceptionally() ? cached.join() : null;
+        if (entry != null && entry.catalog() != current) {
+            entries.synchronous().invalidate(key);
+            return null;
+        }
+        return entry;
+    }
+
+    private Mono<Entry> load(Key key, BakeryCatalog.Snapshot current, CandidateLoader loader, int limit) {
+        double[] center = GeoHash.center(key.geohash());
+        return loader.load(center[0], center[1], fetchRadius(key), limit * overFetch)
+                .map(list -> new Entry(List.copyOf(list), center, limit, System.nanoTime(), current, new AtomicBoolean()));
+    }
+
+    /** 셀마다 반대각선이 조금씩 달라서 가장 큰 반경으로 한 번에 받는다 (rerank에서 다시 거름) */
+    private Mono<Map<Key, Entry>> loadAll(List<Key> keys, BakeryCatalog.Snapshot current,
+                                          BatchCandidateLoader loader, int limit) {
+        List<double[]> centers = new ArrayList<>(keys.size());
+        int radius = 0;
+        for (Key key : keys) {
+            centers.add(GeoHash.center(key.geohash()));
+            radius = Math.max(radius, fetchRadius(key));
+        }
+        return loader.load(centers, radius, limit * overFetch).map(lists -> {
+            long now = System.nanoTime();
+            Map<Key, Entry> loaded = new HashMap<>(keys.size() * 2);
+            for (int i = 0; i < keys.size(); i++) {
+                loaded.put(keys.get(i), new Entry(List.copyOf(lists.get(i)), centers.get(i), limit, now, current, new AtomicBoolean()));
+            }
+            return loaded;
+        });
+    }
+
+    private Mono<List<RecommendedBakery>> fromEntry(Entry entry, double lat, double lng, int radius, int limit,
+                                                    CandidateLoader loader) {
+        List<RecommendedBakery> reranked = rerank(entry.candidates(), lat, lng, radius, limit);
+        if (!truncated(entry, reranked, lat, lng, limit)) return Mono.just(reranked);
+        fallbacks.increment();
+        return loader.load(lat, lng, radius, limit);
+    }
+
+    /** 받은 후보가 꽉 찼고(뒤가 잘렸을 수 있음) 빠진 빵집이 다시 거른 상위 limit에 들 수 있으면 true */
+    private boolean truncated(Entry entry, List<RecommendedBakery> reranked, double lat, double lng, int limit) {
+        List<RecommendedBakery> candidates = entry.candidates();
+        if (candidates.size() < entry.limit() * overFetch) return false;
+        if (reranked.size() < limit) return true;
+        RecommendedBakery last = candidates.get(candidates.size() - 1);
+        RecommendedBakery kth = reranked.get(limit - 1);
+        if (score(kth) > score(last)) return false;
+        if (last.lat() == null || last.lng() == null) return true;
+        // 같은 점수의 빠진 빵집은 요청 좌표에서 적어도 bound만큼 떨어져 있다 (삼각 부등식)
+        var center = GeoUtils.origin(entry.center()[0], entry.center()[1]);
+        double bound = center.exactMeters(last.lat(), last.lng()) - center.exactMeters(lat, lng);
+        return kth.distance() >= bound;
+    }
+
+    private static double score(RecommendedBakery b) {
+        return b.score() == null ? 0 : b.score();
+    }
+
+    private static int fetchRadius(Key key) {
+        return (int) Math.ceil(key.radius() + GeoHash.halfDiagonalMeters(key.geohash()));
+    }
+
+    /** 요청 좌표 기준 정확한 거리로 반경 밖을 빼고 (점수 내림차순, 거리 오름차순) 상위 limit */
+    static List<RecommendedBakery> rerank(List<RecommendedBakery> candidates, double lat, double lng, int radius, int limit) {
+        var origin = GeoUtils.origin(lat, lng);
+        List<RecommendedBakery> out = new ArrayList<>(candidates.size());
+        for (RecommendedBakery b : candidates) {
+            if (b.lat() == null || b.lng() == null) continue;
+            double d = origin.exactMeters(b.lat(), b.lng());
+            if (d > radius) continue;
+            out.add(new RecommendedBakery(b.id(), b.name(), b.address(), b.lat(), b.lng(), b.intro(), d, b.score()));
+        }
+        out.sort(Comparator.comparingDouble((RecommendedBakery b) -> -score(b))
+                .thenComparingDouble(RecommendedBakery::distance));
+        return out.size() > limit ? List.copyOf(out.subList(0, limit)) : out;
+    }
+
+    /** 검색어 순서까지 포함한 64비트 FNV-1a (검색어 사이에 구분 문자 U+001F) */
+    static long hash(List<String> keywords) {
+        long h = 0xcbf29ce484222325L;
+        for (String k : keywords) {
+            for (int i = 0; i < k.length(); i++) {
+                h ^= k.charAt(i);
+                h *= 0x100000001b3L;
+            }
+            h ^= 0x1f;
+            h *= 0x100000001b3L;
+        }
+        return h;
+    }
+
+    private double hitRatio() {
+        double hits = fresh.count() + stale.count();
+        double total = hits + misses.count();
+        return total == 0 ? 0 : hits / total;
+    }
+}
@@ -2,12 +2,16 @@ package org.crumb.be.recommend.controller;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.crumb.be.common.response.ApiResponse;
 import org.crumb.be.recommend.dto.RecommendBakeryResponse;
+import org.crumb.be.recommend.dto.RecommendBatchRequest;
+import org.crumb.be.recommend.dto.RecommendBatchResponse;
 import org.crumb.be.recommend.service.RecommendService;
 import org.crumb.be.user.service.KakaoLoginService;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
 
 import java.util.List;
 
@@ -25,16 +29,31 @@ public class RecommendController {
 //        return Long.parseLong(header);
 //    }
 
+    /** Mono 반환 → 서블릿 비동기 처리 (카카오/DB/FastAPI를 기다리는 동안 Tomcat 스레드를 반납) */
     @Operation(summary="주변 빵집 추천(반경/개수 고정: 5km/10개)")
     @GetMapping("/bakeries")
-    public ApiResponse<List<RecommendBakeryResponse>> recommend(
+    public Mono<ApiResponse<List<RecommendBakeryResponse>>> recommend(
             @RequestHeader("Authorization") String authorization,
             @RequestParam double lat,
             @RequestParam double lng
     ) {
         String token = authorization.replace("Bearer ", "").trim();
-        Long userId = kakaoLoginService.getUserInfo(token).getId();
 
-        return ApiResponse.ok(recommendService.recommend(userId, lat, lng));
+        return kakaoLoginService.getUserInfoAsync(token)
+                .flatMap(user -> recommendService.recommend(user.getId(), lat, lng))
+                .map(ApiResponse::ok);
+    }
+
+    @Operation(summary="여러 기준점 빵집 추천 한 번에 (기준점 최대 20개, 겹치는 빵집 정보는 bakeries에 한 번만)")
+    @PostMapping("/bakeries/batch")
+    public Mono<ApiResponse<RecommendBatchResponse>> recommendBatch(
+            @RequestHeader("Authorization") String authorization,
+            @Valid @RequestBody RecommendBatchRequest req
+    ) {
+        String token = authorization.replace("Bearer ", "").trim();
+
+        return kakaoLoginService.getUserInfoAsync(token)
+                .flatMap(user -> recommendService.recommendBatch(user.getId(), req.anchors()))
+                .map(ApiResponse::ok);
     }
 }
@@ -0,0 +1,33 @@
+package org.crumb.be.recommend.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.crumb.be.common.response.ApiResponse;
+import org.crumb.be.recommend.dto.TrendingKeywordResponse;
+import org.crumb.be.recommend.service.TrendingKeywordService;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@Tag(name="Trending", description="실시간 인기 검색어")
+@RestController
+@RequestMapping("/api/trending")
+@RequiredArgsConstructor
+public class TrendingController {
+
+    private final TrendingKeywordService trendingKeywordService;
+
+    /** 메모리에서 바로 응답 (DB 조회 없음) */
+    @Operation(summary="인기 검색어 (lat/lng 있으면 주변 지역, 없으면 전국 / 기본 최근 1시간, 최대 50개)")
+    @GetMapping("/keywords")
+    public ApiResponse<List<TrendingKeywordResponse>> keywords(
+            @RequestParam(required = false) Double lat,
+            @RequestParam(required = false) Double lng,
+            @RequestParam(required = false) Integer minutes,
+            @RequestParam(defaultValue = "10") int limit
+    ) {
+        int n = Math.max(1, Math.min(limit, TrendingKeywordService.MAX_LIMIT));
+        return ApiResponse.ok(trendingKeywordService.top(lat, lng, minutes, n));
+    }
+}
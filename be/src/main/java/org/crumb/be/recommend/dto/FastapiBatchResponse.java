@@ -0,0 +1,33 @@
+package org.crumb.be.recommend.dto;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/** FastAPI POST /recommend/batch 응답. 빵집 정보는 bakeries에 한 번만, anchors[i]에는 (id, 거리, 점수) */
+public record FastapiBatchResponse(
+        List<RecommendedBakery> bakeries,
+        List<List<Ranked>> anchors
+) {
+    public record Ranked(Long id, Double distance, Double score) {}
+
+    /** 기준점별 RecommendedBakery 목록으로 펼친다 */
+    public List<List<RecommendedBakery>> expand() {
+        Map<Long, RecommendedBakery> byId = new HashMap<>();
+        if (bakeries != null) for (RecommendedBakery b : bakeries) byId.put(b.id(), b);
+        List<List<RecommendedBakery>> out = new ArrayList<>(anchors == null ? 0 : anchors.size());
+        if (anchors == null) return out;
+        for (List<Ranked> ranked : anchors) {
+            List<RecommendedBakery> items = new ArrayList<>(ranked.size());
+            for (Ranked r : ranked) {
+                RecommendedBakery b = byId.get(r.id());
+                if (b == null) continue;
+                items.add(new RecommendedBakery(b.id(), b.name(), b.address(), b.lat(), b.lng(), b.intro(),
+                        r.distance(), r.score()));
+            }
+            out.add(items);
+        }
+        return out;
+    }
+}
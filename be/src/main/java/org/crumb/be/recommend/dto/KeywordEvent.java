@@ -0,0 +1,6 @@
+package org.crumb.be.recommend.dto;
+
+import java.time.Instant;
+
+/** 프로필에 반영할 검색 1회 (user_keywords 쓰기 지연 버퍼 항목) */
+public record KeywordEvent(Long userId, String keyword, Instant at) {}
@@ -0,0 +1,18 @@
+package org.crumb.be.recommend.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+public record RecommendBatchRequest(
+        @NotEmpty @Size(max = 20) List<@Valid @NotNull Anchor> anchors
+) {
+    public record Anchor(
+            String label, // 클라이언트 구분용 (예: "current", "saved:3"), 응답에 그대로
+            @NotNull Double lat,
+            @NotNull Double lng
+    ) {}
+}
@@ -0,0 +1,34 @@
+package org.crumb.be.recommend.dto;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/** 기준점별 추천. 여러 기준점에 겹치는 빵집 정보는 bakeries에 한 번만 담는다 */
+public record RecommendBatchResponse(
+        List<AnchorResult> anchors, // 요청 순서
+        List<Bakery> bakeries
+) {
+    public record AnchorResult(String label, Double lat, Double lng, List<Item> items) {}
+
+    public record Item(Long id, Double distance) {} // meters
+
+    public record Bakery(Long id, String name, String address, Double lat, Double lng, String intro) {}
+
+    public static RecommendBatchResponse of(List<RecommendBatchRequest.Anchor> anchors,
+                                            List<List<RecommendedBakery>> results) {
+        Map<Long, Bakery> bakeries = new LinkedHashMap<>();
+        List<AnchorResult> out = new ArrayList<>(anchors.size());
+        for (int i = 0; i < anchors.size(); i++) {
+            var a = anchors.get(i);
+            List<Item> items = new ArrayList<>(results.get(i).size());
+            for (RecommendedBakery b : results.get(i)) {
+                bakeries.computeIfAbsent(b.id(), id -> new Bakery(id, b.name(), b.address(), b.lat(), b.lng(), b.intro()));
+                items.add(new Item(b.id(), b.distance()));
+            }
+            out.add(new AnchorResult(a.label(), a.lat(), a.lng(), items));
+        }
+        return new RecommendBatchResponse(out, List.copyOf(bakeries.values()));
+    }
+}
@@ -0,0 +1,6 @@
+package org.crumb.be.recommend.dto;
+
+import java.time.Instant;
+
+/** 저장할 검색 1회 (search_history 쓰기 지연 버퍼 항목) */
+public record SearchEvent(Long userId, String query, Double lat, Double lng, Instant at) {}
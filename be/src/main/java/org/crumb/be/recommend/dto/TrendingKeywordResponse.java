@@ -0,0 +1,4 @@
+package org.crumb.be.recommend.dto;
+
+/** count: 창 안 검색 횟수 추정치 (실제 이상일 수 있음) */
+public record TrendingKeywordResponse(int rank, String keyword, long count) {}
@@ -6,6 +6,10 @@ import org.hibernate.annotations.CreationTimestamp;
 
 import java.time.Instant;
 
+/**
+ * 검색 1회. PostgreSQL에서는 createdAt 월별 RANGE 파티션 테이블이다 (SearchHistoryPartitionService가 만들고 관리).
+ * 파티션 테이블 PK는 (id, created_at)이고, 조회는 createdAt 하한을 줘야 오래된 파티션을 건너뛴다.
+ */
 @Getter
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
 @AllArgsConstructor
@@ -16,7 +20,9 @@ import java.time.Instant;
 })
 public class SearchHistory {
 
-    @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // IDENTITY는 INSERT마다 키를 받아야 해서 배치가 안 됨 → 시퀀스 (50개씩 할당, SearchHistoryInsertRepository와 같은 규칙)
+    @Id @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "search_history_seq")
+    @SequenceGenerator(name = "search_history_seq", sequenceName = "search_history_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable=false)
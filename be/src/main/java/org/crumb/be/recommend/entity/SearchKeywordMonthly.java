@@ -0,0 +1,38 @@
+package org.crumb.be.recommend.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+import java.time.LocalDate;
+
+/**
+ * 보관 기간이 지난 search_history 파티션의 월별 요약 (사용자 + 월 + 검색어당 한 행).
+ * 파티션을 지우기 전에 SearchHistoryPartitionRepository가 채운다.
+ */
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@Entity
+@Table(name = "search_keyword_monthly",
+        uniqueConstraints = @UniqueConstraint(name = "uk_search_keyword_monthly",
+                columnNames = {"userId", "monthStart", "keyword"}))
+public class SearchKeywordMonthly {
+
+    @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable=false)
+    private Long userId;
+
+    @Column(nullable=false)
+    private LocalDate monthStart; // 그 달 1일 (UTC)
+
+    @Column(nullable=false, length=200)
+    private String keyword;
+
+    @Column(nullable=false)
+    private long searches;
+
+    @Column(nullable=false)
+    private Instant lastSearchedAt;
+}
@@ -0,0 +1,33 @@
+package org.crumb.be.recommend.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+/**
+ * 사용자별 검색어 프로필 (검색어당 한 행). weight는 updatedAt 시점의 시간 감쇠 검색 횟수.
+ * 쓰기는 UserKeywordUpsertRepository의 배치 upsert로만 하고, 사용자당 recommend.profile.max-keywords 행만 남긴다.
+ */
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@Entity
+@Table(name = "user_keywords",
+        uniqueConstraints = @UniqueConstraint(name = "uk_user_keywords_user_keyword", columnNames = {"userId", "keyword"}))
+public class UserKeyword {
+
+    @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable=false)
+    private Long userId;
+
+    @Column(nullable=false, length=200)
+    private String keyword;
+
+    @Column(nullable=false)
+    private double weight;
+
+    @Column(nullable=false)
+    private Instant updatedAt;
+}
@@ -0,0 +1,119 @@
+package org.crumb.be.recommend.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.crumb.be.recommend.dto.SearchEvent;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * search_history 다중 행 INSERT (JDBC 배치).
+ * id는 search_history_seq에서 50개 블록 단위로 미리 받아 둔다 (Hibernate pooled와 같은 규칙: 시퀀스 값 v = 블록 v-49 ~ v).
+ */
+@Repository
+@RequiredArgsConstructor
+public class SearchHistoryInsertRepository {
+
+    /** SearchHistory @SequenceGenerator allocationSize와 같아야 한다 */
+    static final int ALLOCATION_SIZE = 50;
+    /** INSERT 한 문장의 행 수 (바인드 변수 600개) */
+    private static final int ROWS_PER_STATEMENT = 100;
+    private static final int COLUMNS = 6;
+
+    private static final String FULL_SQL = insertSql(ROWS_PER_STATEMENT);
+
+    private static final String NEXT_BLOCKS_SQL =
+            "SELECT nextval('search_history_seq') FROM generate_series(1, ?)";
+
+    // IDENTITY로 저장된 기존 행 뒤에서 시작하도록 (되돌리지는 않음)
+    private static final String ALIGN_SQL = """
+            SELECT setval('search_history_seq', GREATEST(
+                (SELECT last_value FROM search_history_seq),
+                (SELECT COALESCE(max(id), 0) FROM search_history) + ?))
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // 받아 둔 블록의 끝 값들과 지금 쓰는 블록 [nextId, blockEnd]
+    private final ArrayDeque<Long> blocks = new ArrayDeque<>();
+    private long nextId = 1;
+    private long blockEnd = 0;
+
+    public void alignSequence() {
+        jdbcTemplate.queryForObject(ALIGN_SQL, Long.class, ALLOCATION_SIZE);
+    }
+
+    /** 행 수가 ROWS_PER_STATEMENT 배수인 부분은 같은 문장으로 배치, 나머지는 한 문장 */
+    public void insertAll(List<SearchEvent> events) {
+        if (events.isEmpty()) return;
+        long[] ids = allocateIds(events.size());
+        int statements = events.size() / ROWS_PER_STATEMENT;
+        int full = statements * ROWS_PER_STATEMENT;
+
+        if (statements > 0) {
+            jdbcTemplate.batchUpdate(FULL_SQL, new BatchPreparedStatementSetter() {
+                @Override
+                public void setValues(PreparedStatement ps, int i) throws SQLException {
+                    bind(ps, events, ids, i * ROWS_PER_STATEMENT, ROWS_PER_STATEMENT);
+                }
+
+                @Override
+                public int getBatchSize() {
+                    return statements;
+                }
+            });
+        }
+        int rest = events.size() - full;
+        if (rest > 0) {
+            jdbcTemplate.update(insertSql(rest), ps -> bind(ps, events, ids, full, rest));
+        }
+    }
+
+    private synchronized long[] allocateIds(int n) {
+        long[] ids = new long[n];
+        for (int i = 0; i < n; i++) {
+            if (nextId > blockEnd) nextBlock(n - i);
+            ids[i] = nextId++;
+        }
+        return ids;
+    }
+
+    private void nextBlock(int needed) {
+        while (blocks.isEmpty()) {
+            int count = (needed + ALLOCATION_SIZE - 1) / ALLOCATION_SIZE;
+            for (Long hi : jdbcTemplate.queryForList(NEXT_BLOCKS_SQL, Long.class, count)) {
+                // 새 시퀀스의 첫 값(1)은 블록이 아니다
+                if (hi >= ALLOCATION_SIZE) blocks.add(hi);
+            }
+        }
+        blockEnd = blocks.poll();
+        nextId = blockEnd - ALLOCATION_SIZE + 1;
+    }
+
+    private static void bind(PreparedStatement ps, List<SearchEvent> events, long[] ids, int from, int rows)
+            throws SQLException {
+        for (int r = 0; r < rows; r++) {
+            SearchEvent e = events.get(from + r);
+            int p = r * COLUMNS;
+            ps.setLong(p + 1, ids[from + r]);
+            ps.setLong(p + 2, e.userId());
+            ps.setString(p + 3, e.query());
+            ps.setObject(p + 4, e.lat(), Types.DOUBLE);
+            ps.setObject(p + 5, e.lng(), Types.DOUBLE);
+            ps.setTimestamp(p + 6, Timestamp.from(e.at()));
+        }
+    }
+
+    private static String insertSql(int rows) {
+        return "INSERT INTO search_history (id, user_id, query, lat, lng, created_at) VALUES "
+                + String.join(", ", Collections.nCopies(rows, "(?, ?, ?, ?, ?, ?)"));
+    }
+}
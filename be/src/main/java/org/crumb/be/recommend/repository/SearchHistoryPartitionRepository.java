@@ -0,0 +1,222 @@
+package org.crumb.be.recommend.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * search_history 월별 RANGE 파티션 DDL (PostgreSQL).
+ * 파티션 이름은 search_history_y2025m09, 경계는 UTC 월초 [이번 달 1일, 다음 달 1일).
+ * 월 파티션이 없는 달의 행은 search_history_default에 쌓이고, 그 달 파티션을 만들 때 옮기거나 보관 기간이 지나면 요약 후 지운다.
+ */
+@Repository
+@RequiredArgsConstructor
+public class SearchHistoryPartitionRepository {
+
+    private static final Pattern PARTITION_NAME = Pattern.compile("search_history_y(\\d{4})m(\\d{2})");
+
+    // 여러 인스턴스가 동시에 관리하지 않도록 (트랜잭션이 끝나면 풀림)
+    private static final long LOCK_KEY = 0x5EA2C40019L;
+
+    private static final String IS_PARTITIONED_SQL =
+            "SELECT EXISTS (SELECT 1 FROM pg_partitioned_table WHERE partrelid = to_regclass('search_history'))";
+
+    private static final String PARTITIONS_SQL = """
+            SELECT c.relname FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid
+            WHERE i.inhparent = to_regclass('search_history')
+            """;
+
+    // Hibernate가 만든 일반 테이블 → 파티션 테이블 (같은 컬럼, PK에 created_at 포함).
+    // 이름 변경/생성만 하므로 ACCESS EXCLUSIVE는 잠깐, 기존 행은 moveUnpartitioned로 나눠 옮긴다
+    private static final String[] SWAP_SQL = {
+            "LOCK TABLE search_history IN ACCESS EXCLUSIVE MODE",
+            "ALTER TABLE search_history RENAME TO search_history_unpartitioned",
+            "ALTER INDEX IF EXISTS idx_search_user_created RENAME TO idx_search_user_created_unpartitioned",
+            """
+            CREATE TABLE search_history (
+                id bigint NOT NULL,
+                user_id bigint NOT NULL,
+                query varchar(200) NOT NULL,
+                lat double precision,
+                lng double precision,
+                created_at timestamp(6) with time zone NOT NULL,
+                CONSTRAINT pk_search_history PRIMARY KEY (id, created_at)
+            ) PARTITION BY RANGE (created_at)
+            """,
+            "CREATE INDEX idx_search_user_created ON search_history (user_id, created_at DESC)",
+            // 월 파티션이 없는 시각(시계 오차 등)의 행이 INSERT 실패하지 않도록
+            "CREATE TABLE search_history_default PARTITION OF search_history DEFAULT"
+    };
+
+    // 최근 행부터 chunk개씩 옮긴다 (지우면서 넣으므로 중간에 멈춰도 다시 이어서)
+    private static final String MOVE_SQL = """
+            WITH moved AS (
+                DELETE FROM search_history_unpartitioned
+                WHERE id IN (SELECT id FROM search_history_unpartitioned ORDER BY id DESC LIMIT ?)
+                RETURNING id, user_id, query, lat, lng, created_at
+            )
+            INSERT INTO search_history (id, user_id, query, lat, lng, created_at)
+            SELECT id, user_id, query, lat, lng, created_at FROM moved
+            """;
+
+    private static final String DEFAULT = "search_history_default";
+
+    // DEFAULT에 쌓인 그 달 행을 새 파티션(아직 붙이기 전)으로 옮긴다
+    private static final String MOVE_DEFAULT_SQL = """
+            WITH moved AS (
+                DELETE FROM search_history_default WHERE created_at >= ? AND created_at < ?
+                RETURNING id, user_id, query, lat, lng, created_at
+            )
+            INSERT INTO %s (id, user_id, query, lat, lng, created_at)
+            SELECT id, user_id, query, lat, lng, created_at FROM moved
+            """;
+
+    // DEFAULT의 오래된 행은 지우면서 더한다 (지운 행만 더하므로 다시 실행해도 두 번 세지 않음)
+    private static final String ROLLUP_DEFAULT_SQL = """
+            WITH moved AS (
+                DELETE FROM search_history_default WHERE created_at < ?
+                RETURNING user_id, query, created_at
+            )
+            INSERT INTO search_keyword_monthly (user_id, month_start, keyword, searches, last_searched_at)
+            SELECT user_id, date_trunc('month', created_at AT TIME ZONE 'UTC')::date, btrim(query), count(*), max(created_at)
+            FROM moved
+            WHERE btrim(query) <> ''
+            GROUP BY 1, 2, 3
+            ON CONFLICT (user_id, month_start, keyword) DO UPDATE SET
+                searches = search_keyword_monthly.searches + EXCLUDED.searches,
+                last_searched_at = greatest(search_keyword_monthly.last_searched_at, EXCLUDED.last_searched_at)
+            """;
+
+    // 파티션 내용은 그 달이 지나면 바뀌지 않으므로 다시 실행해도 같은 값
+    private static final String ROLLUP_SQL = """
+            INSERT INTO search_keyword_monthly (user_id, month_start, keyword, searches, last_searched_at)
+            SELECT user_id, ?, btrim(query), count(*), max(created_at)
+            FROM %s
+            WHERE btrim(query) <> ''
+            GROUP BY user_id, btrim(query)
+            ON CONFLICT (user_id, month_start, keyword) DO UPDATE SET
+                searches = EXCLUDED.searches,
+                last_searched_at = EXCLUDED.last_searched_at
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /** 트랜잭션 안에서만 의미 있음. 다른 인스턴스가 잡고 있으면 false */
+    public boolean tryLock() {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject("SELECT pg_try_advisory_xact_lock(?)", Boolean.class, LOCK_KEY));
+    }
+
+    public boolean isPartitioned() {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(IS_PARTITIONED_SQL, Boolean.class));
+    }
+
+    public boolean tableExists() {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                "SELECT to_regclass('search_history') IS NOT NULL", Boolean.class));
+    }
+
+    /** 기존 행의 가장 이른 달 (비어 있으면 empty) */
+    public Optional<YearMonth> oldestMonth() {
+        Timestamp min = jdbcTemplate.queryForObject("SELECT min(created_at) FROM search_history", Timestamp.class);
+        return Optional.ofNullable(min).map(t -> YearMonth.from(t.toInstant().atOffset(ZoneOffset.UTC)));
+    }
+
+    /**
+     * 일반 테이블을 search_history_unpartitioned로 바꾸고 빈 파티션 테이블을 만든다 (한 트랜잭션에서 호출).
+     * 행은 옮기지 않는다 (moveUnpartitioned). months: 기존 행과 앞으로 쓸 달을 모두 덮는 월 파티션
+     */
+    public void swapToPartitioned(List<YearMonth> months) {
+        for (String sql : SWAP_SQL) jdbcTemplate.execute(sql);
+        for (YearMonth m : months) createPartition(m);
+    }
+
+    /** 옮길 행이 남은 옛 테이블이 있으면 true */
+    public boolean hasUnpartitioned() {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                "SELECT to_regclass('search_history_unpartitioned') IS NOT NULL", Boolean.class));
+    }
+
+    /** 옛 테이블의 행을 최대 chunk개 옮긴다 (한 트랜잭션에서 호출). 옮긴 행 수, 0이면 옛 테이블을 지운다 */
+    public int moveUnpartitioned(int chunk) {
+        int moved = jdbcTemplate.update(MOVE_SQL, chunk);
+        if (moved == 0) jdbcTemplate.execute("DROP TABLE search_history_unpartitioned");
+        return moved;
+    }
+
+    /**
+     * 월 파티션을 만든다 (한 트랜잭션에서 호출). DEFAULT에 그 달 행이 있으면 바로 PARTITION OF로 만들 수 없으므로
+     * 따로 만든 테이블로 옮긴 뒤 붙인다.
+     */
+    public void createPartition(YearMonth month) {
+        String name = partitionName(month);
+        if (relationExists(name)) return;
+        // DDL은 바인드 변수를 못 쓴다 (값은 YearMonth에서 만든 것만)
+        String range = " FOR VALUES FROM ('" + bound(month) + "') TO ('" + bound(month.plusMonths(1)) + "')";
+        if (!relationExists(DEFAULT)) {
+            jdbcTemplate.execute("CREATE TABLE " + name + " PARTITION OF search_history" + range);
+            return;
+        }
+        // 옮기는 동안 그 달 행이 DEFAULT에 새로 들어오지 않도록 (DEFAULT INSERT만 잠깐 막힌다)
+        jdbcTemplate.execute("LOCK TABLE " + DEFAULT + " IN EXCLUSIVE MODE");
+        jdbcTemplate.execute("CREATE TABLE " + name + " (LIKE search_history INCLUDING DEFAULTS INCLUDING CONSTRAINTS)");
+        Timestamp from = Timestamp.from(month.atDay(1).atStartOfDay().toInstant(ZoneOffset.UTC));
+        Timestamp to = Timestamp.from(month.plusMonths(1).atDay(1).atStartOfDay().toInstant(ZoneOffset.UTC));
+        jdbcTemplate.update(MOVE_DEFAULT_SQL.formatted(name), from, to);
+        jdbcTemplate.execute("ALTER TABLE search_history ATTACH PARTITION " + name + range);
+    }
+
+    /** DEFAULT에 행이 있는 달 (UTC) */
+    public List<YearMonth> defaultMonths() {
+        if (!relationExists(DEFAULT)) return List.of();
+        return jdbcTemplate.queryForList(
+                        "SELECT DISTINCT to_char(created_at AT TIME ZONE 'UTC', 'YYYY-MM') FROM " + DEFAULT + " ORDER BY 1",
+                        String.class)
+                .stream().map(YearMonth::parse).toList();
+    }
+
+    /** DEFAULT에서 before 달 이전 행을 search_keyword_monthly에 더하고 지운다 (한 트랜잭션에서 호출). 요약 행 수 */
+    public int rollupAndDeleteDefault(YearMonth before) {
+        if (!relationExists(DEFAULT)) return 0;
+        return jdbcTemplate.update(ROLLUP_DEFAULT_SQL,
+                Timestamp.from(before.atDay(1).atStartOfDay().toInstant(ZoneOffset.UTC)));
+    }
+
+    /** 이름이 search_history_yYYYYmMM인 월 파티션 */
+    public List<YearMonth> monthlyPartitions() {
+        List<YearMonth> months = new ArrayList<>();
+        for (String name : jdbcTemplate.queryForList(PARTITIONS_SQL, String.class)) {
+            Matcher m = PARTITION_NAME.matcher(name);
+            if (m.matches()) months.add(YearMonth.of(Integer.parseInt(m.group(1)), Integer.parseInt(m.group(2))));
+        }
+        months.sort(null);
+        return months;
+    }
+
+    /** 월 파티션을 search_keyword_monthly로 요약한 뒤 지운다 (한 트랜잭션에서 호출). 요약 행 수 */
+    public int rollupAndDrop(YearMonth month) {
+        int rows = jdbcTemplate.update(ROLLUP_SQL.formatted(partitionName(month)), month.atDay(1));
+        jdbcTemplate.execute("DROP TABLE " + partitionName(month));
+        return rows;
+    }
+
+    private boolean relationExists(String name) {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject("SELECT to_regclass(?) IS NOT NULL", Boolean.class, name));
+    }
+
+    static String partitionName(YearMonth month) {
+        return "search_history_y%04dm%02d".formatted(month.getYear(), month.getMonthValue());
+    }
+
+    private static String bound(YearMonth month) {
+        return month.atDay(1).atStartOfDay().atOffset(ZoneOffset.UTC).toString();
+    }
+}
@@ -3,12 +3,5 @@ package org.crumb.be.recommend.repository;
 import org.crumb.be.recommend.entity.SearchHistory;
 import org.springframework.data.jpa.repository.JpaRepository;
 
-import java.time.Instant;
-import java.util.List;
-
 public interface SearchHistoryRepository extends JpaRepository<SearchHistory, Long> {
-
-    List<SearchHistory> findTop50ByUserIdOrderByCreatedAtDesc(Long userId);
-
-    long countByUserIdAndCreatedAtAfter(Long userId, Instant after);
 }
\ No newline at end of file
@@ -0,0 +1,11 @@
+package org.crumb.be.recommend.repository;
+
+import org.crumb.be.recommend.entity.UserKeyword;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.List;
+
+public interface UserKeywordRepository extends JpaRepository<UserKeyword, Long> {
+
+    List<UserKeyword> findAllByUserId(Long userId);
+}
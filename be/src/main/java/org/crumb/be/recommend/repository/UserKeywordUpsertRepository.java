@@ -0,0 +1,85 @@
+package org.crumb.be.recommend.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.crumb.be.recommend.dto.KeywordEvent;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.util.List;
+
+/**
+ * user_keywords 배치 갱신 (JDBC 배치 + INSERT ... ON CONFLICT).
+ * 감쇠는 DB에서 계산한다: 두 시점 중 늦은 쪽 기준으로 기존 weight와 새 검색 1회를 각각 감쇠해 더한다.
+ * lambda = ln2 / 반감기(초)
+ */
+@Repository
+@RequiredArgsConstructor
+public class UserKeywordUpsertRepository {
+
+    private static final String INCREMENT_SQL = """
+            INSERT INTO user_keywords (user_id, keyword, weight, updated_at)
+            VALUES (?, ?, 1, ?)
+            ON CONFLICT (user_id, keyword) DO UPDATE SET
+                weight = user_keywords.weight
+                           * exp(-? * GREATEST(0, extract(epoch from (EXCLUDED.updated_at - user_keywords.updated_at))))
+                       + exp(-? * GREATEST(0, extract(epoch from (user_keywords.updated_at - EXCLUDED.updated_at)))),
+                updated_at = GREATEST(user_keywords.updated_at, EXCLUDED.updated_at)
+            """;
+
+    // 지금 시점 감쇠 weight 순위 = ln(weight) + lambda * updated_at(초) 순위
+    private static final String PRUNE_USER_SQL = """
+            DELETE FROM user_keywords WHERE id IN (
+                SELECT id FROM user_keywords WHERE user_id = ?
+                ORDER BY ln(weight) + ? * extract(epoch from updated_at) DESC
+                OFFSET ?)
+            """;
+
+    private static final String PRUNE_ALL_SQL = """
+            DELETE FROM user_keywords WHERE id IN (
+                SELECT id FROM (
+                    SELECT id, row_number() OVER (
+                        PARTITION BY user_id ORDER BY ln(weight) + ? * extract(epoch from updated_at) DESC) AS rn
+                    FROM user_keywords) ranked
+                WHERE rn > ?)
+            """;
+
+    // 프로필 도입 전 검색 이력으로 한 번 채운다
+    private static final String BACKFILL_SQL = """
+            INSERT INTO user_keywords (user_id, keyword, weight, updated_at)
+            SELECT user_id, btrim(query), sum(exp(-? * GREATEST(0, extract(epoch from (now() - created_at))))), now()
+            FROM search_history
+            WHERE btrim(query) <> ''
+            GROUP BY user_id, btrim(query)
+            ON CONFLICT (user_id, keyword) DO NOTHING
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public void incrementAll(List<KeywordEvent> events, double lambda, int batchSize) {
+        jdbcTemplate.batchUpdate(INCREMENT_SQL, events, batchSize, (ps, e) -> {
+            ps.setLong(1, e.userId());
+            ps.setString(2, e.keyword());
+            ps.setTimestamp(3, Timestamp.from(e.at()));
+            ps.setDouble(4, lambda);
+            ps.setDouble(5, lambda);
+        });
+    }
+
+    /** 사용자마다 감쇠 weight 상위 maxKeywords 행만 남긴다 */
+    public void prune(List<Long> userIds, double lambda, int maxKeywords, int batchSize) {
+        jdbcTemplate.batchUpdate(PRUNE_USER_SQL, userIds, batchSize, (ps, userId) -> {
+            ps.setLong(1, userId);
+            ps.setDouble(2, lambda);
+            ps.setInt(3, maxKeywords);
+        });
+    }
+
+    public int pruneAll(double lambda, int maxKeywords) {
+        return jdbcTemplate.update(PRUNE_ALL_SQL, lambda, maxKeywords);
+    }
+
+    public int backfillFromHistory(double lambda) {
+        return jdbcTemplate.update(BACKFILL_SQL, lambda);
+    }
+}
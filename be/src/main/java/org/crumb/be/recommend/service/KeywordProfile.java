@@ -0,0 +1,94 @@
+package org.crumb.be.recommend.service;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 한 사용자의 시간 감쇠 검색어 점수 (메모리 프로필).
+ * 점수는 기준 시각(ref)으로 환산한 forward-decay 값이라 모든 검색어가 같은 비율로 감쇠하고 순서가 바뀌지 않는다.
+ * 그래서 배열을 점수 내림차순으로 유지할 수 있고 (갱신된 항목만 앞으로 올림), 상위 N 조회는 앞에서 N개 복사다.
+ */
+public final class KeywordProfile {
+
+    /** ref 이후 경과가 이 값(λ·Δt)을 넘으면 ref를 옮겨 exp 오버플로를 막는다 */
+    private static final double REBASE_EXPONENT = 50;
+
+    private final double lambdaPerMilli;
+    private final String[] keywords;
+    private final double[] scores; // 내림차순, ref 시점 기준
+    private int size;
+    private long ref;
+
+    public KeywordProfile(double lambdaPerMilli, int maxKeywords, long nowMillis) {
+        this.lambdaPerMilli = lambdaPerMilli;
+        this.keywords = new String[maxKeywords];
+        this.scores = new double[maxKeywords];
+        this.ref = nowMillis;
+    }
+
+    /** 검색 1회 */
+    public synchronized void record(String keyword, long atMillis) {
+        add(keyword, 1, atMillis);
+    }
+
+    /**
+     * atMillis 시점 weight만큼 더한다. 새 검색어는 가득 차 있어도 가장 약한 검색어를 밀어내고 들어온다
+     * (최근 검색이 프로필에 바로 보이도록). 저장된 행을 적재할 때는 weight 내림차순으로 넣는다.
+     */
+    public synchronized void add(String keyword, double weight, long atMillis) {
+        if (keywords.length == 0) return;
+        if (lambdaPerMilli * (atMillis - ref) > REBASE_EXPONENT) rebase(atMillis);
+        double v = weight * Math.exp(lambdaPerMilli * (atMillis - ref));
+
+        int i = indexOf(keyword);
+        if (i >= 0) {
+            scores[i] += v;
+        } else {
+            i = size < keywords.length ? size++ : size - 1;
+            keywords[i] = keyword;
+            scores[i] = v;
+        }
+        // 점수는 늘기만 하므로 앞쪽으로만 이동
+        while (i > 0 && scores[i] > scores[i - 1]) {
+            swap(i, i - 1);
+            i--;
+        }
+    }
+
+    /** 점수 상위 n개 검색어 (정렬 없음, O(n)) */
+    public synchronized List<String> top(int n) {
+        return List.of(Arrays.copyOf(keywords, Math.min(n, size)));
+    }
+
+    /** nowMillis 시점 감쇠 weight, 없으면 0 */
+    public synchronized double weight(String keyword, long nowMillis) {
+        int i = indexOf(keyword);
+        return i < 0 ? 0 : scores[i] * Math.exp(-lambdaPerMilli * (nowMillis - ref));
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    private int indexOf(String keyword) {
+        for (int i = 0; i < size; i++) {
+            if (keywords[i].equals(keyword)) return i;
+        }
+        return -1;
+    }
+
+    private void rebase(long nowMillis) {
+        double f = Math.exp(-lambdaPerMilli * (nowMillis - ref));
+        for (int i = 0; i < size; i++) scores[i] *= f;
+        ref = nowMillis;
+    }
+
+    private void swap(int a, int b) {
+        String k = keywords[a];
+        keywords[a] = keywords[b];
+        keywords[b] = k;
+        double s = scores[a];
+        scores[a] = scores[b];
+        scores[b] = s;
+    }
+}
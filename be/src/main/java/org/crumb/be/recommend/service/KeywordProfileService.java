@@ -0,0 +1,154 @@
+package org.crumb.be.recommend.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.crumb.be.common.batch.WriteBehindBuffer;
+import org.crumb.be.recommend.dto.KeywordEvent;
+import org.crumb.be.recommend.entity.UserKeyword;
+import org.crumb.be.recommend.repository.UserKeywordRepository;
+import org.crumb.be.recommend.repository.UserKeywordUpsertRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 사용자별 검색어 프로필 (시간 감쇠 검색 횟수).
+ * 검색할 때마다 메모리 프로필(있으면)을 갱신하고 user_keywords 쓰기 지연 버퍼에 넣는다.
+ * 추천은 메모리 프로필의 상위 N만 읽으므로 검색 이력을 다시 훑지 않는다.
+ */
+@Slf4j
+@Service
+public class KeywordProfileService {
+
+    /** user_keywords.keyword 컬럼 길이 (넘으면 배치 upsert 전체가 실패한다) */
+    private static final int MAX_KEYWORD_LENGTH = 200;
+
+    private final UserKeywordRepository userKeywordRepository;
+    private final UserKeywordUpsertRepository upsertRepository;
+    private final Cache<Long, KeywordProfile> profiles;
+    private final WriteBehindBuffer<KeywordEvent> buffer;
+    private final double lambdaPerSecond;
+    private final int maxKeywords;
+    private final int batchSize;
+    private final Counter written;
+    private final Counter dropped;
+
+    public KeywordProfileService(
+            UserKeywordRepository userKeywordRepository,
+            UserKeywordUpsertRepository upsertRepository,
+            MeterRegistry meterRegistry,
+            @Value("${recommend.profile.half-life:14d}") Duration halfLife,
+            @Value("${recommend.profile.max-keywords:20}") int maxKeywords,
+            @Value("${recommend.profile.max-users:10000}") long maxUsers,
+            @Value("${recommend.profile.ttl:30m}") Duration ttl,
+            @Value("${recommend.profile.capacity:20000}") int capacity,
+            @Value("${recommend.profile.batch-size:500}") int batchSize
+    ) {
+        this.userKeywordRepository = userKeywordRepository;
+        this.upsertRepository = upsertRepository;
+        this.lambdaPerSecond = Math.log(2) / halfLife.toSeconds();
+        this.maxKeywords = maxKeywords;
+        this.batchSize = batchSize;
+        this.buffer = new WriteBehindBuffer<>(capacity);
+        // ttl마다 DB 값으로 다시 읽는다 (적재와 flush 사이에 빠진 검색이 있어도 이때 맞춰짐)
+        this.profiles = Caffeine.newBuilder()
+                .maximumSize(maxUsers)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, profiles, "keywordProfile");
+        Gauge.builder("recommend.profile.pending", buffer, WriteBehindBuffer::size).register(meterRegistry);
+        this.written = Counter.builder("recommend.profile.written").register(meterRegistry);
+        this.dropped = Counter.builder("recommend.profile.dropped")
+                .description("버퍼가 가득 차서 버린 검색").register(meterRegistry);
+    }
+
+    /** 검색 1회 반영 (요청 경로: DB 접근 없음) */
+    public void record(Long userId, String query) {
+        if (userId == null || query == null || query.isBlank()) return;
+        String trimmed = query.trim();
+        String keyword = trimmed.length() > MAX_KEYWORD_LENGTH ? trimmed.substring(0, MAX_KEYWORD_LENGTH) : trimmed;
+        Instant now = Instant.now();
+        // 적재 중이면 적재가 끝난 프로필에 반영된다
+        profiles.asMap().computeIfPresent(userId, (id, p) -> {
+            p.record(keyword, now.toEpochMilli());
+            return p;
+        });
+        if (!buffer.offer(new KeywordEvent(userId, keyword, now))) dropped.increment();
+    }
+
+    /** 메모리에 프로필이 있으면 상위 n개, 없으면 null */
+    public List<String> cachedTopKeywords(Long userId, int n) {
+        KeywordProfile p = profiles.getIfPresent(userId);
+        return p == null ? null : p.top(n);
+    }
+
+    /** 상위 n개 검색어. 메모리에 없으면 user_keywords에서 읽는다 (블로킹) */
+    public List<String> topKeywords(Long userId, int n) {
+        return profiles.get(userId, this::load).top(n);
+    }
+
+    private KeywordProfile load(Long userId) {
+        long now = System.currentTimeMillis();
+        double lambdaPerMilli = lambdaPerSecond / 1000;
+        KeywordProfile profile = new KeywordProfile(lambdaPerMilli, maxKeywords, now);
+        userKeywordRepository.findAllByUserId(userId).stream()
+                .sorted(Comparator.comparingDouble((UserKeyword k) ->
+                        k.getWeight() * Math.exp(-lambdaPerMilli * (now - k.getUpdatedAt().toEpochMilli()))).reversed())
+                .limit(maxKeywords)
+                .forEach(k -> profile.add(k.getKeyword(), k.getWeight(), k.getUpdatedAt().toEpochMilli()));
+        return profile;
+    }
+
+    @Scheduled(fixedDelayString = "${recommend.profile.flush-interval:2s}")
+    public void flush() {
+        for (int remaining = buffer.size(); remaining > 0; remaining -= batchSize) {
+            List<KeywordEvent> batch = buffer.drain(batchSize);
+            if (batch.isEmpty()) return;
+
+            Set<Long> users = new LinkedHashSet<>();
+            for (KeywordEvent e : batch) users.add(e.userId());
+            try {
+                upsertRepository.incrementAll(batch, lambdaPerSecond, batchSize);
+                upsertRepository.prune(List.copyOf(users), lambdaPerSecond, maxKeywords, batchSize);
+                written.increment(batch.size());
+            } catch (Exception e) {
+                // 프로필 반영 실패는 검색에 영향을 주지 않는다 (이력은 search_history에 남아 있음)
+                log.warn("[profile] flush failed size={}: {}", batch.size(), e.toString());
+            }
+        }
+    }
+
+    /** 비어 있는 user_keywords를 기존 검색 이력으로 한 번 채운다 */
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        try {
+            if (userKeywordRepository.count() > 0) return;
+            int rows = upsertRepository.backfillFromHistory(lambdaPerSecond);
+            int pruned = upsertRepository.pruneAll(lambdaPerSecond, maxKeywords);
+            log.info("[profile] backfilled {} keywords from search_history ({} pruned)", rows, pruned);
+        } catch (Exception e) {
+            log.warn("[profile] backfill failed: {}", e.toString());
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+}
@@ -0,0 +1,170 @@
+package org.crumb.be.recommend.service;
+
+import lombok.RequiredArgsConstructor;
+import org.crumb.be.bakery.catalog.BakeryCatalog;
+import org.crumb.be.bakery.catalog.CatalogBakery;
+import org.crumb.be.recommend.dto.RecommendedBakery;
+import org.crumb.be.search.util.GeoUtils;
+import org.crumb.be.search.util.SpatialGridIndex;
+import org.crumb.be.search.util.TfidfModel;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * FastAPI /recommend와 같은 점수 계약을 JVM 안에서 계산한다.
+ * 반경 내 빵집(공간 인덱스로 1차 필터 후 haversine) → 키워드 TF-IDF 코사인 유사도 내림차순, 같으면 가까운 순, 같으면 카탈로그 순.
+ * 키워드가 없으면 점수 0, 가까운 순. 상위 limit개는 크기 limit 힙으로 고른다.
+ */
+@Component
+@RequiredArgsConstructor
+public class LocalRecommendEngine {
+
+    /** 공간 인덱스는 근사 거리라서 반경 경계의 후보를 놓치지 않도록 여유를 두고 뽑는다 */
+    private static final double PREFILTER_SLACK_METERS = 1;
+
+    private final BakeryCatalog catalog;
+
+    public List<RecommendedBakery> recommend(double lat, double lng, List<String> keywords, Set<Long> exclude,
+                                             int radiusMeters, int limit) {
+        var snapshot = catalog.snapshot();
+        return rank(snapshot, query(snapshot, keywords), lat, lng, exclude, radiusMeters, limit, null);
+    }
+
+    /**
+     * 여러 기준점을 한 번에. 질의 벡터는 한 번만 만들고, 기준점끼리 겹치는 빵집의 유사도도 한 번만 계산한다.
+     * @return 기준점 순서대로 recommend와 같은 결과
+     */
+    public List<List<RecommendedBakery>> recommendAll(double[] lats, double[] lngs, List<String> keywords,
+                                                      Set<Long> exclude, int radiusMeters, int limit) {
+        var snapshot = catalog.snapshot();
+        var q = query(snapshot, keywords);
+        double[] memo = null;
+        if (q != null) {
+            memo = new double[snapshot.bakeries().size()];
+            Arrays.fill(memo, Double.NaN);
+        }
+        List<List<RecommendedBakery>> out = new ArrayList<>(lats.length);
+        for (int a = 0; a < lats.length; a++) {
+            out.add(rank(snapshot, q, lats[a], lngs[a], exclude, radiusMeters, limit, memo));
+        }
+        return out;
+    }
+
+    /** 키워드 질의 벡터, 키워드가 없거나 사전에 없는 gram뿐이면 null (점수 0) */
+    private static TfidfModel.Query query(BakeryCatalog.Snapshot snapshot, List<String> keywords) {
+        String text = queryText(keywords);
+        if (text.isEmpty()) return null;
+        TfidfModel.Query q = snapshot.tfidf().query(text);
+        return q.isEmpty() ? null : q;
+    }
+
+    /** memo[doc]: 이미 계산한 유사도 (NaN = 아직), null이면 메모 없이 */
+    private static List<RecommendedBakery> rank(BakeryCatalog.Snapshot snapshot, TfidfModel.Query q,
+                                                double lat, double lng, Set<Long> exclude,
+                                                int radiusMeters, int limit, double[] memo) {
+        var bakeries = snapshot.bakeries();
+        var hits = snapshot.index().withinRadius(lat, lng, radiusMeters + PREFILTER_SLACK_METERS, new SpatialGridIndex.Hits());
+
+        var origin = GeoUtils.origin(lat, lng);
+        int n = 0;
+        int[] docs = new int[hits.size()];
+        double[] distance = new double[hits.size()];
+        for (int i = 0; i < hits.size(); i++) {
+            int doc = hits.id(i);
+            var b = bakeries.get(doc);
+            if (exclude != null && exclude.contains(b.id())) continue;
+            double d = origin.exactMeters(b.lat(), b.lng());
+            if (d > radiusMeters) continue;
+            docs[n] = doc;
+            distance[n] = d;
+            n++;
+        }
+
+        double[] score = new double[n];
+        if (q != null) {
+            for (int i = 0; i < n; i++) {
+                int doc = docs[i];
+                if (memo == null) {
+                    score[i] = snapshot.tfidf().similarity(q, doc);
+                } else {
+                    if (Double.isNaN(memo[doc])) memo[doc] = snapshot.tfidf().similarity(q, doc);
+                    score[i] = memo[doc];
+                }
+            }
+        }
+
+        int[] top = topK(docs, score, distance, n, limit);
+        List<RecommendedBakery> out = new ArrayList<>(top.length);
+        for (int i : top) out.add(toDto(bakeries.get(docs[i]), distance[i], score[i]));
+        return out;
+    }
+
+    /** FastAPI와 같이: 쉼표로 나눈 키워드를 strip, 빈 값 제외 후 공백으로 연결 */
+    static String queryText(List<String> keywords) {
+        if (keywords == null || keywords.isEmpty()) return "";
+        List<String> ks = new ArrayList<>();
+        for (String k : String.join(",", keywords).split(",")) {
+            String s = k.strip();
+            if (!s.isEmpty()) ks.add(s);
+        }
+        return String.join(" ", ks);
+    }
+
+    /** (점수 내림차순, 거리 오름차순, 카탈로그 순) 상위 k개 위치. 최악 원소를 루트에 두는 크기 k 힙 */
+    private static int[] topK(int[] docs, double[] score, double[] distance, int n, int k) {
+        int m = Math.min(k, n);
+        if (m <= 0) return new int[0];
+        int[] heap = new int[m];
+        int size = 0;
+        for (int i = 0; i < n; i++) {
+            if (size < m) {
+                heap[size++] = i;
+                siftUp(heap, size - 1, docs, score, distance);
+            } else if (better(i, heap[0], docs, score, distance)) {
+                heap[0] = i;
+                siftDown(heap, size, docs, score, distance);
+            }
+        }
+        // 힙 정렬: 가장 나쁜 것부터 뒤로
+        for (int end = size - 1; end > 0; end--) {
+            int t = heap[0]; heap[0] = heap[end]; heap[end] = t;
+            siftDown(heap, end, docs, score, distance);
+        }
+        return heap;
+    }
+
+    private static boolean better(int a, int b, int[] docs, double[] score, double[] distance) {
+        if (score[a] != score[b]) return score[a] > score[b];
+        if (distance[a] != distance[b]) return distance[a] < distance[b];
+        return docs[a] < docs[b];
+    }
+
+    private static void siftUp(int[] heap, int i, int[] docs, double[] score, double[] distance) {
+        while (i > 0) {
+            int parent = (i - 1) / 2;
+            if (!better(heap[parent], heap[i], docs, score, distance)) return;
+            int t = heap[parent]; heap[parent] = heap[i]; heap[i] = t;
+            i = parent;
+        }
+    }
+
+    private static void siftDown(int[] heap, int size, int[] docs, double[] score, double[] distance) {
+        int i = 0;
+        while (true) {
+            int l = 2 * i + 1, r = l + 1, worst = i;
+            if (l < size && better(heap[worst], heap[l], docs, score, distance)) worst = l;
+            if (r < size && better(heap[worst], heap[r], docs, score, distance)) worst = r;
+            if (worst == i) return;
+            int t = heap[i]; heap[i] = heap[worst]; heap[worst] = t;
+            i = worst;
+        }
+    }
+
+    private static RecommendedBakery toDto(CatalogBakery b, double distance, double score) {
+        return new RecommendedBakery(b.id(), b.name(), b.address(), b.lat(), b.lng(), b.intro(), distance, score);
+    }
+}
@@ -1,24 +1,22 @@
 package org.crumb.be.recommend.service;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.crumb.be.client.FastapiRecommendClient;
+import org.crumb.be.client.resilience.CallRejectedException;
 import org.crumb.be.common.exception.BusinessException;
 import org.crumb.be.common.exception.ErrorCode;
+import org.crumb.be.recommend.cache.RecommendResultCache;
 import org.crumb.be.recommend.dto.RecommendBakeryResponse;
+import org.crumb.be.recommend.dto.RecommendBatchRequest;
+import org.crumb.be.recommend.dto.RecommendBatchResponse;
 import org.crumb.be.recommend.dto.RecommendedBakery;
-import org.crumb.be.recommend.entity.SearchHistory;
-import org.crumb.be.recommend.repository.SearchHistoryRepository;
-import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.http.HttpStatusCode;
-import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
-import org.springframework.web.reactive.function.client.WebClient;
-import org.springframework.web.reactive.function.client.WebClientResponseException;
 import reactor.core.publisher.Mono;
-import reactor.util.retry.Retry;
+import reactor.core.scheduler.Scheduler;
 
-import java.time.Duration;
 import java.util.*;
 
 @Slf4j
@@ -26,77 +24,106 @@ import java.util.*;
 @RequiredArgsConstructor
 public class RecommendService {
 
-    private final SearchHistoryRepository searchHistoryRepository;
-
-    @Qualifier("fastapiClient")
-    private final WebClient fastapiClient;
+    private final KeywordProfileService keywordProfileService;
+    private final FastapiRecommendClient fastapiRecommendClient;
+    private final LocalRecommendEngine localRecommendEngine;
+    private final RecommendResultCache recommendResultCache;
+    /** 블로킹 JPA 조회 전용 (SchedulerConfig) */
+    private final Scheduler jdbcScheduler;
+    private final MeterRegistry meterRegistry;
 
     @Value("${recommend.limit:10}") private int limit;
+    @Value("${recommend.radius:2000}") private int radius;
+    /** fastapi(기본): 추천 서버 호출, local: JVM 안에서 계산 (FastAPI와 같은 점수, 선택해서 켬) */
+    @Value("${recommend.engine:fastapi}") private String engine;
 
-    /** 위치(lat/lng) + 최근 검색어 기반 추천 */
-    public List<RecommendBakeryResponse> recommend(Long userId, double lat, double lng) {
-        // 1) 최근 검색 이력 가져와서 키워드 뽑기 (빈도 상위 3~5개 권장)
-        var histories = searchHistoryRepository.findTop50ByUserIdOrderByCreatedAtDesc(userId);
-        var keywords = extractKeywords(histories, 5);
-//        if (keywords.isEmpty()) {
-//            throw new BusinessException(ErrorCode.VALIDATION_ERROR, "검색 기록이 없어 추천할 수 없습니다.");
-//        }
-
-        // 2) FastAPI 호출 (exclude는 현재 미사용)
-        try {
-            var uriSpec = fastapiClient.get()
-                    .uri(uriBuilder -> {
-                        var b = uriBuilder.path("/recommend")
-                                .queryParam("lat", lat)
-                                .queryParam("lng", lng);
-                        if (!keywords.isEmpty()) {
-                            // FastAPI는 콤마 기준 split → 콤마로 조인
-                            b.queryParam("keywords", String.join(",", keywords));
-                        }
-                        return b.build();
-                    })
-                    .accept(MediaType.APPLICATION_JSON);
+    /**
+     * 위치(lat/lng) + 최근 검색어 기반 추천.
+     * 어느 단계도 호출 스레드를 막지 않는다 (DB 조회는 jdbcScheduler, FastAPI는 논블로킹 + FastapiRecommendClient의 보호 장치).
+     * FastAPI가 거절/실패하면 빈 목록 대신 주변 빵집 거리순 추천을 돌려준다.
+     */
+    public Mono<List<RecommendBakeryResponse>> recommend(Long userId, double lat, double lng) {
+        // 1) 검색어 프로필 상위 5개
+        return topKeywords(userId)
+                .flatMap(keywords -> {
+//                    if (keywords.isEmpty()) {
+//                        throw new BusinessException(ErrorCode.VALIDATION_ERROR, "검색 기록이 없어 추천할 수 없습니다.");
+//                    }
 
-            var items = uriSpec.retrieve()
-                    .onStatus(HttpStatusCode::isError, resp ->
-                            resp.bodyToMono(String.class).flatMap(body -> {
-                                log.warn("[recommend] fastapi error status={} body={}", resp.statusCode(), body);
-                                return Mono.error(new IllegalStateException("fastapi error: " + resp.statusCode()));
+                    // 2) 추천 계산 (exclude는 현재 미사용). 로컬 계산은 수십 µs라 그대로 이어서 실행
+                    if ("local".equalsIgnoreCase(engine)) {
+                        return Mono.just(localRecommendEngine.recommend(lat, lng, keywords, Set.of(), radius, limit).stream()
+                                .map(RecommendBakeryResponse::from)
+                                .toList());
+                    }
+                    // 같은 (검색어, 셀) 결과는 캐시에서 요청 좌표 기준으로 다시 정렬해 쓴다
+                    return recommendResultCache.get(keywords, lat, lng, radius, limit,
+                                    (cLat, cLng, fetchRadius, fetchLimit) ->
+                                            fastapiRecommendClient.recommend(cLat, cLng, keywords, fetchRadius, fetchLimit))
+                            .map(items -> {
+                                meterRegistry.counter("recommend.result", "source", "fastapi").increment();
+                                return items.stream()
+                                        .limit(limit)
+                                        .map(RecommendBakeryResponse::from)
+                                        .toList();
                             })
-                    )
-                    .bodyToFlux(RecommendedBakery.class)
-                    .timeout(Duration.ofSeconds(10))
-                    .retryWhen(Retry.backoff(2, Duration.ofMillis(300))
-                            .filter(ex -> !(ex instanceof WebClientResponseException)) // 4xx/5xx는 재시도 X
-                    )
-                    .collectList()
-                    .block();
+                            .onErrorResume(e -> {
+                                countFallback(e, 1, keywords);
+                                return Mono.just(distanceOnly(new double[]{lat}, new double[]{lng}).get(0).stream()
+                                        .map(RecommendBakeryResponse::from)
+                                        .toList());
+                            });
+                });
+    }
 
-            if (items == null) return List.of();
-            return items.stream()
-                    .limit(limit)
-                    .map(RecommendBakeryResponse::from)
-                    .toList();
-        } catch (Exception e) {
-            log.error("[recommend] fastapi call failed (lat={}, lng={}, keywords={})", lat, lng, keywords, e);
-            return List.of();
+    /**
+     * 여러 기준점(현재 위치, 저장한 장소, 코스 끝점 등) 추천을 한 번에.
+     * 사용자/검색어 프로필은 한 번만 읽고, FastAPI에는 캐시에 없는 셀만 묶어 한 번 보낸다.
+     */
+    public Mono<RecommendBatchResponse> recommendBatch(Long userId, List<RecommendBatchRequest.Anchor> anchors) {
+        double[] lats = new double[anchors.size()], lngs = new double[anchors.size()];
+        for (int i = 0; i < anchors.size(); i++) {
+            lats[i] = anchors.get(i).lat();
+            lngs[i] = anchors.get(i).lng();
         }
+        return topKeywords(userId)
+                .flatMap(keywords -> {
+                    if ("local".equalsIgnoreCase(engine)) {
+                        return Mono.just(localRecommendEngine.recommendAll(lats, lngs, keywords, Set.of(), radius, limit));
+                    }
+                    return recommendResultCache.getAll(keywords, lats, lngs, radius, limit,
+                                    (centers, fetchRadius, fetchLimit) ->
+                                            fastapiRecommendClient.recommendBatch(centers, keywords, fetchRadius, fetchLimit))
+                            .doOnNext(results -> meterRegistry.counter("recommend.result", "source", "fastapi")
+                                    .increment(anchors.size()))
+                            .onErrorResume(e -> {
+                                countFallback(e, anchors.size(), keywords);
+                                return Mono.just(distanceOnly(lats, lngs));
+                            });
+                })
+                .map(results -> RecommendBatchResponse.of(anchors, results));
+    }
+
+    /** 메모리에 있으면 그대로, 없으면 jdbcScheduler에서 user_keywords 조회 */
+    private Mono<List<String>> topKeywords(Long userId) {
+        return Mono.justOrEmpty(keywordProfileService.cachedTopKeywords(userId, 5))
+                .switchIfEmpty(Mono.fromCallable(() -> keywordProfileService.topKeywords(userId, 5))
+                        .subscribeOn(jdbcScheduler));
+    }
+
+    /** 대체 결과: 키워드 없이 계산한 로컬 추천 = 반경 안 빵집 거리순 */
+    private List<List<RecommendedBakery>> distanceOnly(double[] lats, double[] lngs) {
+        return localRecommendEngine.recommendAll(lats, lngs, List.of(), Set.of(), radius, limit);
     }
 
-    /** 최근 검색어에서 공백/빈문자 제거, 등장 빈도순 상위 N만 사용 */
-    private List<String> extractKeywords(List<SearchHistory> histories, int topN) {
-        Map<String, Integer> freq = new HashMap<>();
-        for (SearchHistory h : histories) {
-            var q = h.getQuery();
-            if (q == null || q.isBlank()) continue;
-            // 필요 시 여기서 형태소 분해/토큰 분리도 가능. MVP는 원문 단위.
-            var key = q.trim();
-            freq.put(key, freq.getOrDefault(key, 0) + 1);
+    private void countFallback(Throwable e, int anchors, List<String> keywords) {
+        String reason = e instanceof CallRejectedException r ? r.reason() : "error";
+        if (e instanceof CallRejectedException) {
+            log.warn("[recommend] fastapi {} → distance fallback (anchors={})", reason, anchors);
+        } else {
+            log.error("[recommend] fastapi call failed (anchors={}, keywords={}) → distance fallback", anchors, keywords, e);
         }
-        return freq.entrySet().stream()
-                .sorted((a,b) -> Integer.compare(b.getValue(), a.getValue()))
-                .limit(topN)
-                .map(Map.Entry::getKey)
-                .toList();
+        meterRegistry.counter("recommend.result", "source", "fallback").increment(anchors);
+        meterRegistry.counter("recommend.fallback", "reason", reason).increment(anchors);
     }
 }
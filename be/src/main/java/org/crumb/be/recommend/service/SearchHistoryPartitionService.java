@@ -0,0 +1,156 @@
+package org.crumb.be.recommend.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.crumb.be.recommend.repository.SearchHistoryPartitionRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.scheduling.support.CronTrigger;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * search_history 월별 파티션 관리.
+ * - 기동 후 일반 테이블이면 파티션 테이블로 바꾼다 (Hibernate ddl-auto가 처음 만든 테이블).
+ *   이름만 바꿔 새 테이블로 곧바로 쓰게 하고, 기존 행은 전용 스레드가 move-chunk개씩 트랜잭션을 나눠 옮긴다
+ *   (기동 스레드를 잡지 않고, 테이블 전체 잠금은 이름 변경 동안만)
+ * - 이번 달부터 premake-months 뒤까지 파티션을 미리 만든다
+ * - DEFAULT 파티션에 쌓인 행은 보관 기간 안이면 그 달 파티션을 만들며 옮긴다
+ * - retention-months보다 오래된 파티션과 DEFAULT 행은 search_keyword_monthly로 요약한 뒤 지운다 (옮기는 중에는 하지 않음)
+ */
+@Slf4j
+@Service
+public class SearchHistoryPartitionService {
+
+    private final SearchHistoryPartitionRepository partitionRepository;
+    private final MeterRegistry meterRegistry;
+    private final TransactionTemplate transaction;
+    private final boolean enabled;
+    private final int premakeMonths;
+    private final int retentionMonths;
+    private final int moveChunk;
+    private final Counter moved;
+    // 공용 @Scheduled 스레드(인기 검색어/코스 반영 등)를 오래 잡지 않도록 전용 스레드 하나
+    private final ThreadPoolTaskScheduler maintenance;
+
+    public SearchHistoryPartitionService(
+            SearchHistoryPartitionRepository partitionRepository,
+            MeterRegistry meterRegistry,
+            PlatformTransactionManager transactionManager,
+            @Value("${search.history.partition.enabled:true}") boolean enabled,
+            @Value("${search.history.partition.premake-months:2}") int premakeMonths,
+            @Value("${search.history.partition.retention-months:6}") int retentionMonths,
+            @Value("${search.history.partition.move-chunk:10000}") int moveChunk,
+            @Value("${search.history.partition.cron:0 10 3 * * *}") String cron
+    ) {
+        this.partitionRepository = partitionRepository;
+        this.meterRegistry = meterRegistry;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.premakeMonths = premakeMonths;
+        this.retentionMonths = retentionMonths;
+        this.moveChunk = moveChunk;
+        this.moved = Counter.builder("search.history.partition.moved")
+                .description("파티션 테이블로 옮긴 기존 행").register(meterRegistry);
+        this.maintenance = new ThreadPoolTaskScheduler();
+        maintenance.setPoolSize(1);
+        maintenance.setThreadNamePrefix("search-history-partition-");
+        maintenance.setDaemon(true);
+        maintenance.initialize();
+        maintenance.schedule(this::maintainQuietly, new CronTrigger(cron, ZoneOffset.UTC));
+    }
+
+    /** 변환/행 이동이 오래 걸릴 수 있어 기동 스레드가 아닌 전용 스레드에서 (cron도 같은 스레드) */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onReady() {
+        maintenance.execute(this::maintainQuietly);
+    }
+
+    /** 파티션 관리 실패는 검색/추천에 영향을 주지 않는다 (다음 주기에 다시) */
+    void maintainQuietly() {
+        if (!enabled) return;
+        try {
+            // DDL과 advisory lock이 한 트랜잭션(한 커넥션) 안에 있어야 한다
+            if (!Boolean.TRUE.equals(transaction.execute(status -> swapOrPremake()))) return;
+            if (!moveUnpartitioned()) return;
+            transaction.executeWithoutResult(status -> dropExpired());
+        } catch (Exception e) {
+            log.warn("[search-history] partition maintenance failed: {}", e.toString());
+        }
+    }
+
+    /** 다른 인스턴스가 관리 중이거나 테이블이 없으면 false */
+    private boolean swapOrPremake() {
+        if (!partitionRepository.tableExists() || !partitionRepository.tryLock()) return false;
+        YearMonth now = YearMonth.now(ZoneOffset.UTC);
+
+        if (!partitionRepository.isPartitioned()) {
+            YearMonth from = partitionRepository.oldestMonth().orElse(now);
+            partitionRepository.swapToPartitioned(months(from, now.plusMonths(premakeMonths)));
+            log.info("[search-history] converted to monthly partitions from {}, moving existing rows", from);
+        } else {
+            for (YearMonth m : months(now, now.plusMonths(premakeMonths))) partitionRepository.createPartition(m);
+            // 파티션이 없던 달(시계 오차, 관리 중단 등)의 행이 DEFAULT에 있으면 보관 기간 안의 달은 파티션으로 옮긴다
+            YearMonth oldestKept = now.minusMonths(retentionMonths);
+            for (YearMonth m : partitionRepository.defaultMonths()) {
+                if (!m.isBefore(oldestKept) && !m.isAfter(now.plusMonths(premakeMonths))) {
+                    partitionRepository.createPartition(m);
+                }
+            }
+        }
+        return true;
+    }
+
+    /** 옛 테이블의 행을 chunk마다 한 트랜잭션으로 옮긴다. 다 옮겼으면 true (실패하면 다음 주기에 이어서) */
+    private boolean moveUnpartitioned() {
+        long total = 0;
+        for (;;) {
+            Integer n = transaction.execute(status -> {
+                if (!partitionRepository.tryLock() || !partitionRepository.hasUnpartitioned()) return -1;
+                return partitionRepository.moveUnpartitioned(moveChunk);
+            });
+            if (n == null || n < 0) break;
+            if (n == 0) {
+                log.info("[search-history] moved {} existing rows into partitions", total);
+                break;
+            }
+            total += n;
+            moved.increment(n);
+        }
+        return !partitionRepository.hasUnpartitioned();
+    }
+
+    private void dropExpired() {
+        if (!partitionRepository.tryLock() || partitionRepository.hasUnpartitioned()) return;
+        YearMonth oldestKept = YearMonth.now(ZoneOffset.UTC).minusMonths(retentionMonths);
+        for (YearMonth m : partitionRepository.monthlyPartitions()) {
+            if (!m.isBefore(oldestKept)) break;
+            int rows = partitionRepository.rollupAndDrop(m);
+            meterRegistry.counter("search.history.partition.dropped").increment();
+            log.info("[search-history] rolled up {} into {} keyword rows and dropped it", m, rows);
+        }
+        int rows = partitionRepository.rollupAndDeleteDefault(oldestKept);
+        if (rows > 0) log.info("[search-history] rolled up default partition rows before {} into {} keyword rows", oldestKept, rows);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        maintenance.shutdown();
+    }
+
+    private static List<YearMonth> months(YearMonth from, YearMonth to) {
+        List<YearMonth> months = new ArrayList<>();
+        for (YearMonth m = from; !m.isAfter(to); m = m.plusMonths(1)) months.add(m);
+        return months;
+    }
+}
@@ -0,0 +1,140 @@
+package org.crumb.be.recommend.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.crumb.be.common.batch.WriteBehindBuffer;
+import org.crumb.be.recommend.dto.SearchEvent;
+import org.crumb.be.recommend.repository.SearchHistoryInsertRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 검색 이력 쓰기 지연.
+ * 요청 경로(리액터 스레드 포함)는 버퍼에 넣기만 하고, 전용 스레드 하나가 flush-interval마다
+ * 또는 batch-size만큼 쌓이면 바로 꺼내 다중 행 INSERT 한다.
+ */
+@Slf4j
+@Service
+public class SearchHistoryWriter {
+
+    /** search_history.query 컬럼 길이 */
+    private static final int MAX_QUERY_LENGTH = 200;
+
+    private final SearchHistoryInsertRepository insertRepository;
+    private final WriteBehindBuffer<SearchEvent> buffer;
+    private final ScheduledExecutorService writer;
+    private final AtomicBoolean flushRequested = new AtomicBoolean();
+    private volatile boolean sequenceAligned;
+    private final boolean enabled;
+    private final int batchSize;
+    private final Duration shutdownTimeout;
+    private final Timer insertTimer;
+    private final Counter written;
+    private final Counter dropped;
+    private final Counter failed;
+
+    public SearchHistoryWriter(
+            SearchHistoryInsertRepository insertRepository,
+            MeterRegistry meterRegistry,
+            @Value("${search.history.enabled:true}") boolean enabled,
+            @Value("${search.history.flush-interval:1s}") Duration flushInterval,
+            @Value("${search.history.batch-size:500}") int batchSize,
+            @Value("${search.history.capacity:20000}") int capacity,
+            @Value("${search.history.overflow:drop-newest}") WriteBehindBuffer.Overflow overflow,
+            @Value("${search.history.shutdown-timeout:5s}") Duration shutdownTimeout
+    ) {
+        this.insertRepository = insertRepository;
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.shutdownTimeout = shutdownTimeout;
+        this.buffer = new WriteBehindBuffer<>(capacity, overflow);
+        this.writer = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "search-history-writer");
+            t.setDaemon(true);
+            return t;
+        });
+
+        Gauge.builder("search.history.pending", buffer, WriteBehindBuffer::size).register(meterRegistry);
+        this.insertTimer = Timer.builder("search.history.insert")
+                .description("다중 행 INSERT 한 번(배치)의 시간").register(meterRegistry);
+        this.written = Counter.builder("search.history.written").register(meterRegistry);
+        this.dropped = Counter.builder("search.history.dropped")
+                .description("버퍼가 가득 차서 버린 검색").register(meterRegistry);
+        this.failed = Counter.builder("search.history.failed")
+                .description("INSERT 실패로 잃은 검색").register(meterRegistry);
+
+        long intervalMs = flushInterval.toMillis();
+        writer.scheduleWithFixedDelay(this::flush, intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    /** 검색 1회 (요청 경로: DB 접근 없음) */
+    public void record(Long userId, String query, Double lat, Double lng) {
+        if (!enabled || userId == null || query == null) return;
+        String q = query.length() > MAX_QUERY_LENGTH ? query.substring(0, MAX_QUERY_LENGTH) : query;
+        if (!buffer.offer(new SearchEvent(userId, q, lat, lng, Instant.now()))) dropped.increment();
+
+        // batch-size만큼 쌓이면 주기를 기다리지 않고 한 번 깨운다
+        if (buffer.size() >= batchSize && flushRequested.compareAndSet(false, true)) {
+            try {
+                writer.execute(this::flush);
+            } catch (Exception e) {
+                flushRequested.set(false); // 종료 중
+            }
+        }
+    }
+
+    /** 버퍼 크기만큼만 (그 사이 들어온 건 다음 주기에) */
+    private void flush() {
+        flushRequested.set(false);
+        // 시퀀스를 못 맞췄으면 (스키마 생성 전 등) 쓰지 않고 다음 주기에 다시
+        if (!sequenceAligned && !alignSequence()) return;
+        for (int remaining = buffer.size(); remaining > 0; remaining -= batchSize) {
+            List<SearchEvent> batch = buffer.drain(batchSize);
+            if (batch.isEmpty()) return;
+            try {
+                insertTimer.record(() -> insertRepository.insertAll(batch));
+                written.increment(batch.size());
+            } catch (Exception e) {
+                // 이력 저장 실패는 검색 응답에 영향을 주지 않는다
+                failed.increment(batch.size());
+                log.warn("[search-history] insert failed size={}: {}", batch.size(), e.toString());
+            }
+        }
+    }
+
+    private boolean alignSequence() {
+        try {
+            insertRepository.alignSequence();
+            sequenceAligned = true;
+        } catch (Exception e) {
+            log.warn("[search-history] sequence align failed: {}", e.toString());
+        }
+        return sequenceAligned;
+    }
+
+    /** 예약된 flush를 멈추고 남은 버퍼를 모두 쓴다 */
+    @PreDestroy
+    public void flushOnShutdown() {
+        writer.shutdown();
+        try {
+            if (!writer.awaitTermination(shutdownTimeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                writer.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flush();
+    }
+}
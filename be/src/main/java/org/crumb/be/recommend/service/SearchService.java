@@ -1,60 +1,133 @@
 package org.crumb.be.recommend.service;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.crumb.be.bakery.catalog.CatalogKeywordSearch;
 import org.crumb.be.client.KakaoLocalClient;
 import org.crumb.be.recommend.dto.KakaoSearchResponse;
 import org.crumb.be.recommend.dto.SearchRequest;
-import org.crumb.be.recommend.entity.SearchHistory;
-import org.crumb.be.recommend.repository.SearchHistoryRepository;
+import org.crumb.be.search.util.SpatialDeduplicator;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 import reactor.core.publisher.Mono;
 
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
 
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class SearchService {
 
+    private static final int LIMIT = 15;
+    private static final double DEDUPE_METERS = 80;
+
     private final KakaoLocalClient kakaoLocalClient;
-    private final SearchHistoryRepository searchHistoryRepository;
+    private final CatalogKeywordSearch catalogKeywordSearch;
+    private final SearchHistoryWriter searchHistoryWriter;
+    private final KeywordProfileService keywordProfileService;
+    private final TrendingKeywordService trendingKeywordService;
+    private final MeterRegistry meterRegistry;
+
+    /** 카탈로그 결과가 이보다 적으면 카카오로 보충 */
+    @Value("${search.keyword.local.enabled:true}") private boolean localEnabled;
+    @Value("${search.keyword.local.min-hits:3}") private int minLocalHits;
 
-    @Transactional
     public Mono<List<BakerySearchResult>> searchAndLog(Long userId, SearchRequest req) {
-        // 1) Kakao 검색
-        Mono<KakaoSearchResponse> mono = kakaoLocalClient.keywordSearch(
-                req.query(), req.lat(), req.lng(),
-                req.radius()==null? 2000 : req.radius(), // 기본 2km
-                15
-        );
-
-        // 2) 결과 map + 3) 검색 이력 저장
-        return mono.map(resp -> {
-            var list = resp.documents() == null ? List.<BakerySearchResult>of() :
-                    resp.documents().stream().map(d ->
-                            new BakerySearchResult(
-                                    d.id(),
-                                    d.place_name(),
-                                    (d.road_address_name()!=null && !d.road_address_name().isBlank())
-                                            ? d.road_address_name() : d.address_name(),
-                                    safeDouble(d.y()), safeDouble(d.x()),
-                                    safeInt(d.distance())
-                            )
-                    ).toList();
-
-            // 비동기 저장 (실패해도 검색은 응답)
-            searchHistoryRepository.save(
-                    SearchHistory.builder()
-                            .userId(userId)
-                            .query(req.query())
-                            .lat(req.lat()).lng(req.lng())
-                            .build()
-            );
+        int radius = req.radius()==null? 2000 : req.radius(); // 기본 2km
+
+        // 1) 카탈로그 색인 검색, 부족하면 Kakao 검색 결과를 뒤에 붙임
+        var local = localEnabled ? searchLocal(req, radius) : List.<BakerySearchResult>of();
+        Mono<List<BakerySearchResult>> mono;
+        if (local.size() >= minLocalHits) {
+            meterRegistry.counter("search.keyword", "source", "local").increment();
+            mono = Mono.just(local);
+        } else {
+            meterRegistry.counter("search.keyword", "source", "kakao").increment();
+            mono = kakaoLocalClient.keywordSearch(req.query(), req.lat(), req.lng(), radius, LIMIT)
+                    .map(resp -> merge(local, fromKakao(resp)));
+            // 카카오 에러/한도 초과여도 카탈로그 결과가 있으면 그것만 응답
+            if (!local.isEmpty()) {
+                mono = mono.onErrorResume(e -> {
+                    meterRegistry.counter("search.keyword.fallback").increment();
+                    log.warn("[search] kakao failed, returning {} catalog hits: {}", local.size(), e.toString());
+                    return Mono.just(local);
+                });
+            }
+        }
+
+        // 2) 검색 이력 저장
+        return mono.map(list -> {
+            // 쓰기 지연 버퍼에 넣기만 함 (실패해도 검색은 응답)
+            searchHistoryWriter.record(userId, req.query(), req.lat(), req.lng());
+            // 추천용 검색어 프로필 갱신 (메모리 + 쓰기 지연)
+            keywordProfileService.record(userId, req.query());
+            // 실시간 인기 검색어 (메모리)
+            trendingKeywordService.record(req.query(), req.lat(), req.lng());
 
             return list;
         });
     }
 
+    private List<BakerySearchResult> searchLocal(SearchRequest req, int radius) {
+        return catalogKeywordSearch.search(req.query(), req.lat(), req.lng(), radius, LIMIT).stream()
+                .map(h -> new BakerySearchResult(
+                        null, // 카탈로그에는 카카오 id가 없다 (카카오 결과와 합칠 때 같은 가게면 채움)
+                        h.bakery().name(),
+                        h.bakery().address(),
+                        Double.isNaN(h.bakery().lat()) ? null : h.bakery().lat(),
+                        Double.isNaN(h.bakery().lng()) ? null : h.bakery().lng(),
+                        h.distanceMeters() == null ? null : (int) Math.round(h.distanceMeters()),
+                        SOURCE_CATALOG,
+                        h.bakery().id()
+                ))
+                .toList();
+    }
+
+    private static List<BakerySearchResult> fromKakao(KakaoSearchResponse resp) {
+        return resp.documents() == null ? List.of() :
+                resp.documents().stream().map(d ->
+                        new BakerySearchResult(
+                                d.id(),
+                                d.place_name(),
+                                (d.road_address_name()!=null && !d.road_address_name().isBlank())
+                                        ? d.road_address_name() : d.address_name(),
+                                safeDouble(d.y()), safeDouble(d.x()),
+                                safeInt(d.distance()),
+                                SOURCE_KAKAO,
+                                null
+                        )
+                ).toList();
+    }
+
+    /** 카탈로그 결과 먼저, 같은 가게(이름 + 80m)인 카카오 결과는 빼고 그 카카오 id를 카탈로그 결과에 채운다 */
+    private static List<BakerySearchResult> merge(List<BakerySearchResult> local, List<BakerySearchResult> kakao) {
+        if (local.isEmpty()) return kakao;
+        var dedupe = new SpatialDeduplicator<BakerySearchResult>(
+                BakerySearchResult::name,
+                r -> r.lat() == null ? Double.NaN : r.lat(),
+                r -> r.lng() == null ? Double.NaN : r.lng(),
+                DEDUPE_METERS);
+        dedupe.offerAll(local);
+        Map<BakerySearchResult, String> kakaoIds = new IdentityHashMap<>();
+        for (BakerySearchResult k : kakao) {
+            BakerySearchResult kept = dedupe.offerOrMatch(k);
+            if (kept != null && kept.placeId() == null && k.placeId() != null) kakaoIds.putIfAbsent(kept, k.placeId());
+        }
+        var merged = dedupe.result();
+        int n = Math.min(merged.size(), LIMIT);
+        List<BakerySearchResult> out = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            BakerySearchResult r = merged.get(i);
+            String placeId = kakaoIds.get(r);
+            out.add(placeId == null ? r : r.withPlaceId(placeId));
+        }
+        return out;
+    }
+
     private static Double safeDouble(String s) {
         try { return s==null? null : Double.parseDouble(s); } catch (Exception e){ return null; }
     }
@@ -62,8 +135,20 @@ public class SearchService {
         try { return s==null? null : Integer.parseInt(s); } catch (Exception e){ return null; }
     }
 
+    static final String SOURCE_CATALOG = "catalog";
+    static final String SOURCE_KAKAO = "kakao";
+
+    /**
+     * placeId: 카카오 장소 id (카카오에서 같은 가게를 찾지 못한 카탈로그 결과는 null).
+     * source: catalog | kakao, catalogId: 카탈로그 결과면 카탈로그 id
+     */
     public record BakerySearchResult(
             String placeId, String name, String address,
-            Double lat, Double lng, Integer distance
-    ) {}
+            Double lat, Double lng, Integer distance,
+            String source, Long catalogId
+    ) {
+        BakerySearchResult withPlaceId(String placeId) {
+            return new BakerySearchResult(placeId, name, address, lat, lng, distance, source, catalogId);
+        }
+    }
 }
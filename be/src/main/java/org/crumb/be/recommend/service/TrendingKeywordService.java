@@ -0,0 +1,192 @@
+package org.crumb.be.recommend.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.crumb.be.common.batch.WriteBehindBuffer;
+import org.crumb.be.common.snapshot.SharedAggregate;
+import org.crumb.be.common.snapshot.SnapshotCodec;
+import org.crumb.be.common.snapshot.SnapshotStore;
+import org.crumb.be.recommend.dto.TrendingKeywordResponse;
+import org.crumb.be.search.util.GeoHash;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * 실시간 인기 검색어 (전국 / geohash 지역별, 최근 window).
+ * 검색 경로는 락 없는 버퍼에 넣기만 하고, apply-interval마다 한 스레드가 TrendingKeywords에 반영한다.
+ * snapshot-interval마다 trending_snapshots 합계에 이 인스턴스의 몫을 더하고 그 합계로 응답한다(SharedAggregate).
+ * 기동 시에도 그 합계를 읽어 재시작해도 창이 비지 않게 한다.
+ */
+@Slf4j
+@Service
+public class TrendingKeywordService {
+
+    private static final String SNAPSHOT_NAME = "search-keywords";
+    private static final int MAX_KEYWORD_LENGTH = 50;
+    /** 한 번에 돌려줄 수 있는 최대 개수 */
+    public static final int MAX_LIMIT = 50;
+    private static final int APPLY_BATCH = 5000;
+    private static final Pattern SPACES = Pattern.compile("\\s+");
+
+    private record Event(String region, String keyword, long atMillis) {}
+
+    private final SharedAggregate<TrendingKeywords> trending;
+    private final WriteBehindBuffer<Event> buffer;
+    private final Cache<String, List<TrendingKeywords.Trend>> served;
+    private final boolean enabled;
+    private final int precision;
+    private final long bucketMillis;
+    private final int buckets;
+    private final int topK;
+    private final int cmsDepth;
+    private final int cmsWidth;
+    private final int maxRegions;
+    private final Counter dropped;
+
+    public TrendingKeywordService(
+            SnapshotStore snapshotStore,
+            MeterRegistry meterRegistry,
+            @Value("${search.trending.enabled:true}") boolean enabled,
+            @Value("${search.trending.geohash-precision:4}") int precision,
+            @Value("${search.trending.bucket:5m}") Duration bucket,
+            @Value("${search.trending.buckets:12}") int buckets,
+            @Value("${search.trending.top-k:64}") int topK,
+            @Value("${search.trending.cms-depth:4}") int cmsDepth,
+            @Value("${search.trending.cms-width:2048}") int cmsWidth,
+            @Value("${search.trending.max-regions:1024}") int maxRegions,
+            @Value("${search.trending.capacity:50000}") int capacity,
+            @Value("${search.trending.apply-interval:1s}") Duration applyInterval
+    ) {
+        this.enabled = enabled;
+        this.precision = precision;
+        this.bucketMillis = bucket.toMillis();
+        this.buckets = buckets;
+        this.topK = topK;
+        this.cmsDepth = cmsDepth;
+        this.cmsWidth = cmsWidth;
+        this.maxRegions = maxRegions;
+        this.trending = snapshotStore.aggregate(SNAPSHOT_NAME, new Codec(), System.currentTimeMillis());
+        this.buffer = new WriteBehindBuffer<>(capacity);
+        // 반영 주기 안에서는 같은 답이므로 지역·창별로 잠깐 재사용
+        this.served = Caffeine.newBuilder()
+                .maximumSize(10_000)
+                .expireAfterWrite(applyInterval)
+                .build();
+
+        Gauge.builder("search.trending.pending", buffer, WriteBehindBuffer::size).register(meterRegistry);
+        this.dropped = Counter.builder("search.trending.dropped")
+                .description("버퍼가 가득 차서 버린 검색").register(meterRegistry);
+    }
+
+    /** 검색 1회 (요청 경로: 버퍼에 넣기만) */
+    public void record(String query, Double lat, Double lng) {
+        if (!enabled || query == null) return;
+        String keyword = normalize(query);
+        if (keyword.isEmpty()) return;
+        String region = lat == null || lng == null ? null : GeoHash.encode(lat, lng, precision);
+        if (!buffer.offer(new Event(region, keyword, System.currentTimeMillis()))) dropped.increment();
+    }
+
+    /**
+     * 인기 검색어 상위 limit개. lat/lng가 없으면 전국.
+     * minutes: 최근 몇 분 (버킷 단위로 올림, 최대 창 전체)
+     */
+    public List<TrendingKeywordResponse> top(Double lat, Double lng, Integer minutes, int limit) {
+        String region = lat == null || lng == null ? TrendingKeywords.GLOBAL : GeoHash.encode(lat, lng, precision);
+        long bucketMinutes = Math.max(1, Duration.ofMillis(bucketMillis).toMinutes());
+        int window = minutes == null ? buckets
+                : (int) Math.min(buckets, Math.max(1, (minutes + bucketMinutes - 1) / bucketMinutes));
+
+        List<TrendingKeywords.Trend> trends = served.get(region + "/" + window,
+                k -> trending.view().top(region, MAX_LIMIT, System.currentTimeMillis(), window));
+        List<TrendingKeywordResponse> out = new ArrayList<>(Math.min(limit, trends.size()));
+        for (int i = 0; i < trends.size() && i < limit; i++) {
+            out.add(new TrendingKeywordResponse(i + 1, trends.get(i).keyword(), trends.get(i).count()));
+        }
+        return out;
+    }
+
+    @Scheduled(fixedDelayString = "${search.trending.apply-interval:1s}")
+    public void apply() {
+        for (int remaining = buffer.size(); remaining > 0; remaining -= APPLY_BATCH) {
+            List<Event> batch = buffer.drain(APPLY_BATCH);
+            if (batch.isEmpty()) return;
+            trending.add(t -> {
+                for (Event e : batch) {
+                    t.add(TrendingKeywords.GLOBAL, e.keyword(), e.atMillis());
+                    if (e.region() != null) t.add(e.region(), e.keyword(), e.atMillis());
+                }
+            });
+        }
+    }
+
+    /** 지난 저장 뒤의 몫을 저장된 합계에 더하고 그 합계로 응답한다 (실패하면 다음 저장에 다시) */
+    @Scheduled(fixedDelayString = "${search.trending.snapshot-interval:1m}",
+            initialDelayString = "${search.trending.snapshot-interval:1m}")
+    public void snapshot() {
+        if (!enabled) return;
+        try {
+            trending.sync(System.currentTimeMillis());
+        } catch (Exception e) {
+            log.warn("[trending] snapshot failed: {}", e.toString());
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void restore() {
+        if (!enabled) return;
+        try {
+            trending.sync(System.currentTimeMillis()).ifPresent(r ->
+                    log.info("[trending] restored {} buckets from snapshot taken at {}", r.entries(), r.takenAt()));
+        } catch (Exception e) {
+            log.warn("[trending] restore failed: {}", e.toString());
+        }
+    }
+
+    @PreDestroy
+    public void snapshotOnShutdown() {
+        apply();
+        snapshot();
+    }
+
+    /** 같은 버킷이면 합친다 */
+    private final class Codec implements SnapshotCodec<TrendingKeywords> {
+        @Override
+        public TrendingKeywords empty(long nowMillis) {
+            return new TrendingKeywords(bucketMillis, buckets, cmsDepth, cmsWidth, topK, maxRegions);
+        }
+
+        @Override
+        public void write(TrendingKeywords value, DataOutputStream out, long nowMillis) throws IOException {
+            value.writeTo(out, nowMillis);
+        }
+
+        @Override
+        public int read(DataInputStream in, TrendingKeywords into, long nowMillis) throws IOException {
+            return into.readFrom(in, nowMillis);
+        }
+    }
+
+    /** 앞뒤 공백 제거, 연속 공백 하나로, 소문자 */
+    private static String normalize(String query) {
+        String k = SPACES.matcher(query.trim()).replaceAll(" ").toLowerCase(Locale.ROOT);
+        return k.length() > MAX_KEYWORD_LENGTH ? k.substring(0, MAX_KEYWORD_LENGTH) : k;
+    }
+}
@@ -0,0 +1,207 @@
+package org.crumb.be.recommend.service;
+
+import org.crumb.be.common.sketch.CountMinSketch;
+import org.crumb.be.common.sketch.SpaceSaving;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 지역별 슬라이딩 창 인기 검색어.
+ * 창은 bucketMillis 길이 버킷의 링이고, 버킷마다 Count-Min Sketch 하나(지역+검색어 키)와 지역별 Space-Saving 후보를 둔다.
+ * 조회: 창 안 버킷들의 후보 합집합을 버킷별 min(CMS, Space-Saving 상한)의 합으로 다시 세어 정렬.
+ * 쓰기는 한 스레드에서만 (TrendingKeywordService의 반영 작업), 읽기는 버킷 단위 잠금으로 함께 돈다.
+ */
+public final class TrendingKeywords {
+
+    /** 전국 (모든 검색) */
+    public static final String GLOBAL = "";
+
+    private static final int FORMAT = 0x54524b31; // "TRK1"
+
+    public record Trend(String keyword, long count) {}
+
+    private final long bucketMillis;
+    private final int topK;
+    private final int maxRegions;
+    private final Bucket[] ring;
+
+    public TrendingKeywords(long bucketMillis, int buckets, int cmsDepth, int cmsWidth, int topK, int maxRegions) {
+        this.bucketMillis = bucketMillis;
+        this.topK = topK;
+        this.maxRegions = maxRegions;
+        this.ring = new Bucket[buckets];
+        for (int i = 0; i < buckets; i++) ring[i] = new Bucket(new CountMinSketch(cmsDepth, cmsWidth));
+    }
+
+    /** 검색 1회. 창보다 오래된 시각이면 버린다 */
+    public void add(String region, String keyword, long atMillis) {
+        long epoch = Math.floorDiv(atMillis, bucketMillis);
+        Bucket b = ring[(int) Math.floorMod(epoch, (long) ring.length)];
+        synchronized (b) {
+            if (b.epoch != epoch) {
+                if (epoch < b.epoch) return;
+                b.reset(epoch);
+            }
+            SpaceSaving candidates = b.regions.get(region);
+            if (candidates == null) {
+                // 지역 수 상한을 넘으면 그 지역은 이 버킷에서 세지 않는다 (전국은 항상)
+                if (b.regions.size() >= maxRegions && !GLOBAL.equals(region)) return;
+                candidates = new SpaceSaving(topK);
+                b.regions.put(region, candidates);
+            }
+            b.cms.add(CountMinSketch.hash(region, keyword), 1);
+            candidates.offer(keyword, 1);
+        }
+    }
+
+    /** 최근 windowBuckets개 버킷(지금 버킷 포함)의 상위 n개 */
+    public List<Trend> top(String region, int n, long nowMillis, int windowBuckets) {
+        long now = Math.floorDiv(nowMillis, bucketMillis);
+        long oldest = now - Math.min(windowBuckets, ring.length) + 1;
+
+        Set<String> seen = new LinkedHashSet<>();
+        List<Bucket> live = new ArrayList<>(ring.length);
+        for (Bucket b : ring) {
+            synchronized (b) {
+                if (b.epoch < oldest || b.epoch > now) continue;
+                SpaceSaving candidates = b.regions.get(region);
+                if (candidates == null) continue;
+                live.add(b);
+                for (SpaceSaving.Entry e : candidates.entries()) seen.add(e.item());
+            }
+        }
+        if (seen.isEmpty()) return List.of();
+
+        String[] keywords = seen.toArray(String[]::new);
+        long[] hashes = new long[keywords.length];
+        long[] sums = new long[keywords.length];
+        for (int i = 0; i < keywords.length; i++) hashes[i] = CountMinSketch.hash(region, keywords[i]);
+        for (Bucket b : live) {
+            synchronized (b) {
+                SpaceSaving candidates = b.regions.get(region);
+                if (candidates == null || b.epoch < oldest) continue; // 그 사이 버킷이 넘어감
+                for (int i = 0; i < keywords.length; i++) {
+                    // 둘 다 과대 추정이므로 작은 쪽
+                    sums[i] += Math.min(b.cms.estimate(hashes[i]), candidates.upperBound(keywords[i]));
+                }
+            }
+        }
+
+        List<Trend> trends = new ArrayList<>(keywords.length);
+        for (int i = 0; i < keywords.length; i++) {
+            if (sums[i] > 0) trends.add(new Trend(keywords[i], sums[i]));
+        }
+        trends.sort(Comparator.comparingLong(Trend::count).reversed());
+        return trends.size() > n ? List.copyOf(trends.subList(0, n)) : trends;
+    }
+
+    public int buckets() {
+        return ring.length;
+    }
+
+    public long bucketMillis() {
+        return bucketMillis;
+    }
+
+    /** 창 안 버킷만 쓴다 (설정 모양 + 버킷별 CMS 카운터 + 지역별 후보) */
+    public void writeTo(DataOutputStream out, long nowMillis) throws IOException {
+        long now = Math.floorDiv(nowMillis, bucketMillis);
+        CountMinSketch shape = ring[0].cms;
+        out.writeInt(FORMAT);
+        out.writeLong(bucketMillis);
+        out.writeInt(ring.length);
+        out.writeInt(shape.depth());
+        out.writeInt(shape.width());
+        for (Bucket b : ring) {
+            synchronized (b) {
+                if (b.epoch <= now - ring.length || b.epoch > now) continue;
+                out.writeBoolean(true);
+                out.writeLong(b.epoch);
+                for (int c : b.cms.toArray()) out.writeInt(c);
+                out.writeInt(b.regions.size());
+                for (Map.Entry<String, SpaceSaving> r : b.regions.entrySet()) {
+                    out.writeUTF(r.getKey());
+                    List<SpaceSaving.Entry> entries = r.getValue().entries();
+                    out.writeInt(entries.size());
+                    for (SpaceSaving.Entry e : entries) {
+                        out.writeUTF(e.item());
+                        out.writeLong(e.count());
+                        out.writeLong(e.error());
+                    }
+                }
+            }
+        }
+        out.writeBoolean(false);
+    }
+
+    /** 스냅샷을 읽어 창 안 버킷을 채운다. 설정 모양이 다르면 아무것도 하지 않고 0 */
+    public int readFrom(DataInputStream in, long nowMillis) throws IOException {
+        CountMinSketch shape = ring[0].cms;
+        if (in.readInt() != FORMAT || in.readLong() != bucketMillis || in.readInt() != ring.length
+                || in.readInt() != shape.depth() || in.readInt() != shape.width()) {
+            return 0;
+        }
+        long now = Math.floorDiv(nowMillis, bucketMillis);
+        int[] counters = new int[shape.depth() * shape.width()];
+        int restored = 0;
+        while (in.readBoolean()) {
+            long epoch = in.readLong();
+            for (int i = 0; i < counters.length; i++) counters[i] = in.readInt();
+            Map<String, List<SpaceSaving.Entry>> regions = new HashMap<>();
+            int regionCount = in.readInt();
+            for (int r = 0; r < regionCount; r++) {
+                String region = in.readUTF();
+                int n = in.readInt();
+                List<SpaceSaving.Entry> entries = new ArrayList<>(n);
+                for (int i = 0; i < n; i++) entries.add(new SpaceSaving.Entry(in.readUTF(), in.readLong(), in.readLong()));
+                regions.put(region, entries);
+            }
+            if (epoch <= now - ring.length || epoch > now) continue;
+
+            Bucket b = ring[(int) Math.floorMod(epoch, (long) ring.length)];
+            synchronized (b) {
+                if (b.epoch > epoch) continue;
+                // 기동 후 이미 검색이 들어온 버킷이면 더한다
+                if (b.epoch < epoch) b.reset(epoch);
+                b.cms.merge(counters);
+                regions.forEach((region, entries) -> {
+                    SpaceSaving candidates = b.regions.get(region);
+                    if (candidates == null) {
+                        candidates = new SpaceSaving(topK);
+                        b.regions.put(region, candidates);
+                        for (SpaceSaving.Entry e : entries) candidates.restore(e.item(), e.count(), e.error());
+                    } else {
+                        for (SpaceSaving.Entry e : entries) candidates.offer(e.item(), e.count());
+                    }
+                });
+            }
+            restored++;
+        }
+        return restored;
+    }
+
+    private static final class Bucket {
+        final CountMinSketch cms;
+        final Map<String, SpaceSaving> regions = new HashMap<>();
+        long epoch = Long.MIN_VALUE; // 버킷 번호 (시각 / bucketMillis)
+
+        Bucket(CountMinSketch cms) {
+            this.cms = cms;
+        }
+
+        void reset(long epoch) {
+            this.epoch = epoch;
+            cms.clear();
+            regions.clear();
+        }
+    }
+}
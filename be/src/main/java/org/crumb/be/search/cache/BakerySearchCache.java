@@ -0,0 +1,116 @@
+package org.crumb.be.search.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.crumb.be.client.KakaoMapClient;
+import org.crumb.be.search.dto.KakaoBakeryDto;
+import org.crumb.be.search.util.GeoHash;
+import org.crumb.be.search.util.TilePlanner;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * (geohash 셀, 반경 버킷) 단위 카카오 검색 결과 캐시.
+ * 셀 중심에서 "버킷 반경 + 셀 반대각선"으로 한 번 조회해 두면
+ * 셀 안의 어느 위치에서 버킷 이하 반경으로 검색해도 같은 결과를 재사용할 수 있다.
+ * (카카오가 결과 개수를 자르므로 밀집 지역에서는 근사치)
+ */
+@Slf4j
+@Component
+public class BakerySearchCache {
+
+    /** 요청 반경을 올림하는 버킷 (m) */
+    private static final int[] RADIUS_BUCKETS = {500, 1000, 2000, 5000, 10000, 20000};
+
+    @FunctionalInterface
+    public interface CellLoader {
+        Mono<CellResult> load(double lat, double lng, int radiusMeters, int size);
+    }
+
+    public record CellKey(String geohash, int radiusBucket, int pages) {}
+
+    /** 셀 조회 결과. failed: 못 받은 페이지가 있음 (결과가 빠졌을 수 있어 캐시하지 않는다) */
+    public record CellResult(List<KakaoBakeryDto> bakeries, boolean failed) {}
+
+    /** 타일 조회 결과. saturated면 카카오가 결과를 잘랐으므로 더 작은 타일로 나눠야 한다 */
+    public record TileResult(List<KakaoBakeryDto> bakeries, boolean saturated) {}
+
+    private final Cache<CellKey, List<KakaoBakeryDto>> cache;
+    private final Cache<String, TileResult> tiles;
+    private final int precision;
+    private final boolean enabled;
+
+    public BakerySearchCache(
+            MeterRegistry meterRegistry,
+            @Value("${bakery.search.cache.enabled:true}") boolean enabled,
+            @Value("${bakery.search.cache.geohash-precision:6}") int precision,
+            @Value("${bakery.search.cache.ttl:5m}") Duration ttl,
+            @Value("${bakery.search.cache.max-weight:50000}") long maxWeight
+    ) {
+        this.enabled = enabled;
+        this.precision = precision;
+        this.cache = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumWeight(maxWeight) // 가중치 = 결과 건수 (W-TinyLFU 축출)
+                .weigher((CellKey k, List<KakaoBakeryDto> v) -> v.size() + 1)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "bakerySearch");
+
+        // 넓은 반경 검색의 타일 결과 (전역 격자 키라서 겹치는 검색끼리 공유)
+        this.tiles = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumWeight(maxWeight)
+                .weigher((String k, TileResult v) -> v.bakeries().size() + 1)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, tiles, "bakerySearchTile");
+    }
+
+    /** 셀 캐시 결과(요청 좌표 기준 필터링 전)를 반환, 없으면 셀 중심 기준으로 조회 후 적재 */
+    public Mono<CellResult> getOrLoad(double lat, double lng, int radius, int size, CellLoader loader) {
+        if (!enabled) return loader.load(lat, lng, radius, size);
+
+        // 페이지 수까지 키에 포함 (15건 요청과 45건 요청은 다른 엔트리)
+        int pages = KakaoMapClient.pagesFor(size);
+        var key = new CellKey(GeoHash.encode(lat, lng, precision), bucket(radius), pages);
+        var cached = cache.getIfPresent(key);
+        if (cached != null) return Mono.just(new CellResult(cached, false));
+
+        double[] center = GeoHash.center(key.geohash());
+        int fetchRadius = (int) Math.min(KakaoMapClient.MAX_RADIUS_METERS,
+                Math.ceil(key.radiusBucket() + GeoHash.halfDiagonalMeters(key.geohash())));
+        return loader.load(center[0], center[1], fetchRadius, pages * KakaoMapClient.PAGE_SIZE)
+                .doOnNext(loaded -> {
+                    // 못 받은 페이지가 있으면 TTL 동안 빠진 결과를 주게 되므로 캐시하지 않음 (빈 결과도 마찬가지)
+                    if (!loaded.failed() && !loaded.bakeries().isEmpty()) cache.put(key, List.copyOf(loaded.bakeries()));
+                });
+    }
+
+    public TileResult getTile(TilePlanner.Tile tile) {
+        return enabled ? tiles.getIfPresent(tile.key()) : null;
+    }
+
+    public void putTile(TilePlanner.Tile tile, TileResult result) {
+        if (enabled && !result.bakeries().isEmpty()) tiles.put(tile.key(), result);
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+        tiles.invalidateAll();
+    }
+
+    static int bucket(int radius) {
+        for (int b : RADIUS_BUCKETS) {
+            if (radius <= b) return b;
+        }
+        return RADIUS_BUCKETS[RADIUS_BUCKETS.length - 1];
+    }
+}
@@ -7,8 +7,10 @@ import lombok.RequiredArgsConstructor;
 import org.crumb.be.search.dto.KakaoBakeryDto;
 import org.crumb.be.search.service.BakerySearchService;
 import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
 
 import java.util.List;
 
@@ -18,15 +20,22 @@ import java.util.List;
 @RequestMapping("/api/bakery")
 public class BakeryController {
 
+    /** 카카오 호출 한도나 에러 때문에 일부 지역/페이지를 못 본 결과면 true */
+    public static final String PARTIAL_HEADER = "X-Search-Partial";
+
     private final BakerySearchService bakerySearchService;
 
     @GetMapping(value = "/list", produces = MediaType.APPLICATION_JSON_VALUE)
-    public List<KakaoBakeryDto> getBakeries(
+    public Mono<ResponseEntity<List<KakaoBakeryDto>>> getBakeries(
             @RequestParam @NotNull Double lat,
             @RequestParam @NotNull Double lng,
             @RequestParam(defaultValue = "1500") @Min(100) @Max(50000) Integer radius,
             @RequestParam Integer size
     ) {
-        return bakerySearchService.search(lat, lng, radius, size);
+        return bakerySearchService.search(lat, lng, radius, size).map(result -> {
+            var ok = ResponseEntity.ok();
+            if (result.partial()) ok.header(PARTIAL_HEADER, "true");
+            return ok.body(result.bakeries());
+        });
     }
 }
@@ -0,0 +1,14 @@
+package org.crumb.be.search.dto;
+
+import java.util.List;
+
+/**
+ * 빵집 검색 결과. partial이면 카카오 호출 한도(요청당 상한, 쿼터 초과)나 에러 때문에 일부 지역/페이지를 못 본 결과다
+ * (컨트롤러가 X-Search-Partial 헤더로 알린다).
+ */
+public record BakerySearchResult(List<KakaoBakeryDto> bakeries, boolean partial) {
+
+    public static BakerySearchResult complete(List<KakaoBakeryDto> bakeries) {
+        return new BakerySearchResult(bakeries, false);
+    }
+}
@@ -13,4 +13,19 @@ public class KakaoBakeryDto {
     private double longitude;  // x
     private Long distance; // distance (m)
     private String place_url; // place_url
+
+    /** 캐시된 인스턴스는 공유되므로 거리만 바꾼 복사본을 돌려준다 */
+    public KakaoBakeryDto withDistance(long distance) {
+        KakaoBakeryDto copy = new KakaoBakeryDto();
+        copy.setId(id);
+        copy.setName(name);
+        copy.setAddress(address);
+        copy.setRoad_address(road_address);
+        copy.setPhone(phone);
+        copy.setLatitude(latitude);
+        copy.setLongitude(longitude);
+        copy.setDistance(distance);
+        copy.setPlace_url(place_url);
+        return copy;
+    }
 }
@@ -0,0 +1,17 @@
+package org.crumb.be.search.dto;
+
+import java.util.List;
+
+/** 카카오 키워드 검색 한 페이지 (meta.total_count, meta.pageable_count, meta.is_end 포함). failed: 에러/한도 초과로 못 받은 페이지 */
+public record KakaoBakeryPage(
+        int page,
+        List<KakaoBakeryDto> documents,
+        int totalCount,
+        int pageableCount,
+        boolean end,
+        boolean failed
+) {
+    public static KakaoBakeryPage failed(int page) {
+        return new KakaoBakeryPage(page, List.of(), 0, 0, true, true);
+    }
+}
@@ -1,12 +1,22 @@
 package org.crumb.be.search.service;
 
 import lombok.RequiredArgsConstructor;
+import org.crumb.be.bakery.catalog.BakeryCatalog;
+import org.crumb.be.bakery.catalog.CatalogBakery;
 import org.crumb.be.client.KakaoMapClient;
+import org.crumb.be.client.quota.CallPriority;
+import org.crumb.be.search.cache.BakerySearchCache;
+import org.crumb.be.search.dto.BakerySearchResult;
 import org.crumb.be.search.dto.KakaoBakeryDto;
 import org.crumb.be.search.util.GeoUtils;
+import org.crumb.be.search.util.SpatialDeduplicator;
+import org.crumb.be.search.util.SpatialGridIndex;
+import org.crumb.be.search.util.TilePlanner;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
-import java.text.Normalizer;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.*;
@@ -15,47 +25,261 @@ import java.util.stream.Collectors;
 @Service
 @RequiredArgsConstructor
 public class BakerySearchService {
+    private static final double DEDUPE_METERS = 80;
+    /** 레벨 0 = 카카오 최대 반경(20km) 타일, 최소 1.25km까지 분할 */
+    private static final TilePlanner TILES = new TilePlanner(KakaoMapClient.MAX_RADIUS_METERS, 1000);
+
     private final KakaoMapClient kakao;
+    private final BakerySearchCache searchCache;
+    private final BakeryCatalog catalog;
 //    private final GoogleMapClient google;
 
-    public List<KakaoBakeryDto> search(double lat, double lng, int radius, int size) {
-        List<KakaoBakeryDto> kakaoResult = kakao.searchBakery(lat, lng, radius);
-        System.out.println("kakaoResult: " + kakaoResult);
+    /** kakao: 카카오 로컬 API, local: 카탈로그 공간 인덱스 (네트워크 호출 없음) */
+    @Value("${bakery.search.mode:kakao}") private String mode;
+    /** 요청 하나가 동시에 조회하는 타일 수 / 요청당 최대 타일 조회 수 (캐시 포함) */
+    @Value("${bakery.search.tiling.concurrency:4}") private int tileConcurrency;
+    @Value("${bakery.search.tiling.max-tiles:32}") private int maxTiles;
+    /** 요청당 카카오 호출 상한 (캐시에 없는 타일 하나 = 최대 MAX_PAGES번). 초당 burst 안에서 다른 요청 몫을 남긴다 */
+    @Value("${bakery.search.tiling.max-calls:15}") private int maxCalls;
+    /** 상한 때문에 못 본 타일 중 BACKGROUND로 미리 받아 타일 캐시에 넣어 둘 수 */
+    @Value("${bakery.search.tiling.prefetch-tiles:8}") private int prefetchTiles;
+
+    public Mono<BakerySearchResult> search(double lat, double lng, int radius, int size) {
+        if ("local".equalsIgnoreCase(mode)) {
+            return Mono.fromSupplier(() -> BakerySearchResult.complete(searchLocal(lat, lng, radius, size)));
+        }
+        // 카카오 한 번으로는 반경/개수를 채울 수 없는 요청
+        if (radius > KakaoMapClient.MAX_RADIUS_METERS
+                || size > KakaoMapClient.PAGE_SIZE * KakaoMapClient.MAX_PAGES) {
+            return searchTiled(lat, lng, radius, size);
+        }
+
+        // 셀 캐시 결과를 요청 좌표 기준 반경으로 다시 필터링 (distance도 요청 좌표 기준으로 재계산)
+        // 캐시에는 페이지가 도착하는 대로 중복 제거된 셀 결과가 들어 있다. 못 받은 페이지가 있으면 partial
+        return searchCache.getOrLoad(lat, lng, radius, size, this::fetchDeduped)
+                .map(cell -> {
+                    var origin = GeoUtils.origin(lat, lng);
+                    var box = origin.boundingBox(radius);
+                    List<KakaoBakeryDto> candidates = new ArrayList<>();
+                    for (KakaoBakeryDto b : cell.bakeries()) {
+                        if (!box.contains(b.getLatitude(), b.getLongitude())) continue;
+                        double d = origin.distanceMeters(b.getLatitude(), b.getLongitude());
+                        if (d <= radius) candidates.add(b.withDistance(Math.round(d)));
+                    }
+
+                    // 거리 순 정렬
+                    List<KakaoBakeryDto> sorted = candidates.stream()
+                            .sorted(Comparator.comparingLong(KakaoBakeryDto::getDistance))
+                            .collect(Collectors.toList());
+
+                    // size만큼 자르기
+                    if (sorted.size() > size) {
+                        return new BakerySearchResult(sorted.subList(0, size), cell.failed());
+                    } else {
+                        return new BakerySearchResult(sorted, cell.failed());
+                    }
+                });
+    }
+
+    /**
+     * 원을 전역 격자 타일로 덮고, 요청 좌표에 가까운 타일부터 tileConcurrency개씩 동시에 조회한다.
+     * 카카오가 결과를 자른 타일(total_count > 받은 건수)은 더 작은 타일로 나눠 다시 조회하고,
+     * size개를 채웠고 남은 타일이 모두 size번째 결과보다 멀면 멈춘다.
+     * 카카오 호출은 요청당 max-calls까지만 (타일 하나가 최대 3페이지라 반경이 넓으면 초당 한도를 혼자 다 쓸 수 있다).
+     * 상한에 걸리거나 한도 초과로 못 받은 타일이 있으면 partial로 알리고, 못 본 가까운 타일은 BACKGROUND로 받아
+     * 타일 캐시에 넣어 둔다 (다음 요청은 캐시에서 채운다).
+     */
+    public Mono<BakerySearchResult> searchTiled(double lat, double lng, int radius, int size) {
+        return Mono.defer(() -> {
+            var state = new TiledSearch(lat, lng, radius, size);
+            state.frontier.addAll(TILES.cover(lat, lng, radius, TILES.levelFor(radius)));
+            return nextWave(state).then(Mono.fromSupplier(() -> {
+                if (state.partial) prefetch(state);
+                var found = state.dedupe.result();
+                var hits = state.within(found);
+                List<KakaoBakeryDto> result = new ArrayList<>(hits.count);
+                for (int i = 0; i < hits.count; i++) {
+                    result.add(found.get(hits.idx[i]).withDistance(Math.round(hits.dist[i])));
+                }
+                result.sort(Comparator.comparingLong(KakaoBakeryDto::getDistance));
+                return new BakerySearchResult(result.size() > size ? result.subList(0, size) : result, state.partial);
+            }));
+        });
+    }
+
+    /** 타일 검색 한 건의 진행 상태 (웨이브는 순서대로 하나씩만 돌기 때문에 동기화 불필요) */
+    private static final class TiledSearch {
+        final double lat, lng;
+        final int radius, size;
+        final SpatialDeduplicator<KakaoBakeryDto> dedupe = new SpatialDeduplicator<>(
+                KakaoBakeryDto::getName, KakaoBakeryDto::getLatitude, KakaoBakeryDto::getLongitude, DEDUPE_METERS);
+        final PriorityQueue<TilePlanner.Tile> frontier;
+        final GeoUtils.Origin origin;
+        int tiles;
+        int kakaoCalls;
+        boolean partial;
 
-        // 거리 계산 / 중복 제거 로직 작성
-        // 중복 제거
-        List<KakaoBakeryDto> deduped = dedupe(kakaoResult);
+        TiledSearch(double lat, double lng, int radius, int size) {
+            this.lat = lat;
+            this.lng = lng;
+            this.radius = radius;
+            this.size = size;
+            this.origin = GeoUtils.origin(lat, lng);
+            this.frontier = new PriorityQueue<>(Comparator.comparingDouble(t -> t.minDistanceMeters(lat, lng)));
+        }
 
-        // 거리 계산 후 정렬
-        List<KakaoBakeryDto> sorted = deduped.stream()
-                .sorted(Comparator.comparingDouble(b ->
-                        GeoUtils.haversineMeters(lat, lng, b.getLatitude(), b.getLongitude())))
-                .collect(Collectors.toList());
+        /** found 중 반경 안에 있는 항목의 (위치, 거리). 좌표를 배열로 모아 한 번에 계산한다 */
+        Within within(List<KakaoBakeryDto> found) {
+            int n = found.size();
+            double[] lats = new double[n], lngs = new double[n];
+            for (int i = 0; i < n; i++) {
+                lats[i] = found.get(i).getLatitude();
+                lngs[i] = found.get(i).getLongitude();
+            }
+            var w = new Within(new int[n], new double[n]);
+            w.count = origin.withinRadius(lats, lngs, n, radius, w.idx, w.dist);
+            return w;
+        }
 
-        // size만큼 자르기
-        if (sorted.size() > size) {
-            return sorted.subList(0, size);
-        } else {
-            return sorted;
+        /** 반경 안에 size개 이상 있고, size번째 거리가 아직 안 본 가장 가까운 타일보다 가까우면 충분 */
+        boolean satisfied() {
+            var found = dedupe.result();
+            if (found.size() < size) return false;
+            var w = within(found);
+            if (w.count < size) return false;
+            double[] d = Arrays.copyOf(w.dist, w.count);
+            Arrays.sort(d);
+            return d[size - 1] <= frontier.peek().minDistanceMeters(lat, lng);
         }
     }
 
-    private List<KakaoBakeryDto> dedupe(List<KakaoBakeryDto> items) {
-        List<KakaoBakeryDto> result = new ArrayList<>();
-        for (KakaoBakeryDto b : items) {
-            String nameKey = normalizeName(b.getName());
-            boolean exists = result.stream().anyMatch(x ->
-                    normalizeName(x.getName()).equals(nameKey) &&
-                            GeoUtils.haversineMeters(x.getLatitude(), x.getLongitude(), b.getLatitude(), b.getLongitude()) < 80
-            );
-            if (!exists) result.add(b);
+    private static final class Within {
+        final int[] idx;
+        final double[] dist;
+        int count;
+
+        Within(int[] idx, double[] dist) {
+            this.idx = idx;
+            this.dist = dist;
+        }
+    }
+
+    private Mono<Void> nextWave(TiledSearch s) {
+        if (s.frontier.isEmpty() || s.satisfied()) {
+            return Mono.empty();
+        }
+        List<TilePlanner.Tile> wave = new ArrayList<>(tileConcurrency);
+        while (!s.frontier.isEmpty() && wave.size() < tileConcurrency && s.tiles < maxTiles) {
+            var tile = s.frontier.peek();
+            boolean cached = searchCache.getTile(tile) != null;
+            if (!cached && s.kakaoCalls + KakaoMapClient.MAX_PAGES > maxCalls) break;
+            s.frontier.poll();
+            s.tiles++;
+            if (!cached) s.kakaoCalls += KakaoMapClient.MAX_PAGES;
+            wave.add(tile);
+        }
+        if (wave.isEmpty()) {
+            // 타일/호출 상한: 남은 타일을 못 보고 끝낸다
+            s.partial = true;
+            return Mono.empty();
+        }
+        return Flux.fromIterable(wave)
+                .flatMapSequential(tile -> fetchTile(tile, CallPriority.USER), tileConcurrency)
+                .collectList()
+                .flatMap(results -> {
+                    for (int i = 0; i < wave.size(); i++) {
+                        var tile = wave.get(i);
+                        var fetched = results.get(i);
+                        var result = fetched.result();
+                        s.dedupe.offerAll(result.bakeries());
+                        // 못 받은 페이지가 있으면 나누지 않는다 (한도가 찬 상태에서 호출만 늘어남)
+                        if (fetched.failed()) {
+                            s.partial = true;
+                        } else if (result.saturated() && TILES.canSplit(tile)) {
+                            for (var child : TILES.children(tile)) {
+                                if (child.minDistanceMeters(s.lat, s.lng) <= s.radius) s.frontier.add(child);
+                            }
+                        }
+                    }
+                    return nextWave(s);
+                });
+    }
+
+    /** 상한에 걸려 못 본 타일 중 가까운 prefetch-tiles개를 BACKGROUND로 받아 캐시에 넣는다 (응답은 기다리지 않음) */
+    private void prefetch(TiledSearch s) {
+        List<TilePlanner.Tile> rest = new ArrayList<>(prefetchTiles);
+        while (!s.frontier.isEmpty() && rest.size() < prefetchTiles) {
+            var tile = s.frontier.poll();
+            if (searchCache.getTile(tile) == null) rest.add(tile);
+        }
+        if (rest.isEmpty()) return;
+        Flux.fromIterable(rest)
+                .flatMap(tile -> fetchTile(tile, CallPriority.BACKGROUND), tileConcurrency)
+                .subscribe();
+    }
+
+    /** 타일 하나 조회 결과. failed: 못 받은 페이지가 있음 (결과가 빠졌을 수 있어 캐시하지 않는다) */
+    private record FetchedTile(BakerySearchCache.TileResult result, boolean failed) {}
+
+    private Mono<FetchedTile> fetchTile(TilePlanner.Tile tile, CallPriority priority) {
+        var cached = searchCache.getTile(tile);
+        if (cached != null) return Mono.just(new FetchedTile(cached, false));
+
+        int limit = KakaoMapClient.PAGE_SIZE * KakaoMapClient.MAX_PAGES;
+        return kakao.searchBakeryPages(tile.lat(), tile.lng(), (int) Math.ceil(tile.radiusMeters()), limit, priority)
+                .collectList()
+                .map(pages -> {
+                    List<KakaoBakeryDto> bakeries = new ArrayList<>();
+                    int total = 0;
+                    boolean failed = false;
+                    for (var page : pages) {
+                        bakeries.addAll(page.documents());
+                        total = Math.max(total, page.totalCount());
+                        failed |= page.failed();
+                    }
+                    var result = new BakerySearchCache.TileResult(List.copyOf(bakeries), total > bakeries.size());
+                    if (!failed) searchCache.putTile(tile, result);
+                    return new FetchedTile(result, failed);
+                });
+    }
+
+    /** 카탈로그 공간 인덱스에서 가까운 순 size개 */
+    public List<KakaoBakeryDto> searchLocal(double lat, double lng, int radius, int size) {
+        var snapshot = catalog.snapshot();
+        var hits = snapshot.index().nearest(lat, lng, size, radius, new SpatialGridIndex.Hits(size));
+        List<KakaoBakeryDto> result = new ArrayList<>(hits.size());
+        for (int i = 0; i < hits.size(); i++) {
+            result.add(toDto(snapshot.bakeries().get(hits.id(i)), hits.distance(i)));
         }
         return result;
     }
 
-    private String normalizeName(String s) {
-        if (s == null) return "";
-        String n = Normalizer.normalize(s, Normalizer.Form.NFKC);
-        return n.replaceAll("\\s+", "").toLowerCase(Locale.ROOT);
+    private static KakaoBakeryDto toDto(CatalogBakery b, double distance) {
+        KakaoBakeryDto dto = new KakaoBakeryDto();
+        dto.setId(b.id());
+        dto.setName(b.name());
+        dto.setAddress(b.address());
+        dto.setRoad_address(b.address());
+        dto.setLatitude(b.lat());
+        dto.setLongitude(b.lng());
+        dto.setDistance(Math.round(distance));
+        return dto;
+    }
+
+    /**
+     * 카카오 페이지를 동시에 받아 도착 순서대로 중복 제거 (같은 정규화 이름 + 80m 이내면 같은 빵집).
+     * 에러/한도 초과로 못 받은 페이지가 있으면 failed
+     */
+    private Mono<BakerySearchCache.CellResult> fetchDeduped(double lat, double lng, int radius, int size) {
+        return Mono.defer(() -> {
+            var dedupe = new SpatialDeduplicator<KakaoBakeryDto>(
+                    KakaoBakeryDto::getName, KakaoBakeryDto::getLatitude, KakaoBakeryDto::getLongitude, DEDUPE_METERS);
+            return kakao.searchBakeryPages(lat, lng, radius, size)
+                    .reduce(false, (failed, page) -> {
+                        dedupe.offerAll(page.documents());
+                        return failed || page.failed();
+                    })
+                    .map(failed -> new BakerySearchCache.CellResult(dedupe.result(), failed));
+        });
     }
 }
@@ -0,0 +1,77 @@
+package org.crumb.be.search.util;
+
+import java.util.Arrays;
+
+/** 위/경도 ↔ geohash 변환 (캐시 키, 지역 버킷용) */
+public final class GeoHash {
+    private static final char[] BASE32 = "0123456789bcdefghjkmnpqrstuvwxyz".toCharArray();
+    private static final int[] DECODE = new int[128];
+
+    static {
+        Arrays.fill(DECODE, -1);
+        for (int i = 0; i < BASE32.length; i++) DECODE[BASE32[i]] = i;
+    }
+
+    private GeoHash() {}
+
+    public static String encode(double lat, double lng, int precision) {
+        double minLat = -90, maxLat = 90, minLng = -180, maxLng = 180;
+        char[] out = new char[precision];
+        boolean even = true; // 짝수 비트는 경도
+        int bit = 0, ch = 0, idx = 0;
+        while (idx < precision) {
+            if (even) {
+                double mid = (minLng + maxLng) / 2;
+                if (lng >= mid) { ch = (ch << 1) | 1; minLng = mid; } else { ch <<= 1; maxLng = mid; }
+            } else {
+                double mid = (minLat + maxLat) / 2;
+                if (lat >= mid) { ch = (ch << 1) | 1; minLat = mid; } else { ch <<= 1; maxLat = mid; }
+            }
+            even = !even;
+            if (++bit == 5) {
+                out[idx++] = BASE32[ch];
+                bit = 0;
+                ch = 0;
+            }
+        }
+        return new String(out);
+    }
+
+    /** @return {minLat, maxLat, minLng, maxLng} */
+    public static double[] bounds(String hash) {
+        double minLat = -90, maxLat = 90, minLng = -180, maxLng = 180;
+        boolean even = true;
+        for (int i = 0; i < hash.length(); i++) {
+            char c = hash.charAt(i);
+            int v = c < 128 ? DECODE[c] : -1;
+            if (v < 0) throw new IllegalArgumentException("invalid geohash: " + hash);
+            for (int b = 4; b >= 0; b--) {
+                boolean on = ((v >> b) & 1) == 1;
+                if (even) {
+                    double mid = (minLng + maxLng) / 2;
+                    if (on) minLng = mid; else maxLng = mid;
+                } else {
+                    double mid = (minLat + maxLat) / 2;
+                    if (on) minLat = mid; else maxLat = mid;
+                }
+                even = !even;
+            }
+        }
+        return new double[]{minLat, maxLat, minLng, maxLng};
+    }
+
+    /** @return {centerLat, centerLng} */
+    public static double[] center(String hash) {
+        double[] b = bounds(hash);
+        return new double[]{(b[0] + b[1]) / 2, (b[2] + b[3]) / 2};
+    }
+
+    /** 셀 중심에서 가장 먼 꼭짓점까지의 거리(m) */
+    public static double halfDiagonalMeters(String hash) {
+        double[] b = bounds(hash);
+        double cLat = (b[0] + b[1]) / 2, cLng = (b[2] + b[3]) / 2;
+        return Math.max(
+                GeoUtils.haversineMeters(cLat, cLng, b[1], b[3]),
+                GeoUtils.haversineMeters(cLat, cLng, b[0], b[3]));
+    }
+}
@@ -2,6 +2,9 @@ package org.crumb.be.search.util;
 
 public class GeoUtils {
     private static final double EARTH_RADIUS = 6371000; // meters
+    private static final double METERS_PER_DEG = EARTH_RADIUS * Math.PI / 180;
+    /** 기본 빠른 경로 허용 오차 (m). 응답 distance가 m 단위 반올림이라 0.5m면 결과가 달라지지 않는다 */
+    public static final double DEFAULT_MAX_ERROR_METERS = 0.5;
 
     public static double haversineMeters(double lat1, double lon1, double lat2, double lon2) {
         double dLat = Math.toRadians(lat2-lat1);
@@ -12,4 +15,114 @@ public class GeoUtils {
         double c = 2*Math.atan2(Math.sqrt(a), Math.sqrt(1-a));
         return EARTH_RADIUS * c;
     }
+
+    /** 한 기준점에서 여러 점까지 거리를 잴 때 쓰는 기준점 (cos/sin(lat)을 한 번만 계산) */
+    public static Origin origin(double lat, double lng) {
+        return new Origin(lat, lng, DEFAULT_MAX_ERROR_METERS);
+    }
+
+    /** (lat, lng) 중심 radius 원을 감싸는 정확한 위/경도 박스 (경도 폭은 asin(sin(r/R)/cos(lat))) */
+    public static BoundingBox boundingBox(double lat, double lng, double radiusMeters) {
+        double dLat = radiusMeters / METERS_PER_DEG;
+        double s = Math.sin(Math.toRadians(dLat)) / Math.cos(Math.toRadians(lat));
+        double dLng = s >= 1 ? 180 : Math.toDegrees(Math.asin(s));
+        return new BoundingBox(lat - dLat, lat + dLat, lng - dLng, lng + dLng);
+    }
+
+    /** 반경 질의 사전 필터. 박스 밖이면 거리 계산 없이 제외할 수 있다 */
+    public record BoundingBox(double minLat, double maxLat, double minLng, double maxLng) {
+        public boolean contains(double lat, double lng) {
+            return lat >= minLat && lat <= maxLat && lng >= minLng && lng <= maxLng;
+        }
+    }
+
+    /**
+     * 기준점 고정 거리 계산기.
+     * 짧은 거리는 등장방형(equirectangular) 근사로 삼각함수 없이 계산하고,
+     * 근사 오차가 maxErrorMeters를 넘을 수 있는 거리부터는 haversine(기준점 cos 재사용)으로 계산한다.
+     */
+    public static final class Origin {
+        private final double lat;
+        private final double lng;
+        private final double cosLat;
+        private final double sinLat;
+        private final double fastLimitMeters;
+
+        public Origin(double lat, double lng, double maxErrorMeters) {
+            this.lat = lat;
+            this.lng = lng;
+            double latRad = Math.toRadians(lat);
+            this.cosLat = Math.cos(latRad);
+            this.sinLat = Math.sin(latRad);
+            // 근사 오차 ≈ c·d³/R², c는 위도가 높을수록 커진다 (실측 c ≤ (tan²φ + 0.5) / 20, |φ| ≤ 70°)
+            double tan = Math.abs(cosLat) < 1e-9 ? Double.MAX_VALUE : sinLat / cosLat;
+            double c = (tan * tan + 0.5) / 20;
+            this.fastLimitMeters = Math.abs(lat) > 70 ? 0
+                    : Math.cbrt(maxErrorMeters * EARTH_RADIUS * EARTH_RADIUS / c);
+        }
+
+        public double lat() { return lat; }
+        public double lng() { return lng; }
+
+        /** 이 거리 이하는 등장방형 근사 결과를 그대로 쓴다 */
+        public double fastLimitMeters() {
+            return fastLimitMeters;
+        }
+
+        public BoundingBox boundingBox(double radiusMeters) {
+            return GeoUtils.boundingBox(lat, lng, radiusMeters);
+        }
+
+        /** 오차 maxErrorMeters 이내 거리 */
+        public double distanceMeters(double lat2, double lng2) {
+            double dLat = Math.toRadians(lat2 - lat);
+            double dLon = Math.toRadians(lng2 - lng);
+            if (dLon > Math.PI) dLon -= 2 * Math.PI;
+            else if (dLon < -Math.PI) dLon += 2 * Math.PI;
+
+            // cos(중간 위도)를 기준점 cos/sin 으로 테일러 전개 (삼각함수 호출 없음)
+            double h = dLat / 2;
+            double cosMid = cosLat - sinLat * h - cosLat * h * h / 2;
+            double x = dLon * cosMid;
+            double d = EARTH_RADIUS * Math.sqrt(x * x + dLat * dLat);
+            return d <= fastLimitMeters ? d : exactMeters(lat2, dLat, dLon);
+        }
+
+        /** haversine (기준점 cos 재사용, 점마다 삼각함수 4회) */
+        public double exactMeters(double lat2, double lng2) {
+            return exactMeters(lat2, Math.toRadians(lat2 - lat), Math.toRadians(lng2 - lng));
+        }
+
+        private double exactMeters(double lat2, double dLat, double dLon) {
+            double sLat = Math.sin(dLat / 2), sLon = Math.sin(dLon / 2);
+            double a = sLat * sLat + cosLat * Math.cos(Math.toRadians(lat2)) * sLon * sLon;
+            return 2 * EARTH_RADIUS * Math.asin(Math.min(1, Math.sqrt(a)));
+        }
+
+        /** out[i] = (lats[i], lngs[i])까지 거리, i ∈ [0, n) */
+        public double[] distancesMeters(double[] lats, double[] lngs, int n, double[] out) {
+            for (int i = 0; i < n; i++) out[i] = distanceMeters(lats[i], lngs[i]);
+            return out;
+        }
+
+        /**
+         * radius 이내 점만 골라 idx/dist 앞쪽에 채우고 개수를 반환한다.
+         * 박스 밖 점은 거리 계산 없이 건너뛴다.
+         */
+        public int withinRadius(double[] lats, double[] lngs, int n, double radiusMeters, int[] idx, double[] dist) {
+            BoundingBox box = boundingBox(radiusMeters);
+            int count = 0;
+            for (int i = 0; i < n; i++) {
+                double pLat = lats[i], pLng = lngs[i];
+                if (!box.contains(pLat, pLng)) continue;
+                double d = distanceMeters(pLat, pLng);
+                if (d <= radiusMeters) {
+                    idx[count] = i;
+                    dist[count] = d;
+                    count++;
+                }
+            }
+            return count;
+        }
+    }
 }
@@ -0,0 +1,208 @@
+package org.crumb.be.search.util;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * 문자 2~4-gram 역색인 (한글은 띄어쓰기가 제각각이라 공백을 지우고 자른다).
+ * gram은 UTF-16 문자 4개를 16비트씩 담은 long 키로 정렬 보관하고,
+ * 포스팅은 (문서 * 필드 수 + 필드) 오름차순을 delta + varint로 압축한 byte[] 하나에 이어 붙인다.
+ * 점수 = 일치한 gram의 idf × 필드 가중치 합 / 질의 gram의 idf 합 (0~1, 질의 커버리지).
+ */
+public final class NGramIndex {
+
+    public static final int MIN_GRAM = 2;
+    public static final int MAX_GRAM = 4;
+
+    private final int docCount;
+    private final double[] fieldWeights;
+    private final long[] grams;       // 정렬된 gram 키
+    private final int[] offsets;      // grams[i]의 포스팅 = postings[offsets[i], offsets[i+1])
+    private final int[] docFreq;      // gram이 나온 문서 수
+    private final byte[] postings;
+
+    private NGramIndex(int docCount, double[] fieldWeights, long[] grams, int[] offsets, int[] docFreq, byte[] postings) {
+        this.docCount = docCount;
+        this.fieldWeights = fieldWeights;
+        this.grams = grams;
+        this.offsets = offsets;
+        this.docFreq = docFreq;
+        this.postings = postings;
+    }
+
+    /**
+     * @param docs         docs.get(d)[f] = 문서 d의 필드 f 텍스트 (null 가능)
+     * @param fieldWeights 필드별 가중치 (예: 이름 1.0, 대표 메뉴 0.8, 소개 0.6)
+     */
+    public static NGramIndex build(List<String[]> docs, double[] fieldWeights) {
+        int fields = fieldWeights.length;
+        Map<Long, int[]> lists = new HashMap<>(); // [0] = 길이, [1..] = 엔트리
+        for (int d = 0; d < docs.size(); d++) {
+            String[] doc = docs.get(d);
+            for (int f = 0; f < fields; f++) {
+                int entry = d * fields + f;
+                for (long g : gramsOf(f < doc.length ? doc[f] : null)) {
+                    int[] list = lists.get(g);
+                    if (list == null) {
+                        list = new int[5];
+                    } else if (list[list[0]] == entry) {
+                        continue; // 같은 필드 안의 반복
+                    } else if (list[0] + 1 == list.length) {
+                        list = Arrays.copyOf(list, list.length * 2);
+                    }
+                    list[++list[0]] = entry;
+                    lists.put(g, list);
+                }
+            }
+        }
+
+        long[] keys = lists.keySet().stream().mapToLong(Long::longValue).sorted().toArray();
+        int[] offsets = new int[keys.length + 1];
+        int[] docFreq = new int[keys.length];
+        VarintWriter out = new VarintWriter(keys.length * 4);
+        for (int i = 0; i < keys.length; i++) {
+            int[] list = lists.get(keys[i]);
+            offsets[i] = out.size;
+            int prev = 0, prevDoc = -1, df = 0;
+            for (int j = 1; j <= list[0]; j++) {
+                out.write(list[j] - prev);
+                prev = list[j];
+                int doc = list[j] / fields;
+                if (doc != prevDoc) { df++; prevDoc = doc; }
+            }
+            docFreq[i] = df;
+        }
+        offsets[keys.length] = out.size;
+        return new NGramIndex(docs.size(), fieldWeights.clone(), keys, offsets, docFreq, out.toArray());
+    }
+
+    public int docCount() {
+        return docCount;
+    }
+
+    public int gramCount() {
+        return grams.length;
+    }
+
+    /** 압축된 포스팅 크기 (byte) */
+    public int postingBytes() {
+        return postings.length;
+    }
+
+    /**
+     * 질의와 겹치는 문서의 커버리지 점수를 scores[doc]에 채우고, 점수가 있는 문서 목록을 반환한다.
+     * scores는 docCount 이상 크기의 0으로 초기화된 배열이어야 한다.
+     */
+    public int[] search(String query, double[] scores) {
+        long[] qGrams = Arrays.stream(gramsOf(query)).distinct().toArray();
+        if (qGrams.length == 0 || docCount == 0) return new int[0];
+
+        int fields = fieldWeights.length;
+        double total = 0;
+        int[] touched = new int[16];
+        int touchedCount = 0;
+        double[] best = new double[docCount]; // 이 gram에서 문서별 최대 필드 가중치
+        int[] bestDocs = new int[16];
+        for (long g : qGrams) {
+            int i = Arrays.binarySearch(grams, g);
+            // 색인에 없는 gram도 분모에는 들어간다 (가장 드문 gram 취급)
+            double idf = Math.log(1 + (double) docCount / (i >= 0 ? docFreq[i] : 1));
+            total += idf;
+            if (i < 0) continue;
+
+            int bestCount = 0;
+            int entry = 0;
+            for (int p = offsets[i], end = offsets[i + 1]; p < end; ) {
+                int delta = 0, shift = 0;
+                byte b;
+                do {
+                    b = postings[p++];
+                    delta |= (b & 0x7f) << shift;
+                    shift += 7;
+                } while (b < 0);
+                entry += delta;
+                int doc = entry / fields;
+                double w = fieldWeights[entry % fields];
+                if (best[doc] == 0) {
+                    if (bestCount == bestDocs.length) bestDocs = Arrays.copyOf(bestDocs, bestCount * 2);
+                    bestDocs[bestCount++] = doc;
+                }
+                if (w > best[doc]) best[doc] = w;
+            }
+            for (int k = 0; k < bestCount; k++) {
+                int doc = bestDocs[k];
+                if (scores[doc] == 0) {
+                    if (touchedCount == touched.length) touched = Arrays.copyOf(touched, touchedCount * 2);
+                    touched[touchedCount++] = doc;
+                }
+                scores[doc] += idf * best[doc];
+                best[doc] = 0;
+            }
+        }
+        for (int k = 0; k < touchedCount; k++) scores[touched[k]] /= total;
+        return Arrays.copyOf(touched, touchedCount);
+    }
+
+    /** 정규화(NFKC, 소문자, 공백 제거) 후 2~4-gram 키. 질의가 한 글자면 그 글자 하나 */
+    static long[] gramsOf(String text) {
+        if (text == null) return new long[0];
+        String s = normalize(text);
+        int n = s.length();
+        if (n == 0) return new long[0];
+        if (n < MIN_GRAM) return new long[]{key(s, 0, n)};
+
+        List<Long> out = new ArrayList<>();
+        for (int len = MIN_GRAM; len <= MAX_GRAM; len++) {
+            for (int i = 0; i + len <= n; i++) out.add(key(s, i, len));
+        }
+        long[] keys = new long[out.size()];
+        for (int i = 0; i < keys.length; i++) keys[i] = out.get(i);
+        return keys;
+    }
+
+    static String normalize(String text) {
+        String n = Normalizer.normalize(text, Normalizer.Form.NFKC).toLowerCase(Locale.ROOT);
+        StringBuilder sb = new StringBuilder(n.length());
+        for (int i = 0; i < n.length(); i++) {
+            char c = n.charAt(i);
+            if (!Character.isWhitespace(c) && !Character.isISOControl(c)) sb.append(c);
+        }
+        return sb.toString();
+    }
+
+    /** 짧은 gram은 뒤를 0으로 채운다 (정규화에서 제어 문자를 지우므로 실제 0 문자와 겹치지 않음) */
+    private static long key(String s, int from, int len) {
+        long k = 0;
+        for (int j = 0; j < MAX_GRAM; j++) {
+            k = (k << 16) | (j < len ? s.charAt(from + j) : 0);
+        }
+        return k;
+    }
+
+    private static final class VarintWriter {
+        private byte[] buf;
+        private int size;
+
+        VarintWriter(int capacity) {
+            buf = new byte[Math.max(capacity, 16)];
+        }
+
+        void write(int v) {
+            if (size + 5 > buf.length) buf = Arrays.copyOf(buf, buf.length * 2);
+            while ((v & ~0x7f) != 0) {
+                buf[size++] = (byte) ((v & 0x7f) | 0x80);
+                v >>>= 7;
+            }
+            buf[size++] = (byte) v;
+        }
+
+        byte[] toArray() {
+            return Arrays.copyOf(buf, size);
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package org.crumb.be.search.util;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.ToDoubleFunction;
+import java.util.regex.Pattern;
+
+/**
+ * 이름 + 거리 기준 중복 제거 (공간 해시).
+ * 이름은 항목당 한 번만 정규화하고, threshold 크기 격자 셀에 넣어 같은 이름 키를 가진 인접 3x3 셀만 비교한다.
+ * 먼저 들어온 항목이 남으므로 여러 제공자 결과를 우선순위 순서대로 offer 하면 병합에도 쓸 수 있다.
+ */
+public final class SpatialDeduplicator<T> {
+
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final double METERS_PER_DEG = 6371000 * Math.PI / 180;
+    // 기준 위도 하나로 경도를 투영하므로 넓은 범위(수십 km)의 왜곡을 셀 크기 여유로 흡수
+    private static final double CELL_MARGIN = 1.1;
+
+    private record CellKey(String name, long cx, long cy) {}
+
+    private final Function<? super T, String> nameOf;
+    private final ToDoubleFunction<? super T> latOf;
+    private final ToDoubleFunction<? super T> lngOf;
+    private final double thresholdMeters;
+    private final double cellMeters;
+
+    private final Map<CellKey, List<T>> cells = new HashMap<>();
+    private final List<T> result = new ArrayList<>();
+    private double cosRef = Double.NaN;
+
+    public SpatialDeduplicator(Function<? super T, String> nameOf,
+                               ToDoubleFunction<? super T> latOf,
+                               ToDoubleFunction<? super T> lngOf,
+                               double thresholdMeters) {
+        this.nameOf = nameOf;
+        this.latOf = latOf;
+        this.lngOf = lngOf;
+        this.thresholdMeters = thresholdMeters;
+        this.cellMeters = thresholdMeters * CELL_MARGIN;
+    }
+
+    /** @return 새 항목이면 true, 이미 있는 항목의 중복이면 false */
+    public boolean offer(T item) {
+        return offerOrMatch(item) == null;
+    }
+
+    /** 이미 있는 항목의 중복이면 그 항목(넣지 않음), 새 항목이면 넣고 null */
+    public T offerOrMatch(T item) {
+        double lat = latOf.applyAsDouble(item), lng = lngOf.applyAsDouble(item);
+        if (Double.isNaN(cosRef)) cosRef = Math.cos(Math.toRadians(lat));
+
+        String name = normalizeName(nameOf.apply(item));
+        var origin = GeoUtils.origin(lat, lng);
+        long cx = (long) Math.floor(lng * METERS_PER_DEG * cosRef / cellMeters);
+        long cy = (long) Math.floor(lat * METERS_PER_DEG / cellMeters);
+
+        for (long dx = -1; dx <= 1; dx++) {
+            for (long dy = -1; dy <= 1; dy++) {
+                List<T> bucket = cells.get(new CellKey(name, cx + dx, cy + dy));
+                if (bucket == null) continue;
+                for (T other : bucket) {
+                    if (origin.distanceMeters(latOf.applyAsDouble(other), lngOf.applyAsDouble(other)) < thresholdMeters)
+                        return other;
+                }
+            }
+        }
+        cells.computeIfAbsent(new CellKey(name, cx, cy), k -> new ArrayList<>(1)).add(item);
+        result.add(item);
+        return null;
+    }
+
+    public SpatialDeduplicator<T> offerAll(Iterable<? extends T> items) {
+        for (T item : items) offer(item);
+        return this;
+    }
+
+    /** 남은 항목 (offer 순서 유지) */
+    public List<T> result() {
+        return result;
+    }
+
+    public static String normalizeName(String s) {
+        if (s == null) return "";
+        String n = Normalizer.normalize(s, Normalizer.Form.NFKC);
+        return WHITESPACE.matcher(n).replaceAll("").toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,192 @@
+package org.crumb.be.search.util;
+
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * 위/경도 격자 버킷 기반 정적 공간 인덱스.
+ * 좌표는 셀 순서로 정렬된 primitive 배열에 보관하고, 조회 결과는 재사용 가능한 {@link Hits} 버퍼에 담아
+ * 50km 반경 질의에서도 후보마다 객체를 만들지 않는다.
+ */
+public final class SpatialGridIndex {
+
+    private static final double METERS_PER_DEG_LAT = 6371000 * Math.PI / 180; // GeoUtils와 같은 지구 반지름
+
+    private final double cellDeg;
+    private final long[] cellKeys;  // 비어 있지 않은 셀 키 (정렬)
+    private final int[] cellStart;  // cellKeys[i]의 점 범위 = [cellStart[i], cellStart[i+1])
+    private final double[] lats;    // 셀 순서로 정렬된 좌표
+    private final double[] lngs;
+    private final int[] ids;        // 원본 배열에서의 위치
+
+    private SpatialGridIndex(double cellDeg, long[] cellKeys, int[] cellStart,
+                             double[] lats, double[] lngs, int[] ids) {
+        this.cellDeg = cellDeg;
+        this.cellKeys = cellKeys;
+        this.cellStart = cellStart;
+        this.lats = lats;
+        this.lngs = lngs;
+        this.ids = ids;
+    }
+
+    /** NaN 좌표는 인덱스에서 제외된다. 조회 결과의 id는 입력 배열의 위치 */
+    public static SpatialGridIndex build(double[] lat, double[] lng, double cellDeg) {
+        int n = 0;
+        Integer[] order = new Integer[lat.length];
+        for (int i = 0; i < lat.length; i++) {
+            if (!Double.isNaN(lat[i]) && !Double.isNaN(lng[i])) order[n++] = i;
+        }
+        order = Arrays.copyOf(order, n);
+
+        long[] keyOf = new long[lat.length];
+        for (int i : order) keyOf[i] = key(row(lat[i], cellDeg), col(lng[i], cellDeg));
+        Arrays.sort(order, Comparator.comparingLong(i -> keyOf[i]));
+
+        double[] sLat = new double[n], sLng = new double[n];
+        int[] sIds = new int[n];
+        long[] keys = new long[n];
+        int[] starts = new int[n + 1];
+        int cells = 0;
+        for (int j = 0; j < n; j++) {
+            int i = order[j];
+            sLat[j] = lat[i];
+            sLng[j] = lng[i];
+            sIds[j] = i;
+            if (cells == 0 || keys[cells - 1] != keyOf[i]) {
+                keys[cells] = keyOf[i];
+                starts[cells] = j;
+                cells++;
+            }
+        }
+        starts[cells] = n;
+        return new SpatialGridIndex(cellDeg, Arrays.copyOf(keys, cells), Arrays.copyOf(starts, cells + 1),
+                sLat, sLng, sIds);
+    }
+
+    public int size() {
+        return ids.length;
+    }
+
+    /** 반경 내 모든 점을 out에 담는다 (정렬하지 않음) */
+    public Hits withinRadius(double lat, double lng, double radiusMeters, Hits out) {
+        out.clear();
+        var origin = GeoUtils.origin(lat, lng);
+        var box = origin.boundingBox(radiusMeters);
+
+        int c0 = col(box.minLng(), cellDeg), c1 = col(box.maxLng(), cellDeg);
+        for (int r = row(box.minLat(), cellDeg), r1 = row(box.maxLat(), cellDeg); r <= r1; r++) {
+            long hi = key(r, c1);
+            for (int c = lowerBound(key(r, c0)); c < cellKeys.length && cellKeys[c] <= hi; c++) {
+                for (int p = cellStart[c], end = cellStart[c + 1]; p < end; p++) {
+                    double pLat = lats[p], pLng = lngs[p];
+                    if (!box.contains(pLat, pLng)) continue;
+                    double d = origin.distanceMeters(pLat, pLng);
+                    if (d <= radiusMeters) out.add(ids[p], d);
+                }
+            }
+        }
+        return out;
+    }
+
+    /** 가까운 순 최대 k개 (maxRadiusMeters 이내). 반경을 두 배씩 넓혀가며 찾는다 */
+    public Hits nearest(double lat, double lng, int k, double maxRadiusMeters, Hits out) {
+        double r = Math.min(cellDeg * METERS_PER_DEG_LAT, maxRadiusMeters);
+        while (true) {
+            withinRadius(lat, lng, r, out);
+            if (out.size >= k || r >= maxRadiusMeters) break;
+            r = Math.min(r * 2, maxRadiusMeters);
+        }
+        out.keepNearest(k);
+        return out;
+    }
+
+    private int lowerBound(long key) {
+        int lo = 0, hi = cellKeys.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (cellKeys[mid] < key) lo = mid + 1; else hi = mid;
+        }
+        return lo;
+    }
+
+    private static int row(double lat, double cellDeg) {
+        return (int) Math.floor(lat / cellDeg);
+    }
+
+    private static int col(double lng, double cellDeg) {
+        return (int) Math.floor(lng / cellDeg);
+    }
+
+    /** 행(부호 있음) 상위 32비트 + 열(오프셋 적용) 하위 32비트 → 같은 행 안에서 열 순서 유지 */
+    private static long key(int row, int col) {
+        return ((long) row << 32) | ((col + 0x8000_0000L) & 0xffff_ffffL);
+    }
+
+    /** 조회 결과 버퍼 (id, 거리). 요청 간 재사용하면 추가 할당이 없다 */
+    public static final class Hits {
+        private int[] ids;
+        private double[] dist;
+        private int size;
+
+        public Hits() {
+            this(64);
+        }
+
+        public Hits(int capacity) {
+            ids = new int[Math.max(capacity, 1)];
+            dist = new double[Math.max(capacity, 1)];
+        }
+
+        public int size() { return size; }
+        public int id(int i) { return ids[i]; }
+        public double distance(int i) { return dist[i]; }
+
+        void clear() {
+            size = 0;
+        }
+
+        void add(int id, double d) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+                dist = Arrays.copyOf(dist, size * 2);
+            }
+            ids[size] = id;
+            dist[size] = d;
+            size++;
+        }
+
+        /** 가까운 k개만 남기고 거리 오름차순 정렬 (최대 힙 선택 후 힙 정렬) */
+        void keepNearest(int k) {
+            int m = Math.min(k, size);
+            if (m <= 0) { size = 0; return; }
+            for (int i = m / 2 - 1; i >= 0; i--) siftDown(i, m);
+            for (int i = m; i < size; i++) {
+                if (dist[i] < dist[0]) {
+                    swap(0, i);
+                    siftDown(0, m);
+                }
+            }
+            for (int end = m - 1; end > 0; end--) {
+                swap(0, end);
+                siftDown(0, end);
+            }
+            size = m;
+        }
+
+        private void siftDown(int i, int n) {
+            while (true) {
+                int l = 2 * i + 1, r = l + 1, max = i;
+                if (l < n && dist[l] > dist[max]) max = l;
+                if (r < n && dist[r] > dist[max]) max = r;
+                if (max == i) return;
+                swap(i, max);
+                i = max;
+            }
+        }
+
+        private void swap(int a, int b) {
+            int ti = ids[a]; ids[a] = ids[b]; ids[b] = ti;
+            double td = dist[a]; dist[a] = dist[b]; dist[b] = td;
+        }
+    }
+}
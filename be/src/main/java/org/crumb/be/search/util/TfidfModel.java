@@ -0,0 +1,151 @@
+package org.crumb.be.search.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * 문자 n-gram TF-IDF (FastAPI 추천 서버의 sklearn TfidfVectorizer(analyzer="char", ngram_range=(2,4))와 같은 계산).
+ * - 전처리: 소문자 → 연속 공백(2개 이상)을 공백 하나로 → 코드 포인트 단위 n-gram
+ * - tf = 등장 횟수, idf = ln((1 + n) / (1 + df)) + 1, 문서/질의 벡터 모두 L2 정규화
+ * 문서 벡터는 term id 오름차순 CSR(primitive 배열)로 보관하고, 유사도는 정렬된 희소 벡터 병합으로 계산한다.
+ */
+public final class TfidfModel {
+
+    private static final Pattern WHITE_SPACES = Pattern.compile("\\s\\s+", Pattern.UNICODE_CHARACTER_CLASS);
+
+    private final int minN;
+    private final int maxN;
+    private final Map<String, Integer> vocabulary;
+    private final double[] idf;
+    private final int[] docStart;   // 문서 d의 항 = [docStart[d], docStart[d+1])
+    private final int[] docTerms;
+    private final double[] docWeights;
+
+    private TfidfModel(int minN, int maxN, Map<String, Integer> vocabulary, double[] idf,
+                       int[] docStart, int[] docTerms, double[] docWeights) {
+        this.minN = minN;
+        this.maxN = maxN;
+        this.vocabulary = vocabulary;
+        this.idf = idf;
+        this.docStart = docStart;
+        this.docTerms = docTerms;
+        this.docWeights = docWeights;
+    }
+
+    public static TfidfModel fit(List<String> docs, int minN, int maxN) {
+        Map<String, Integer> vocabulary = new HashMap<>();
+        int[][] termCounts = new int[docs.size()][]; // 문서별 (term, count) 쌍을 term 순으로
+        int[] df = new int[16];
+        for (int d = 0; d < docs.size(); d++) {
+            Map<Integer, Integer> counts = new HashMap<>();
+            for (String g : ngrams(docs.get(d), minN, maxN)) {
+                Integer t = vocabulary.get(g);
+                if (t == null) {
+                    t = vocabulary.size();
+                    vocabulary.put(g, t);
+                }
+                counts.merge(t, 1, Integer::sum);
+            }
+            int[] tc = new int[counts.size() * 2];
+            int k = 0;
+            for (int t : counts.keySet().stream().mapToInt(Integer::intValue).sorted().toArray()) {
+                tc[k++] = t;
+                tc[k++] = counts.get(t);
+                if (t >= df.length) df = Arrays.copyOf(df, Math.max(df.length * 2, t + 1));
+                df[t]++;
+            }
+            termCounts[d] = tc;
+        }
+
+        int n = docs.size();
+        double[] idf = new double[vocabulary.size()];
+        for (int t = 0; t < idf.length; t++) idf[t] = Math.log((1.0 + n) / (1.0 + df[t])) + 1.0;
+
+        int nnz = 0;
+        for (int[] tc : termCounts) nnz += tc.length / 2;
+        int[] docStart = new int[n + 1];
+        int[] docTerms = new int[nnz];
+        double[] docWeights = new double[nnz];
+        int p = 0;
+        for (int d = 0; d < n; d++) {
+            docStart[d] = p;
+            int[] tc = termCounts[d];
+            double norm = 0;
+            for (int k = 0; k < tc.length; k += 2) {
+                double w = tc[k + 1] * idf[tc[k]];
+                docTerms[p + k / 2] = tc[k];
+                docWeights[p + k / 2] = w;
+                norm += w * w;
+            }
+            norm = Math.sqrt(norm);
+            for (int k = 0; k < tc.length / 2; k++) {
+                if (norm > 0) docWeights[p + k] /= norm;
+            }
+            p += tc.length / 2;
+        }
+        docStart[n] = p;
+        return new TfidfModel(minN, maxN, vocabulary, idf, docStart, docTerms, docWeights);
+    }
+
+    public int docCount() {
+        return docStart.length - 1;
+    }
+
+    public int vocabularySize() {
+        return idf.length;
+    }
+
+    /** 질의 벡터 (term id 오름차순, L2 정규화). 사전에 없는 gram은 무시 */
+    public Query query(String text) {
+        Map<Integer, Integer> counts = new HashMap<>();
+        for (String g : ngrams(text, minN, maxN)) {
+            Integer t = vocabulary.get(g);
+            if (t != null) counts.merge(t, 1, Integer::sum);
+        }
+        int[] terms = counts.keySet().stream().mapToInt(Integer::intValue).sorted().toArray();
+        double[] weights = new double[terms.length];
+        double norm = 0;
+        for (int k = 0; k < terms.length; k++) {
+            weights[k] = counts.get(terms[k]) * idf[terms[k]];
+            norm += weights[k] * weights[k];
+        }
+        norm = Math.sqrt(norm);
+        if (norm > 0) for (int k = 0; k < weights.length; k++) weights[k] /= norm;
+        return new Query(terms, weights);
+    }
+
+    /** 코사인 유사도 (두 벡터 모두 정규화되어 있으므로 내적) */
+    public double similarity(Query q, int doc) {
+        int i = 0, j = docStart[doc], end = docStart[doc + 1];
+        double dot = 0;
+        while (i < q.terms.length && j < end) {
+            int a = q.terms[i], b = docTerms[j];
+            if (a == b) dot += q.weights[i++] * docWeights[j++];
+            else if (a < b) i++;
+            else j++;
+        }
+        return dot;
+    }
+
+    public record Query(int[] terms, double[] weights) {
+        public boolean isEmpty() {
+            return terms.length == 0;
+        }
+    }
+
+    static List<String> ngrams(String text, int minN, int maxN) {
+        String s = WHITE_SPACES.matcher(text.toLowerCase(Locale.ROOT)).replaceAll(" ");
+        int[] cps = s.codePoints().toArray();
+        int len = cps.length;
+        List<String> out = new ArrayList<>();
+        for (int n = minN; n <= Math.min(maxN, len); n++) {
+            for (int i = 0; i + n <= len; i++) out.add(new String(cps, i, n));
+        }
+        return out;
+    }
+}
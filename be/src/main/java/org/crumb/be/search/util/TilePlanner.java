@@ -0,0 +1,105 @@
+package org.crumb.be.search.util;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 넓은 반경 검색을 작은 원(타일)으로 나누는 계획기.
+ * 타일은 레벨별 전역 격자에 고정되어 있어서, 겹치는 검색끼리 같은 타일(= 같은 캐시 키)을 공유한다.
+ * 레벨 L 타일 반경 = baseRadius / 2^L, 격자 한 칸은 그 원에 내접하는 정사각형.
+ */
+public final class TilePlanner {
+
+    private static final double METERS_PER_DEG = 6371000 * Math.PI / 180;
+
+    public record Tile(int level, long row, long col,
+                       double lat, double lng, double radiusMeters,
+                       double minLat, double maxLat, double minLng, double maxLng) {
+
+        public String key() {
+            return level + ":" + row + ":" + col;
+        }
+
+        /** 점에서 타일 사각형까지의 최소 거리 (안에 있으면 0) */
+        public double minDistanceMeters(double pLat, double pLng) {
+            double cLat = Math.max(minLat, Math.min(maxLat, pLat));
+            double cLng = Math.max(minLng, Math.min(maxLng, pLng));
+            return GeoUtils.haversineMeters(pLat, pLng, cLat, cLng);
+        }
+    }
+
+    private final double baseRadiusMeters;
+    private final int maxLevel;
+
+    /** @param minRadiusMeters 이보다 작은 타일로는 더 쪼개지 않는다 */
+    public TilePlanner(double baseRadiusMeters, double minRadiusMeters) {
+        this.baseRadiusMeters = baseRadiusMeters;
+        int level = 0;
+        while (radiusAt(level + 1) >= minRadiusMeters) level++;
+        this.maxLevel = level;
+    }
+
+    public double radiusAt(int level) {
+        return baseRadiusMeters / (1L << level);
+    }
+
+    /** 타일 반경이 radiusMeters 이하가 되는 가장 얕은 레벨 */
+    public int levelFor(double radiusMeters) {
+        int level = 0;
+        while (level < maxLevel && radiusAt(level) > radiusMeters) level++;
+        return level;
+    }
+
+    public boolean canSplit(Tile tile) {
+        return tile.level() < maxLevel;
+    }
+
+    /** (lat, lng, radius) 원과 겹치는 level 타일 전부 */
+    public List<Tile> cover(double lat, double lng, double radiusMeters, int level) {
+        double latStep = latStep(level);
+        var box = GeoUtils.boundingBox(lat, lng, radiusMeters);
+
+        List<Tile> tiles = new ArrayList<>();
+        for (long row = (long) Math.floor(box.minLat() / latStep), r1 = (long) Math.floor(box.maxLat() / latStep); row <= r1; row++) {
+            double lngStep = lngStep(level, row);
+            for (long col = (long) Math.floor(box.minLng() / lngStep), c1 = (long) Math.floor(box.maxLng() / lngStep); col <= c1; col++) {
+                Tile t = tile(level, row, col);
+                if (t.minDistanceMeters(lat, lng) <= radiusMeters) tiles.add(t);
+            }
+        }
+        return tiles;
+    }
+
+    /** 한 단계 아래 레벨에서 이 타일을 덮는 타일들 */
+    public List<Tile> children(Tile parent) {
+        int level = parent.level() + 1;
+        List<Tile> tiles = new ArrayList<>(6);
+        for (long row = parent.row() * 2; row <= parent.row() * 2 + 1; row++) {
+            double lngStep = lngStep(level, row);
+            long c0 = (long) Math.floor(parent.minLng() / lngStep);
+            long c1 = (long) Math.ceil(parent.maxLng() / lngStep) - 1;
+            for (long col = c0; col <= c1; col++) tiles.add(tile(level, row, col));
+        }
+        return tiles;
+    }
+
+    private Tile tile(int level, long row, long col) {
+        double latStep = latStep(level), lngStep = lngStep(level, row);
+        double minLat = row * latStep, minLng = col * lngStep;
+        return new Tile(level, row, col,
+                minLat + latStep / 2, minLng + lngStep / 2, radiusAt(level),
+                minLat, minLat + latStep, minLng, minLng + lngStep);
+    }
+
+    private double latStep(int level) {
+        return radiusAt(level) * Math.sqrt(2) / METERS_PER_DEG;
+    }
+
+    /** 행마다 적도 쪽 가장자리(가장 넓은 곳) 기준으로 경도 폭을 정해 정사각형이 원 안에 들어가게 한다 */
+    private double lngStep(int level, long row) {
+        double latStep = latStep(level);
+        double lo = row * latStep, hi = lo + latStep;
+        double equatorward = (lo <= 0 && hi >= 0) ? 0 : Math.min(Math.abs(lo), Math.abs(hi));
+        return latStep / Math.cos(Math.toRadians(equatorward));
+    }
+}
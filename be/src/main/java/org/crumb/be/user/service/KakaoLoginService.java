@@ -1,13 +1,20 @@
 package org.crumb.be.user.service;
 
+import io.netty.channel.ChannelOption;
 import lombok.extern.slf4j.Slf4j;
 import org.crumb.be.user.dto.KakaoTokenResponseDto;
 import org.crumb.be.user.dto.KakaoUserInfoResponseDto;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestClient;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+
+import java.time.Duration;
 
 @Slf4j
 @Service
@@ -17,6 +24,7 @@ public class KakaoLoginService {
     private final String clientSecret;
     private final RestClient restClientToken;
     private final RestClient restClientUser;
+    private final WebClient webClientUser;
 
     private static final String KAUTH_TOKEN_URL_HOST = "https://kauth.kakao.com";
     private static final String KAUTH_USER_URL_HOST = "https://kapi.kakao.com";
@@ -37,6 +45,14 @@ public class KakaoLoginService {
         this.restClientUser = RestClient.builder()
                 .baseUrl(KAUTH_USER_URL_HOST)
                 .build();
+
+        // 리액티브 컨트롤러용 (요청 스레드를 잡지 않음)
+        this.webClientUser = WebClient.builder()
+                .baseUrl(KAUTH_USER_URL_HOST)
+                .clientConnector(new ReactorClientHttpConnector(HttpClient.create()
+                        .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, 3000)
+                        .responseTimeout(Duration.ofSeconds(3))))
+                .build();
     }
 
     public String getAccessTokenFromKakao(String code) {
@@ -73,6 +89,16 @@ public class KakaoLoginService {
         return userInfo;
     }
 
+    /** getUserInfo와 같은 호출을 논블로킹으로 */
+    public Mono<KakaoUserInfoResponseDto> getUserInfoAsync(String accessToken) {
+        return webClientUser.post()
+                .uri("/v2/user/me")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + accessToken)
+                .retrieve()
+                .bodyToMono(KakaoUserInfoResponseDto.class)
+                .switchIfEmpty(Mono.error(() -> new RuntimeException("Failed to retrieve user info from Kakao")));
+    }
+
     public String logout(String accessToken) {
         String response = restClientUser.post()
                 .uri("/v1/user/logout")
@@ -0,0 +1,48 @@
+package org.crumb.be.bakery.catalog;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BakeryCatalogTest {
+
+    @Test
+    void parsesQuotedCellsWithCommasNewlinesAndQuotes() throws IOException {
+        String csv = "id,name,intro\n"
+                + "1,\"빵집, 본점\",\"첫 줄\n둘째 줄\"\n"
+                + "2,\"\"\"소금\"\" 빵\",\n";
+
+        List<String[]> rows = BakeryCatalog.parseCsv(new StringReader(csv));
+
+        assertThat(rows).hasSize(3);
+        assertThat(rows.get(1)).containsExactly("1", "빵집, 본점", "첫 줄\n둘째 줄");
+        assertThat(rows.get(2)).containsExactly("2", "\"소금\" 빵", "");
+    }
+
+    @Test
+    void handlesCrLfBlankLinesAndMissingTrailingNewline() throws IOException {
+        String csv = "id,name\r\n1,a\r\n\r\n2,b";
+
+        List<String[]> rows = BakeryCatalog.parseCsv(new StringReader(csv));
+
+        assertThat(rows).hasSize(3);
+        assertThat(rows.get(1)).containsExactly("1", "a");
+        assertThat(rows.get(2)).containsExactly("2", "b");
+    }
+
+    @Test
+    void stripsBom() throws IOException {
+        List<String[]> rows = BakeryCatalog.parseCsv(new StringReader("\uFEFFid,name\n1,a\n"));
+
+        assertThat(rows.get(0)).containsExactly("id", "name");
+    }
+
+    @Test
+    void emptyInputHasNoRows() throws IOException {
+        assertThat(BakeryCatalog.parseCsv(new StringReader(""))).isEmpty();
+    }
+}
@@ -0,0 +1,83 @@
+package org.crumb.be.client;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.crumb.be.client.resilience.CallRejectedException;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class FastapiRecommendClientTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AtomicBoolean hang = new AtomicBoolean();
+    private final AtomicBoolean batchFails = new AtomicBoolean();
+    private final AtomicInteger sent = new AtomicInteger();
+
+    // 빠른 응답은 바로, hang이면 응답 없음 (헤지 요청도). 첫 호출 예열이 느린 호출로 세지지 않게 slow-call은 넉넉히
+    private final FastapiRecommendClient client = new FastapiRecommendClient(
+            WebClient.builder().exchangeFunction(request -> {
+                sent.incrementAndGet();
+                if (hang.get()) return Mono.never();
+                if (batchFails.get() && request.url().getPath().endsWith("/batch")) {
+                    return Mono.just(ClientResponse.create(HttpStatus.INTERNAL_SERVER_ERROR).body("boom").build());
+                }
+                return Mono.just(ClientResponse.create(HttpStatus.OK)
+                        .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                        .body("[]").build());
+            }).build(),
+            meterRegistry,
+            Duration.ofSeconds(2), 64,
+            50, 20, 50, Duration.ofSeconds(10), Duration.ofSeconds(30), 5,
+            true, 95, Duration.ofMillis(50));
+
+    @Test
+    void hedgedCallThatMissesDeadlineIsOneBreakerFailure() {
+        // 헤지 기준 지연이 잡히도록 (LatencyTracker 최소 표본 + 재계산 주기)
+        for (int i = 0; i < 40; i++) assertThat(client.recommend(37.5, 127.0, List.of(), 1000, 10).block()).isEmpty();
+
+        hang.set(true);
+        sent.set(0);
+        assertThatThrownBy(() -> client.recommend(37.5, 127.0, List.of(), 1000, 10).block())
+                .isInstanceOf(CallRejectedException.class);
+
+        assertThat(sent).hasValue(2); // 원 요청 + 헤지
+        assertThat(meterRegistry.counter("recommend.fastapi.hedged").count()).isEqualTo(1);
+        // 40건 성공 + 실패 1건 (요청 두 개가 각각 실패로 세지면 2/42)
+        assertThat(failureRate("single")).isEqualTo(100.0 / 41);
+    }
+
+    @Test
+    void batchFailuresDoNotOpenSingleCallBreaker() {
+        batchFails.set(true);
+        for (int i = 0; i < 20; i++) {
+            assertThatThrownBy(() -> client.recommendBatch(List.<double[]>of(new double[]{37.5, 127.0}),
+                    List.of(), 1000, 10).block()).isNotNull();
+        }
+
+        assertThat(failureRate("batch")).isEqualTo(100);
+        assertThat(failureRate("single")).isZero();
+        assertThat(gauge("recommend.fastapi.circuit.state", "batch", "open")).isEqualTo(1);
+        assertThat(gauge("recommend.fastapi.circuit.state", "single", "closed")).isEqualTo(1);
+        assertThat(client.recommend(37.5, 127.0, List.of(), 1000, 10).block()).isEmpty();
+    }
+
+    private double failureRate(String call) {
+        return meterRegistry.get("recommend.fastapi.circuit.failure.rate").tag("call", call).gauge().value();
+    }
+
+    private double gauge(String name, String call, String state) {
+        return meterRegistry.get(name).tag("call", call).tag("state", state).gauge().value();
+    }
+}
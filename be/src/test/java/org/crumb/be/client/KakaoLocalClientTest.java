@@ -0,0 +1,85 @@
+package org.crumb.be.client;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.crumb.be.bakery.service.BakeryUpsertService;
+import org.crumb.be.recommend.dto.KakaoSearchResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.Mockito.mock;
+
+class KakaoLocalClientTest {
+
+    // A: 리더 기준 약 11m 남쪽, B: 약 13m 북쪽 (카카오는 리더 좌표 기준 거리순으로 준다)
+    private static final String BODY = """
+            {"documents": [
+              {"id": "A", "place_name": "남쪽빵집", "x": "127.0", "y": "37.4999", "distance": "11"},
+              {"id": "B", "place_name": "북쪽빵집", "x": "127.0", "y": "37.50012", "distance": "13"}
+            ], "meta": {"total_count": 2, "pageable_count": 2, "is_end": true}}
+            """;
+
+    private final List<URI> sent = new CopyOnWriteArrayList<>();
+    private final KakaoLocalClient client = new KakaoLocalClient(
+            WebClient.builder().exchangeFunction(request -> {
+                sent.add(request.url());
+                return Mono.just(ClientResponse.create(HttpStatus.OK)
+                        .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                        .body(BODY).build());
+            }).build(),
+            mock(BakeryUpsertService.class),
+            new SimpleMeterRegistry(),
+            Duration.ofSeconds(3), 4, 100);
+
+    @Test
+    void sendsOriginalQueryAndCoordinates() {
+        client.keywordSearch("  Crumb  소금빵 ", 37.500004, 127.000004, 500, 15).block();
+
+        assertThat(sent).hasSize(1);
+        var params = UriComponentsBuilder.fromUri(sent.get(0)).build(true).getQueryParams();
+        assertThat(decode(params.getFirst("query"))).isEqualTo("  Crumb  소금빵 ");
+        assertThat(params.getFirst("y")).isEqualTo("37.500004");
+        assertThat(params.getFirst("x")).isEqualTo("127.000004");
+    }
+
+    @Test
+    void sharedResponseIsRerankedFromEachCallersPoint() {
+        var leader = client.keywordSearch("소금빵", 37.50000, 127.0, 500, 15).block();
+        // 반올림하면 같은 키 (37.5000): 카카오 호출 없이 공유
+        var follower = client.keywordSearch("소금빵 ", 37.50004, 127.0, 500, 15).block();
+
+        assertThat(sent).hasSize(1);
+        assertThat(leader.documents()).extracting(KakaoSearchResponse.Document::id, KakaoSearchResponse.Document::distance)
+                .containsExactly(tuple("A", "11"), tuple("B", "13"));
+        assertThat(follower.documents()).extracting(KakaoSearchResponse.Document::id, KakaoSearchResponse.Document::distance)
+                .containsExactly(tuple("B", "9"), tuple("A", "16"));
+    }
+
+    @Test
+    void rerankDropsDocumentsOutsideCallersRadius() {
+        var shared = client.keywordSearch("소금빵", 37.50000, 127.0, 500, 15).block();
+
+        var reranked = KakaoLocalClient.rerank(shared, 37.50004, 127.0, 12);
+
+        assertThat(reranked.documents()).extracting(KakaoSearchResponse.Document::id).containsExactly("B");
+        assertThat(reranked.meta()).isEqualTo(shared.meta());
+    }
+
+    private static String decode(String s) {
+        return URLDecoder.decode(s, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,122 @@
+package org.crumb.be.client.resilience;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CircuitBreakerTest {
+
+    private static final long SLOW = 1_000;
+    private static final long OPEN = 10_000;
+
+    private final AtomicLong now = new AtomicLong();
+    // 윈도 10건, 최소 4건, 실패 50% 이상이면 OPEN, HALF_OPEN에서 2건 시험
+    private final CircuitBreaker breaker = new CircuitBreaker(10, 4, 50, SLOW, OPEN, 2, now::get);
+
+    @Test
+    void opensWhenFailureRateReachesThresholdAfterMinimumCalls() {
+        call(false);
+        call(true);
+        call(true);
+        assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.CLOSED); // 3건 < 최소 4건
+
+        call(false);
+        assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.OPEN); // 2/4 = 50%
+        assertThat(breaker.tryAcquire()).isFalse();
+    }
+
+    @Test
+    void slowCallCountsAsFailure() {
+        for (int i = 0; i < 2; i++) call(false);
+        for (int i = 0; i < 2; i++) {
+            assertThat(breaker.tryAcquire()).isTrue();
+            breaker.onResult(SLOW, false);
+        }
+
+        assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.OPEN);
+    }
+
+    @Test
+    void oldResultsSlideOutOfTheWindow() {
+        for (int i = 0; i < 4; i++) call(true);
+        assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.OPEN);
+        openThenClose();
+
+        for (int i = 0; i < 10; i++) call(false);
+        for (int i = 0; i < 4; i++) call(true); // 최근 10건 중 4건 실패
+        assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.CLOSED);
+        assertThat(breaker.failureRatePercent()).isEqualTo(40);
+    }
+
+    @Test
+    void halfOpenClosesAfterTrialCallsSucceed() {
+        tripOpen();
+
+        now.addAndGet(OPEN - 1);
+        assertThat(breaker.tryAcquire()).isFalse(); // 아직 대기 중
+        now.addAndGet(1);
+
+        assertThat(breaker.tryAcquire()).isTrue();
+        assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.HALF_OPEN);
+        assertThat(breaker.tryAcquire()).isTrue();
+        assertThat(breaker.tryAcquire()).isFalse(); // 시험 호출은 2건만
+
+        breaker.onResult(0, false);
+        assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.HALF_OPEN);
+        breaker.onResult(0, false);
+        assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.CLOSED);
+        assertThat(breaker.failureRatePercent()).isZero(); // 윈도를 비우고 다시 센다
+    }
+
+    @Test
+    void halfOpenReopensOnFailure() {
+        tripOpen();
+        now.addAndGet(OPEN);
+
+        assertThat(breaker.tryAcquire()).isTrue();
+        breaker.onResult(0, true);
+
+        assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.OPEN);
+        assertThat(breaker.tryAcquire()).isFalse();
+        now.addAndGet(OPEN); // 다시 연 시각부터 기다린다
+        assertThat(breaker.tryAcquire()).isTrue();
+    }
+
+    @Test
+    void releaseReturnsHalfOpenPermit() {
+        tripOpen();
+        now.addAndGet(OPEN);
+
+        assertThat(breaker.tryAcquire()).isTrue();
+        assertThat(breaker.tryAcquire()).isTrue();
+        assertThat(breaker.tryAcquire()).isFalse();
+        breaker.release();
+        assertThat(breaker.tryAcquire()).isTrue();
+    }
+
+    @Test
+    void lateResultWhileOpenIsIgnored() {
+        tripOpen();
+        breaker.onResult(0, false);
+
+        assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.OPEN);
+    }
+
+    private void tripOpen() {
+        for (int i = 0; i < 4; i++) call(true);
+        assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.OPEN);
+    }
+
+    private void openThenClose() {
+        now.addAndGet(OPEN);
+        for (int i = 0; i < 2; i++) call(false);
+        assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    private void call(boolean error) {
+        assertThat(breaker.tryAcquire()).isTrue();
+        breaker.onResult(0, error);
+    }
+}
@@ -0,0 +1,73 @@
+package org.crumb.be.common.sketch;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CountMinSketchTest {
+
+    @Test
+    void neverUnderestimatesAndStaysWithinErrorBound() {
+        CountMinSketch cms = new CountMinSketch(4, 2048);
+        int[] actual = zipfCounts(5_000, 200_000, 1.1, new Random(42));
+        for (int item = 0; item < actual.length; item++) {
+            if (actual[item] > 0) cms.add(CountMinSketch.hash("q" + item), actual[item]);
+        }
+
+        // 오차 상한 e x N / width 를 넘는 항목은 확률 e^-depth(약 1.8%) 정도
+        long total = Arrays.stream(actual).sum();
+        double bound = Math.E * total / cms.width();
+        int over = 0;
+        for (int item = 0; item < actual.length; item++) {
+            int estimate = cms.estimate(CountMinSketch.hash("q" + item));
+            assertThat(estimate).isGreaterThanOrEqualTo(actual[item]);
+            if (estimate - actual[item] > bound) over++;
+        }
+        assertThat(over).isLessThan(actual.length / 20);
+    }
+
+    @Test
+    void mergeAddsCounters() {
+        CountMinSketch a = new CountMinSketch(3, 64);
+        CountMinSketch b = new CountMinSketch(3, 64);
+        long x = CountMinSketch.hash("소금빵");
+        a.add(x, 3);
+        b.add(x, 4);
+
+        a.merge(b.toArray());
+
+        assertThat(a.estimate(x)).isEqualTo(7);
+        assertThatThrownBy(() -> a.merge(new CountMinSketch(3, 128).toArray()))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void widthRoundsUpToPowerOfTwo() {
+        assertThat(new CountMinSketch(2, 1000).width()).isEqualTo(1024);
+        assertThat(new CountMinSketch(2, 1024).width()).isEqualTo(1024);
+        assertThat(new CountMinSketch(2, 1).width()).isEqualTo(1);
+    }
+
+    @Test
+    void hashSeparatesParts() {
+        assertThat(CountMinSketch.hash("ab", "c")).isNotEqualTo(CountMinSketch.hash("a", "bc"));
+        assertThat(CountMinSketch.hash("wydm", "소금빵")).isEqualTo(CountMinSketch.hash("wydm", "소금빵"));
+    }
+
+    /** 지프 분포(순위 r의 확률 ∝ 1/r^s)로 draws번 뽑은 항목별 횟수 (0번 항목이 가장 흔함) */
+    static int[] zipfCounts(int items, int draws, double s, Random random) {
+        double[] cdf = new double[items];
+        double sum = 0;
+        for (int r = 0; r < items; r++) cdf[r] = sum += 1 / Math.pow(r + 1, s);
+        int[] counts = new int[items];
+        for (int i = 0; i < draws; i++) {
+            int idx = Arrays.binarySearch(cdf, random.nextDouble() * sum);
+            counts[idx < 0 ? -idx - 1 : idx]++;
+        }
+        return counts;
+    }
+}
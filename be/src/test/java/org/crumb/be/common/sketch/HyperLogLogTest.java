@@ -0,0 +1,83 @@
+package org.crumb.be.common.sketch;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+class HyperLogLogTest {
+
+    @Test
+    void estimatesWithinThreeStandardErrors() {
+        // precision 12: 표준 오차 1.04 / 64 ≈ 1.6%
+        for (int n : new int[]{100, 1_000, 10_000, 100_000, 1_000_000}) {
+            HyperLogLog hll = new HyperLogLog(12);
+            for (long v = 0; v < n; v++) hll.add(HyperLogLog.hash(v));
+            assertThat((double) hll.estimate()).as("n=%d", n).isCloseTo(n, within(n * 0.05));
+        }
+    }
+
+    @Test
+    void duplicatesDoNotChangeEstimate() {
+        HyperLogLog hll = new HyperLogLog(12);
+        for (long v = 0; v < 5_000; v++) hll.add(HyperLogLog.hash(v));
+        long once = hll.estimate();
+
+        boolean changed = false;
+        for (int round = 0; round < 3; round++) {
+            for (long v = 0; v < 5_000; v++) changed |= hll.add(HyperLogLog.hash(v));
+        }
+
+        assertThat(changed).isFalse();
+        assertThat(hll.estimate()).isEqualTo(once);
+    }
+
+    @Test
+    void mergeEstimatesUnion() {
+        HyperLogLog a = new HyperLogLog(12);
+        HyperLogLog b = new HyperLogLog(12);
+        HyperLogLog both = new HyperLogLog(12);
+        for (long v = 0; v < 60_000; v++) {
+            long h = HyperLogLog.hash(v);
+            (v < 40_000 ? a : b).add(h);
+            if (v >= 20_000 && v < 40_000) b.add(h); // 2만 개 겹침
+            both.add(h);
+        }
+
+        a.merge(b);
+
+        assertThat(a.toByteArray()).isEqualTo(both.toByteArray());
+        assertThat((double) a.estimate()).isCloseTo(60_000, within(3_000.0));
+        assertThatThrownBy(() -> a.merge(new HyperLogLog(10)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void registersRoundTrip() {
+        HyperLogLog hll = new HyperLogLog(12);
+        for (long v = 0; v < 1_000; v++) hll.add(HyperLogLog.hash(v));
+
+        HyperLogLog copy = HyperLogLog.of(hll.toByteArray());
+
+        assertThat(copy.precision()).isEqualTo(12);
+        assertThat(copy.estimate()).isEqualTo(hll.estimate());
+        assertThatThrownBy(() -> HyperLogLog.of(new byte[100])).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void emptyAndClear() {
+        HyperLogLog hll = new HyperLogLog(4);
+        assertThat(hll.isEmpty()).isTrue();
+        assertThat(hll.estimate()).isZero();
+
+        hll.add(HyperLogLog.hash(1));
+        assertThat(hll.isEmpty()).isFalse();
+        assertThat(hll.estimate()).isEqualTo(1);
+
+        hll.clear();
+        assertThat(hll.isEmpty()).isTrue();
+        assertThatThrownBy(() -> new HyperLogLog(3)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new HyperLogLog(17)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,76 @@
+package org.crumb.be.common.sketch;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SpaceSavingTest {
+
+    @Test
+    void findsZipfTopTenWithBoundedCounts() {
+        int[] actual = CountMinSketchTest.zipfCounts(5_000, 200_000, 1.1, new Random(7));
+        // 스트림 순서를 섞어서 (같은 항목이 몰려 들어오지 않게)
+        List<Integer> stream = new ArrayList<>();
+        for (int item = 0; item < actual.length; item++) for (int i = 0; i < actual[item]; i++) stream.add(item);
+        Collections.shuffle(stream, new Random(7));
+
+        SpaceSaving top = new SpaceSaving(64);
+        for (int item : stream) top.offer("q" + item, 1);
+
+        List<String> expected = IntStream.range(0, actual.length).boxed()
+                .sorted(Comparator.comparingInt((Integer i) -> -actual[i]))
+                .limit(10).map(i -> "q" + i).toList();
+        assertThat(top.top(10)).extracting(SpaceSaving.Entry::item).containsExactlyElementsOf(expected);
+
+        // count는 실제 이상, count - error는 실제 이하
+        for (SpaceSaving.Entry e : top.entries()) {
+            int real = actual[Integer.parseInt(e.item().substring(1))];
+            assertThat(e.count()).isGreaterThanOrEqualTo(real);
+            assertThat(e.count() - e.error()).isLessThanOrEqualTo(real);
+        }
+    }
+
+    @Test
+    void newItemTakesOverSmallestCount() {
+        SpaceSaving top = new SpaceSaving(2);
+        top.offer("a", 5);
+        top.offer("b", 2);
+
+        top.offer("c", 1);
+
+        assertThat(top.entries()).containsExactlyInAnyOrder(
+                new SpaceSaving.Entry("a", 5, 0),
+                new SpaceSaving.Entry("c", 3, 2));
+        assertThat(top.upperBound("b")).isEqualTo(3); // 밀려난 항목은 최솟값 이하
+    }
+
+    @Test
+    void upperBoundIsZeroWhileNotFull() {
+        SpaceSaving top = new SpaceSaving(4);
+        top.offer("a", 1);
+
+        assertThat(top.upperBound("missing")).isZero();
+        assertThat(top.upperBound("a")).isEqualTo(1);
+    }
+
+    @Test
+    void restoreFillsOnlyEmptySlots() {
+        SpaceSaving top = new SpaceSaving(2);
+        top.offer("a", 5);
+
+        top.restore("a", 100, 0); // 이미 있음
+        top.restore("b", 7, 1);
+        top.restore("c", 9, 0); // 가득 참
+
+        assertThat(top.top(2)).containsExactly(
+                new SpaceSaving.Entry("b", 7, 1),
+                new SpaceSaving.Entry("a", 5, 0));
+    }
+}
@@ -0,0 +1,153 @@
+package org.crumb.be.common.snapshot;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class SharedAggregateTest {
+
+    // trending_snapshots 한 행
+    private final AtomicReference<TrendingSnapshot> row = new AtomicReference<>();
+    private final TrendingSnapshotRepository repository = mock(TrendingSnapshotRepository.class);
+    private final SnapshotStore store = new SnapshotStore(repository, mock(PlatformTransactionManager.class));
+
+    @BeforeEach
+    void setUp() {
+        when(repository.findWithLockByName(anyString())).thenAnswer(i -> Optional.ofNullable(row.get()));
+        when(repository.findById(anyString())).thenAnswer(i -> Optional.ofNullable(row.get()));
+        when(repository.save(any())).thenAnswer(i -> {
+            row.set(i.getArgument(0));
+            return i.getArgument(0);
+        });
+    }
+
+    @Test
+    void instancesAddTheirOwnShareToTheStoredRow() {
+        SharedAggregate<Map<String, Long>> a = aggregate();
+        SharedAggregate<Map<String, Long>> b = aggregate();
+        a.add(count("소금빵", 3));
+        b.add(count("소금빵", 2));
+        b.add(count("바게트", 1));
+
+        a.sync(0);
+        b.sync(0);
+        a.sync(0); // 새로 더한 게 없으면 저장하지 않음
+
+        SharedAggregate<Map<String, Long>> restarted = aggregate();
+        assertThat(restarted.sync(0)).map(SharedAggregate.Synced::entries).contains(2);
+        assertThat(restarted.view()).containsExactly(Map.entry("바게트", 1L), Map.entry("소금빵", 5L));
+    }
+
+    @Test
+    void restoredTotalsAreNotSavedAgain() {
+        SharedAggregate<Map<String, Long>> a = aggregate();
+        a.add(count("소금빵", 1));
+        a.sync(0);
+
+        SharedAggregate<Map<String, Long>> restarted = aggregate();
+        restarted.sync(0);
+        restarted.add(count("소금빵", 1));
+        restarted.sync(0);
+
+        SharedAggregate<Map<String, Long>> again = aggregate();
+        again.sync(0);
+        assertThat(again.view()).containsExactly(Map.entry("소금빵", 2L));
+    }
+
+    @Test
+    void failedSaveIsAddedOnTheNextOne() {
+        SharedAggregate<Map<String, Long>> a = aggregate();
+        a.add(count("소금빵", 1));
+        when(repository.findWithLockByName(anyString()))
+                .thenThrow(new IllegalStateException("db down"))
+                .thenAnswer(i -> Optional.ofNullable(row.get()));
+        assertThatThrownBy(() -> a.sync(0)).isInstanceOf(IllegalStateException.class);
+        a.add(count("소금빵", 1));
+        a.sync(0);
+
+        SharedAggregate<Map<String, Long>> restarted = aggregate();
+        restarted.sync(0);
+        assertThat(restarted.view()).containsExactly(Map.entry("소금빵", 2L));
+    }
+
+    @Test
+    void instancesServeTheSameTotalsAfterSync() {
+        SharedAggregate<Map<String, Long>> a = aggregate();
+        SharedAggregate<Map<String, Long>> b = aggregate();
+        a.add(count("소금빵", 3));
+        b.add(count("소금빵", 2));
+        b.add(count("바게트", 1));
+        a.sync(0);
+        b.sync(0);
+        a.sync(0); // 새로 더한 게 없으면 읽기만
+
+        assertThat(a.view()).containsExactly(Map.entry("바게트", 1L), Map.entry("소금빵", 5L));
+        assertThat(b.view()).isEqualTo(a.view());
+
+        a.add(count("소금빵", 1)); // 저장 전에도 자기 몫은 바로 보인다
+        assertThat(a.view()).containsEntry("소금빵", 6L);
+        assertThat(b.view()).containsEntry("소금빵", 5L);
+    }
+
+    @Test
+    void failedSyncKeepsTheView() {
+        SharedAggregate<Map<String, Long>> a = aggregate();
+        a.add(count("소금빵", 1));
+        when(repository.findWithLockByName(anyString())).thenThrow(new IllegalStateException("db down"));
+
+        assertThatThrownBy(() -> a.sync(0)).isInstanceOf(IllegalStateException.class);
+        assertThat(a.view()).containsExactly(Map.entry("소금빵", 1L));
+    }
+
+    @Test
+    void restoreWithoutRowIsEmpty() {
+        assertThat(aggregate().sync(0)).isEmpty();
+    }
+
+    private SharedAggregate<Map<String, Long>> aggregate() {
+        return store.aggregate("test", new Counts(), 0);
+    }
+
+    private static Consumer<Map<String, Long>> count(String key, long n) {
+        return m -> m.merge(key, n, Long::sum);
+    }
+
+    private static final class Counts implements SnapshotCodec<Map<String, Long>> {
+        @Override
+        public Map<String, Long> empty(long nowMillis) {
+            return new TreeMap<>();
+        }
+
+        @Override
+        public void write(Map<String, Long> value, DataOutputStream out, long nowMillis) throws IOException {
+            out.writeInt(value.size());
+            for (Map.Entry<String, Long> e : value.entrySet()) {
+                out.writeUTF(e.getKey());
+                out.writeLong(e.getValue());
+            }
+        }
+
+        @Override
+        public int read(DataInputStream in, Map<String, Long> into, long nowMillis) throws IOException {
+            int n = in.readInt();
+            for (int i = 0; i < n; i++) into.merge(in.readUTF(), in.readLong(), Long::sum);
+            return n;
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package org.crumb.be.course.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.crumb.be.common.snapshot.SnapshotStore;
+import org.crumb.be.course.dto.CoursePageResponse;
+import org.crumb.be.course.dto.CourseResponse;
+import org.crumb.be.course.dto.CourseSpotResponse;
+import org.crumb.be.course.entity.Course;
+import org.crumb.be.course.entity.CourseSpot;
+import org.crumb.be.course.repository.CourseRepository;
+import org.crumb.be.course.repository.CourseSpotRepository;
+import org.crumb.be.course.repository.CourseViewCountRepository;
+import org.crumb.be.course.repository.CourseViewerRepository;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 코스 목록/상세의 SQL 문 수 (Hibernate statistics).
+ * 목록은 페이지마다 코스 수와 상관없이 코스 1번 + 스팟 1번이어야 한다 (예전: 코스 200개 → 401번).
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@Import({CourseService.class, CourseFeedAssembler.class,
+        CourseViewCounter.class, CourseViewCountRepository.class,
+        CourseViewerCounter.class, CourseViewerRepository.class, TrendingCourseService.class, SnapshotStore.class,
+        SimpleMeterRegistry.class})
+class CourseFeedQueryCountTest {
+
+    private static final long ME = 1L;
+    private static final long OTHER = 2L;
+    private static final int COURSES = 200;
+    private static final int SPOTS = 3;
+
+    @Autowired CourseService courseService;
+    @Autowired CourseRepository courseRepository;
+    @Autowired CourseSpotRepository courseSpotRepository;
+    @Autowired EntityManager em;
+    @Autowired EntityManagerFactory emf;
+
+    private Long anyPublicCourseId;
+
+    @BeforeEach
+    void seed() {
+        // 짝수: OTHER의 공개 코스, 홀수: ME의 코스 (절반은 비공개)
+        for (int i = 0; i < COURSES; i++) {
+            boolean mine = i % 2 == 1;
+            Course c = courseRepository.save(Course.builder()
+                    .authorId(mine ? ME : OTHER)
+                    .title("course " + i)
+                    .isPublic(!mine || i % 4 == 1)
+                    .build());
+            for (int j = 0; j < SPOTS; j++) {
+                courseSpotRepository.save(CourseSpot.builder()
+                        .courseId(c.getId()).bakeryId(100L + j).note("spot " + j).build());
+            }
+            if (!mine) anyPublicCourseId = c.getId();
+        }
+        em.flush();
+        em.clear();
+    }
+
+    @Test
+    void publicFeedUsesTwoStatementsPerPage() {
+        List<CourseResponse> all = walk(cursor -> courseService.listPublicExcludeMe(ME, cursor, CourseService.MAX_PAGE_SIZE));
+
+        assertThat(all).hasSize(COURSES / 2);
+        assertSpots(all);
+    }
+
+    @Test
+    void myFeedUsesTwoStatementsPerPage() {
+        List<CourseResponse> all = walk(cursor -> courseService.listMine(ME, cursor, CourseService.MAX_PAGE_SIZE));
+
+        assertThat(all).hasSize(COURSES / 2);
+        assertSpots(all);
+    }
+
+    /** nextCursor가 없을 때까지 넘기며 페이지마다 문 수 확인. 전체는 (createdAt, id) 내림차순, 중복 없음 */
+    private List<CourseResponse> walk(Function<String, CoursePageResponse> fetch) {
+        List<CourseResponse> all = new ArrayList<>();
+        String cursor = null;
+        do {
+            Statistics stats = freshStatistics();
+            CoursePageResponse page = fetch.apply(cursor);
+            assertThat(stats.getPrepareStatementCount()).isEqualTo(2);
+            assertThat(page.items()).hasSizeLessThanOrEqualTo(CourseService.MAX_PAGE_SIZE);
+            all.addAll(page.items());
+            cursor = page.nextCursor();
+        } while (cursor != null);
+
+        assertThat(all).extracting(CourseResponse::id).doesNotHaveDuplicates();
+        assertThat(all).isSortedAccordingTo(Comparator.comparing(CourseResponse::createdAt)
+                .thenComparing(CourseResponse::id).reversed());
+        return all;
+    }
+
+    @Test
+    void detailUsesTwoStatements() {
+        Statistics stats = freshStatistics();
+
+        CourseResponse detail = courseService.getDetail(ME, anyPublicCourseId);
+
+        assertThat(stats.getPrepareStatementCount()).isEqualTo(2);
+        assertSpots(List.of(detail));
+    }
+
+    private Statistics freshStatistics() {
+        Statistics stats = emf.unwrap(SessionFactory.class).getStatistics();
+        stats.clear();
+        return stats;
+    }
+
+    private static void assertSpots(List<CourseResponse> courses) {
+        for (CourseResponse c : courses) {
+            assertThat(c.spots()).extracting(CourseSpotResponse::bakeryId).containsExactly(100L, 101L, 102L);
+        }
+    }
+}
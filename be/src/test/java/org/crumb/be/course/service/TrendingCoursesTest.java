@@ -0,0 +1,147 @@
+package org.crumb.be.course.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static org.assertj.core.api.Assertions.withinPercentage;
+
+class TrendingCoursesTest {
+
+    private static final long NOW = 1_759_999_980_000L; // 분 경계
+    private static final long HOUR = 3_600_000L;
+    private static final long MINUTE = 60_000L;
+
+    @Test
+    void findsZipfTopTen() {
+        // 코스 5000개, 조회 10만 회 (순위 r의 확률 ∝ 1/r^1.1), 같은 시각
+        Random random = new Random(42);
+        double[] cdf = new double[5_000];
+        double sum = 0;
+        for (int r = 0; r < cdf.length; r++) cdf[r] = sum += 1 / Math.pow(r + 1, 1.1);
+        int[] actual = new int[cdf.length];
+        List<Integer> views = new ArrayList<>();
+        for (int i = 0; i < 100_000; i++) {
+            int idx = Arrays.binarySearch(cdf, random.nextDouble() * sum);
+            int course = idx < 0 ? -idx - 1 : idx;
+            actual[course]++;
+            views.add(course);
+        }
+        Collections.shuffle(views, random);
+
+        TrendingCourses trending = new TrendingCourses(HOUR, MINUTE, 100, NOW);
+        for (int course : views) trending.add(course, NOW);
+
+        List<Long> expected = IntStream.range(0, actual.length).boxed()
+                .sorted(Comparator.comparingInt((Integer c) -> -actual[c]))
+                .limit(10).map(Integer::longValue).toList();
+        List<TrendingCourses.Trend> top = trending.top(10, NOW);
+        assertThat(top).extracting(TrendingCourses.Trend::courseId).containsExactlyElementsOf(expected);
+        // 감쇠 전이므로 점수 = 조회 수 이상 (밀려난 항목의 점수를 이어받았을 수 있음)
+        for (TrendingCourses.Trend t : top) {
+            assertThat(t.score()).isGreaterThanOrEqualTo(actual[(int) t.courseId()] - 1e-9);
+        }
+        assertThat(trending.size()).isEqualTo(100);
+    }
+
+    @Test
+    void scoreHalvesEveryHalfLife() {
+        TrendingCourses trending = new TrendingCourses(HOUR, MINUTE, 10, NOW);
+        trending.add(1, NOW);
+
+        assertThat(trending.top(1, NOW).get(0).score()).isCloseTo(1.0, within(1e-9));
+        assertThat(trending.top(1, NOW + HOUR).get(0).score()).isCloseTo(0.5, within(1e-9));
+        assertThat(trending.top(1, NOW + 3 * HOUR).get(0).score()).isCloseTo(0.125, within(1e-9));
+    }
+
+    @Test
+    void recentViewsOutrankOlderOnes() {
+        TrendingCourses trending = new TrendingCourses(HOUR, MINUTE, 10, NOW);
+        for (int i = 0; i < 10; i++) trending.add(1, NOW);
+        trending.add(2, NOW + 3 * HOUR);
+        trending.add(2, NOW + 3 * HOUR);
+
+        List<TrendingCourses.Trend> top = trending.top(2, NOW + 3 * HOUR);
+
+        // 2: 2회, 1: 10회 x 2^-3 = 1.25
+        assertThat(top).extracting(TrendingCourses.Trend::courseId).containsExactly(2L, 1L);
+        assertThat(top.get(0).score()).isCloseTo(2.0, within(1e-9));
+        assertThat(top.get(1).score()).isCloseTo(1.25, within(1e-9));
+    }
+
+    @Test
+    void keepsScoresAcrossRescale() {
+        // 반감기 1초, 100초 뒤 조회 -> 가중치 2^100이라 기준 시각을 옮긴다
+        long t0 = 1_000_000L;
+        TrendingCourses trending = new TrendingCourses(1_000, 1, 10, t0);
+        for (int i = 0; i < 5; i++) trending.add(1, t0);
+        trending.add(2, t0 + 100_000);
+        trending.add(3, t0 + 100_000 - 1_000);
+
+        List<TrendingCourses.Trend> top = trending.top(3, t0 + 100_000);
+
+        assertThat(top).extracting(TrendingCourses.Trend::courseId).containsExactly(2L, 3L, 1L);
+        assertThat(top.get(0).score()).isCloseTo(1.0, within(1e-9));
+        assertThat(top.get(1).score()).isCloseTo(0.5, within(1e-9));
+        assertThat(top.get(2).score()).isCloseTo(5 * Math.pow(2, -100), withinPercentage(1e-6));
+    }
+
+    @Test
+    void snapshotRoundTripsIntoLaterInstance() throws IOException {
+        TrendingCourses before = new TrendingCourses(HOUR, MINUTE, 10, NOW);
+        for (int i = 0; i < 4; i++) before.add(1, NOW);
+        before.add(2, NOW + 30 * MINUTE);
+        byte[] snapshot = write(before);
+
+        // 재시작 후 (기준 시각이 다름) 읽고, 그 뒤 조회와 합친다
+        long restartedAt = NOW + 2 * HOUR;
+        TrendingCourses after = new TrendingCourses(HOUR, MINUTE, 10, restartedAt);
+        after.add(2, restartedAt);
+        assertThat(read(after, snapshot)).isEqualTo(2);
+
+        List<TrendingCourses.Trend> expected = before.top(10, restartedAt);
+        List<TrendingCourses.Trend> top = after.top(10, restartedAt);
+        // 2: 2^-1.5 + 1, 1: 4 x 2^-2
+        assertThat(top).extracting(TrendingCourses.Trend::courseId).containsExactly(2L, 1L);
+        assertThat(top.get(0).score()).isCloseTo(expected.get(1).score() + 1, withinPercentage(1e-9));
+        assertThat(top.get(1).score()).isCloseTo(expected.get(0).score(), withinPercentage(1e-9));
+        assertThat(top.get(1).score()).isCloseTo(1.0, within(1e-9));
+    }
+
+    @Test
+    void ignoresSnapshotWithOtherHalfLife() throws IOException {
+        TrendingCourses hour = new TrendingCourses(HOUR, MINUTE, 10, NOW);
+        hour.add(1, NOW);
+        TrendingCourses day = new TrendingCourses(24 * HOUR, MINUTE, 10, NOW);
+
+        assertThat(read(day, write(hour))).isZero();
+        assertThat(day.size()).isZero();
+    }
+
+    private static byte[] write(TrendingCourses trending) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            trending.writeTo(out);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static int read(TrendingCourses trending, byte[] snapshot) throws IOException {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(snapshot))) {
+            return trending.readFrom(in);
+        }
+    }
+}
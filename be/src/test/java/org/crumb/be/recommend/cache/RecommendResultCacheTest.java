@@ -0,0 +1,117 @@
+package org.crumb.be.recommend.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.crumb.be.bakery.catalog.BakeryCatalog;
+import org.crumb.be.recommend.dto.RecommendedBakery;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.DefaultResourceLoader;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RecommendResultCacheTest {
+
+    private static final double LAT = 37.5665;
+    private static final double LNG = 126.9780;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final RecommendResultCache cache = new RecommendResultCache(
+            new BakeryCatalog(new DefaultResourceLoader(), "classpath:catalog/bakeries_clean.csv"), meterRegistry,
+            true, 6, Duration.ofMinutes(1), Duration.ofMinutes(10), 100, 3);
+
+    @Test
+    void fallsBackToDirectFetchWhenTruncatedCandidatesLeaveTooFew() {
+        AtomicInteger direct = new AtomicInteger();
+        RecommendResultCache.CandidateLoader loader = (lat, lng, radius, limit) -> {
+            if (limit == 5) { // 요청 좌표로 직접
+                direct.incrementAndGet();
+                return Mono.just(bakeries(5, 0));
+            }
+            // 셀 중심 기준 꽉 찬 후보 (limit x over-fetch), 앞의 2개만 요청 반경 안
+            List<RecommendedBakery> out = new ArrayList<>(bakeries(2, 0));
+            out.addAll(bakeries(limit - 2, 0.05));
+            return Mono.just(out);
+        };
+
+        var result = cache.get(List.of("소금빵"), LAT, LNG, 1000, 5, loader).block();
+
+        assertThat(result).hasSize(5);
+        assertThat(direct).hasValue(1);
+        assertThat(meterRegistry.counter("recommend.cache.fallback").count()).isEqualTo(1);
+    }
+
+    @Test
+    void keepsCachedResultWhenCandidatesWereNotTruncated() {
+        AtomicInteger calls = new AtomicInteger();
+        RecommendResultCache.CandidateLoader loader = (lat, lng, radius, limit) -> {
+            calls.incrementAndGet();
+            return Mono.just(bakeries(2, 0)); // 받은 반경 안 전부
+        };
+
+        var result = cache.get(List.of("소금빵"), LAT, LNG, 1000, 5, loader).block();
+
+        assertThat(result).hasSize(2);
+        assertThat(calls).hasValue(1);
+        assertThat(meterRegistry.counter("recommend.cache.fallback").count()).isZero();
+    }
+
+    @Test
+    void fallsBackToDirectFetchWhenZeroScoreTailMayHideNearerBakeries() {
+        AtomicInteger direct = new AtomicInteger();
+        RecommendResultCache.CandidateLoader loader = (lat, lng, radius, limit) -> {
+            if (limit == 5) {
+                direct.incrementAndGet();
+                return Mono.just(zeroScored(5, 0, 0));
+            }
+            // 검색어 프로필이 비어 모두 0점: 셀 중심에서 가까운 순으로 잘린 후보가 요청 좌표 북쪽 1.1km에 몰려 있다
+            return Mono.just(zeroScored(limit, 0.01, 0));
+        };
+
+        var result = cache.get(List.of(), LAT, LNG, 2000, 5, loader).block();
+
+        assertThat(result).hasSize(5);
+        assertThat(direct).hasValue(1);
+        assertThat(meterRegistry.counter("recommend.cache.fallback").count()).isEqualTo(1);
+    }
+
+    @Test
+    void keepsCachedResultWhenZeroScoreTailIsFartherThanLimitth() {
+        AtomicInteger calls = new AtomicInteger();
+        RecommendResultCache.CandidateLoader loader = (lat, lng, radius, limit) -> {
+            calls.incrementAndGet();
+            // 요청 좌표에서 약 111m 간격: 5번째는 약 444m, 마지막 후보는 셀 중심에서 1km 넘게 떨어져 있다
+            return Mono.just(zeroScored(limit, 0, 0.001));
+        };
+
+        var result = cache.get(List.of(), LAT, LNG, 2000, 5, loader).block();
+
+        assertThat(result).extracting(RecommendedBakery::id).containsExactly(1L, 2L, 3L, 4L, 5L);
+        assertThat(calls).hasValue(1);
+        assertThat(meterRegistry.counter("recommend.cache.fallback").count()).isZero();
+    }
+
+    /** 0점 빵집 n개, i번째는 요청 좌표에서 위도 offset + i x step */
+    private static List<RecommendedBakery> zeroScored(int n, double latOffset, double step) {
+        List<RecommendedBakery> out = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            long id = i + 1;
+            out.add(new RecommendedBakery(id, "b" + id, null, LAT + latOffset + i * step, LNG, null, null, 0.0));
+        }
+        return out;
+    }
+
+    /** 요청 좌표에서 위도 offset만큼 떨어진 빵집 n개 (점수 내림차순) */
+    private static List<RecommendedBakery> bakeries(int n, double latOffset) {
+        List<RecommendedBakery> out = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            long id = latOffset == 0 ? i + 1 : 1000 + i;
+            out.add(new RecommendedBakery(id, "b" + id, null, LAT + latOffset, LNG, null, null, 1.0 - i * 0.01));
+        }
+        return out;
+    }
+}
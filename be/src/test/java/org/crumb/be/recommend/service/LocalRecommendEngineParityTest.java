@@ -0,0 +1,57 @@
+package org.crumb.be.recommend.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.crumb.be.bakery.catalog.BakeryCatalog;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.DefaultResourceLoader;
+
+import java.io.InputStream;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * FastAPI /recommend 결과와 비교 (같은 bakeries_clean.csv).
+ * 픽스처 재생성: cd recommend && python tools/make_parity_fixture.py (app.recommend 실행, pandas/sklearn 필요)
+ * 기대값은 반드시 app.recommend가 만든 것이어야 한다 (다른 재현 구현과 비교하면 검증이 되지 않음).
+ * 지금 픽스처는 재현 구현이 만든 것(source=replica)이라 건너뛴다. 동등성이 확인되기 전에는 recommend.engine=local로 바꾸지 않는다.
+ */
+class LocalRecommendEngineParityTest {
+
+    @Test
+    void matchesFastApiRecommendations() throws Exception {
+        var catalog = new BakeryCatalog(new DefaultResourceLoader(), "classpath:catalog/bakeries_clean.csv");
+        assertThat(catalog.reload()).isPositive();
+        var engine = new LocalRecommendEngine(catalog);
+
+        JsonNode fixture;
+        try (InputStream in = getClass().getResourceAsStream("/recommend/parity_fixture.json")) {
+            fixture = new ObjectMapper().readTree(in);
+        }
+        assumeTrue("app".equals(fixture.path("source").asText()),
+                "parity_fixture.json is not generated by app.recommend yet (python tools/make_parity_fixture.py)");
+        int radius = fixture.get("radius").asInt();
+        int limit = fixture.get("limit").asInt();
+
+        for (JsonNode c : fixture.get("cases")) {
+            String keywords = c.get("keywords").asText();
+            var actual = engine.recommend(c.get("lat").asDouble(), c.get("lng").asDouble(),
+                    keywords.isEmpty() ? List.of() : List.of(keywords), Set.of(), radius, limit);
+
+            JsonNode expected = c.get("expected");
+            String label = c.get("lat") + "," + c.get("lng") + " [" + keywords + "]";
+            assertThat(actual).as(label).hasSize(expected.size());
+            for (int i = 0; i < expected.size(); i++) {
+                var e = expected.get(i);
+                var a = actual.get(i);
+                assertThat(a.id()).as(label + " #" + i).isEqualTo(e.get("id").asLong());
+                assertThat(a.score()).as(label + " #" + i).isCloseTo(e.get("score").asDouble(), within(1e-9));
+                assertThat(a.distance()).as(label + " #" + i).isCloseTo(e.get("distance").asDouble(), within(1e-6));
+            }
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package org.crumb.be.recommend.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.crumb.be.recommend.repository.SearchHistoryPartitionRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 실제 PostgreSQL에서 파티션 관리 (H2는 파티션 DDL을 못 돌린다).
+ * TEST_POSTGRES_URL=jdbc:postgresql://localhost:5432/crumb?user=...&password=... 일 때만, 임시 스키마에서 돈다.
+ */
+@EnabledIfEnvironmentVariable(named = "TEST_POSTGRES_URL", matches = "jdbc:postgresql:.+")
+class SearchHistoryPartitionServiceTest {
+
+    private static final String SCHEMA = "search_history_partition_test";
+    private static final YearMonth NOW = YearMonth.now(ZoneOffset.UTC);
+
+    private SingleConnectionDataSource dataSource;
+    private JdbcTemplate jdbc;
+    private SearchHistoryPartitionService service;
+
+    @BeforeEach
+    void setUp() {
+        dataSource = new SingleConnectionDataSource(System.getenv("TEST_POSTGRES_URL"), true);
+        jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("DROP SCHEMA IF EXISTS " + SCHEMA + " CASCADE");
+        jdbc.execute("CREATE SCHEMA " + SCHEMA);
+        jdbc.execute("SET search_path TO " + SCHEMA);
+        // ddl-auto가 만드는 테이블
+        jdbc.execute("""
+                CREATE TABLE search_history (
+                    id bigint PRIMARY KEY,
+                    user_id bigint NOT NULL,
+                    query varchar(200) NOT NULL,
+                    lat double precision,
+                    lng double precision,
+                    created_at timestamp(6) with time zone NOT NULL
+                )""");
+        jdbc.execute("CREATE INDEX idx_search_user_created ON search_history (user_id, created_at DESC)");
+        jdbc.execute("""
+                CREATE TABLE search_keyword_monthly (
+                    id bigserial PRIMARY KEY,
+                    user_id bigint NOT NULL,
+                    month_start date NOT NULL,
+                    keyword varchar(200) NOT NULL,
+                    searches bigint NOT NULL,
+                    last_searched_at timestamp(6) with time zone NOT NULL,
+                    CONSTRAINT uk_search_keyword_monthly UNIQUE (user_id, month_start, keyword)
+                )""");
+        service = new SearchHistoryPartitionService(new SearchHistoryPartitionRepository(jdbc), new SimpleMeterRegistry(),
+                new DataSourceTransactionManager(dataSource), true, 2, 6, 2, "0 0 0 1 1 *");
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+        jdbc.execute("DROP SCHEMA IF EXISTS " + SCHEMA + " CASCADE");
+        dataSource.destroy();
+    }
+
+    @Test
+    void swapsPlainTableAndPremakesMonths() {
+        insert(1, 1, "소금빵", NOW.minusMonths(2));
+        insert(2, 1, "바게트", NOW);
+        insert(3, 2, "소금빵", NOW);
+
+        service.maintainQuietly();
+
+        assertThat(jdbc.queryForObject(
+                "SELECT EXISTS (SELECT 1 FROM pg_partitioned_table WHERE partrelid = 'search_history'::regclass)",
+                Boolean.class)).isTrue();
+        assertThat(exists("search_history_unpartitioned")).isFalse();
+        assertThat(monthlyPartitions()).containsExactly(
+                NOW.minusMonths(2), NOW.minusMonths(1), NOW, NOW.plusMonths(1), NOW.plusMonths(2));
+        assertThat(partitionOf(1)).isEqualTo(partition(NOW.minusMonths(2)));
+        assertThat(partitionOf(2)).isEqualTo(partition(NOW));
+        assertThat(jdbc.queryForObject("SELECT count(*) FROM search_history", Long.class)).isEqualTo(3);
+    }
+
+    @Test
+    void drainsDefaultIntoNewMonthPartition() {
+        service.maintainQuietly();
+        assertThat(monthlyPartitions()).containsExactly(NOW, NOW.plusMonths(1), NOW.plusMonths(2));
+
+        insert(1, 1, "소금빵", NOW.minusMonths(1)); // 파티션이 없던 달 (보관 기간 안)
+        insert(2, 1, "소금빵", NOW.plusMonths(5)); // premake 밖
+        assertThat(partitionOf(1)).isEqualTo("search_history_default");
+
+        service.maintainQuietly();
+
+        assertThat(partitionOf(1)).isEqualTo(partition(NOW.minusMonths(1)));
+        assertThat(partitionOf(2)).isEqualTo("search_history_default");
+    }
+
+    @Test
+    void rollsUpExpiredMonthsBeforeDropping() {
+        YearMonth expired = NOW.minusMonths(8);
+        insert(1, 1, "소금빵", expired);
+        insert(2, 1, " 소금빵 ", expired);
+        insert(3, 2, "바게트", expired);
+        insert(4, 1, "소금빵", NOW);
+        service.maintainQuietly(); // 변환, 이동, 보관 기간 지난 달 요약 후 삭제
+
+        insert(5, 1, "소금빵", NOW.minusMonths(10)); // 파티션 없는 오래된 달 → DEFAULT
+        service.maintainQuietly();
+        service.maintainQuietly(); // 다시 돌아도 두 번 세지 않는다
+
+        assertThat(monthlyPartitions()).first().isEqualTo(NOW.minusMonths(6));
+        assertThat(jdbc.queryForObject("SELECT count(*) FROM search_history", Long.class)).isEqualTo(1);
+        assertThat(jdbc.queryForList(
+                "SELECT user_id, month_start, keyword, searches FROM search_keyword_monthly ORDER BY month_start, user_id"))
+                .containsExactly(
+                        row(1, NOW.minusMonths(10), "소금빵", 1),
+                        row(1, expired, "소금빵", 2),
+                        row(2, expired, "바게트", 1));
+    }
+
+    private void insert(long id, long userId, String query, YearMonth month) {
+        Instant at = month.atDay(1).atStartOfDay().toInstant(ZoneOffset.UTC).plusSeconds(3600);
+        jdbc.update("INSERT INTO search_history (id, user_id, query, created_at) VALUES (?, ?, ?, ?)",
+                id, userId, query, Timestamp.from(at));
+    }
+
+    private String partitionOf(long id) {
+        return jdbc.queryForObject("SELECT tableoid::regclass::text FROM search_history WHERE id = ?", String.class, id);
+    }
+
+    private boolean exists(String name) {
+        return Boolean.TRUE.equals(jdbc.queryForObject("SELECT to_regclass(?) IS NOT NULL", Boolean.class, name));
+    }
+
+    private List<YearMonth> monthlyPartitions() {
+        return new SearchHistoryPartitionRepository(jdbc).monthlyPartitions();
+    }
+
+    private static String partition(YearMonth month) {
+        return "search_history_y%04dm%02d".formatted(month.getYear(), month.getMonthValue());
+    }
+
+    private static Map<String, Object> row(long userId, YearMonth month, String keyword, long searches) {
+        return Map.of("user_id", userId, "month_start", Date.valueOf(month.atDay(1)),
+                "keyword", keyword, "searches", searches);
+    }
+}
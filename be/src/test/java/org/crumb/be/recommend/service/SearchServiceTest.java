@@ -0,0 +1,90 @@
+package org.crumb.be.recommend.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.crumb.be.bakery.catalog.CatalogBakery;
+import org.crumb.be.bakery.catalog.CatalogKeywordSearch;
+import org.crumb.be.client.KakaoLocalClient;
+import org.crumb.be.recommend.dto.KakaoSearchResponse;
+import org.crumb.be.recommend.dto.SearchRequest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class SearchServiceTest {
+
+    private static final double LAT = 36.4277;
+    private static final double LNG = 127.3896;
+
+    private final KakaoLocalClient kakao = mock(KakaoLocalClient.class);
+    private final CatalogKeywordSearch catalog = mock(CatalogKeywordSearch.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private SearchService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new SearchService(kakao, catalog, mock(SearchHistoryWriter.class), mock(KeywordProfileService.class),
+                mock(TrendingKeywordService.class), meterRegistry);
+        ReflectionTestUtils.setField(service, "localEnabled", true);
+        ReflectionTestUtils.setField(service, "minLocalHits", 3);
+    }
+
+    @Test
+    void catalogHitKeepsKakaoPlaceIdOfTheSamePlace() {
+        when(catalog.search(anyString(), any(), any(), anyInt(), anyInt())).thenReturn(List.of(
+                new CatalogKeywordSearch.Hit(new CatalogBakery(7L, "그린베이커리", "대전 유성구", "", "", LAT, LNG), 1.0, 0.0)));
+        when(kakao.keywordSearch(anyString(), any(), any(), any(), any())).thenReturn(Mono.just(new KakaoSearchResponse(List.of(
+                // 같은 가게 (띄어쓰기만 다르고 약 10m)
+                new KakaoSearchResponse.Document("12345", "그린 베이커리", "대전 유성구", "", String.valueOf(LNG), String.valueOf(LAT + 0.0001), "10"),
+                new KakaoSearchResponse.Document("67890", "다른빵집", "대전 유성구", "", String.valueOf(LNG), String.valueOf(LAT + 0.002), "220")
+        ), null)));
+
+        var results = service.searchAndLog(1L, new SearchRequest("빵", LAT, LNG, 1000)).block();
+
+        assertThat(results).extracting(SearchService.BakerySearchResult::placeId,
+                        SearchService.BakerySearchResult::source, SearchService.BakerySearchResult::catalogId)
+                .containsExactly(
+                        tuple("12345", "catalog", 7L),
+                        tuple("67890", "kakao", null));
+    }
+
+    @Test
+    void catalogOnlyHitHasNoPlaceId() {
+        when(catalog.search(anyString(), any(), any(), anyInt(), anyInt())).thenReturn(List.of(
+                hit(1L, "가"), hit(2L, "나"), hit(3L, "다")));
+
+        var results = service.searchAndLog(1L, new SearchRequest("빵", LAT, LNG, 1000)).block();
+
+        assertThat(results).hasSize(3).allSatisfy(r -> {
+            assertThat(r.placeId()).isNull();
+            assertThat(r.source()).isEqualTo("catalog");
+            assertThat(r.catalogId()).isNotNull();
+        });
+    }
+
+    @Test
+    void kakaoFailureKeepsCatalogHits() {
+        when(catalog.search(anyString(), any(), any(), anyInt(), anyInt())).thenReturn(List.of(hit(1L, "가"), hit(2L, "나")));
+        when(kakao.keywordSearch(anyString(), any(), any(), any(), any()))
+                .thenReturn(Mono.error(new IllegalStateException("429 Too Many Requests")));
+
+        var results = service.searchAndLog(1L, new SearchRequest("빵", LAT, LNG, 1000)).block();
+
+        assertThat(results).extracting(SearchService.BakerySearchResult::catalogId).containsExactly(1L, 2L);
+        assertThat(meterRegistry.counter("search.keyword.fallback").count()).isEqualTo(1);
+    }
+
+    private static CatalogKeywordSearch.Hit hit(long id, String name) {
+        return new CatalogKeywordSearch.Hit(new CatalogBakery(id, name, "", "", "", LAT, LNG), 1.0, 0.0);
+    }
+}
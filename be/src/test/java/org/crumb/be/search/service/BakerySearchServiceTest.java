@@ -0,0 +1,143 @@
+package org.crumb.be.search.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.crumb.be.bakery.catalog.BakeryCatalog;
+import org.crumb.be.client.KakaoMapClient;
+import org.crumb.be.client.quota.CallPriority;
+import org.crumb.be.search.cache.BakerySearchCache;
+import org.crumb.be.search.dto.KakaoBakeryDto;
+import org.crumb.be.search.dto.KakaoBakeryPage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class BakerySearchServiceTest {
+
+    private static final double LAT = 37.5665;
+    private static final double LNG = 126.9780;
+
+    private final KakaoMapClient kakao = mock(KakaoMapClient.class);
+    private final Map<CallPriority, AtomicInteger> calls = new EnumMap<>(CallPriority.class);
+    private final AtomicBoolean rejectUser = new AtomicBoolean();
+    private final AtomicInteger failUserPage = new AtomicInteger();
+    private final AtomicLong ids = new AtomicLong();
+    private BakerySearchService service;
+
+    @BeforeEach
+    void setUp() {
+        for (CallPriority p : CallPriority.values()) calls.put(p, new AtomicInteger());
+        // 타일마다 3페이지 꽉 찬 결과 (total_count가 더 많아 잘린 타일). rejectUser면 USER 호출은 한도 초과,
+        // failUserPage면 USER 호출의 그 페이지만 실패
+        when(kakao.searchBakeryPages(anyDouble(), anyDouble(), anyInt(), anyInt(), any())).thenAnswer(inv -> {
+            double lat = inv.getArgument(0);
+            double lng = inv.getArgument(1);
+            CallPriority priority = inv.getArgument(4);
+            List<KakaoBakeryPage> pages = new ArrayList<>();
+            for (int p = 1; p <= KakaoMapClient.MAX_PAGES; p++) {
+                calls.get(priority).incrementAndGet();
+                boolean fail = priority == CallPriority.USER && (rejectUser.get() || failUserPage.get() == p);
+                pages.add(fail
+                        ? KakaoBakeryPage.failed(p)
+                        : new KakaoBakeryPage(p, bakeries(lat, lng), 1000, 45, p == KakaoMapClient.MAX_PAGES, false));
+            }
+            return Flux.fromIterable(pages);
+        });
+        when(kakao.searchBakeryPages(anyDouble(), anyDouble(), anyInt(), anyInt())).thenCallRealMethod();
+
+        var cache = new BakerySearchCache(new SimpleMeterRegistry(), true, 6, Duration.ofMinutes(5), 50_000);
+        service = new BakerySearchService(kakao, cache,
+                new BakeryCatalog(new DefaultResourceLoader(), "classpath:catalog/bakeries_clean.csv"));
+        ReflectionTestUtils.setField(service, "mode", "kakao");
+        ReflectionTestUtils.setField(service, "tileConcurrency", 4);
+        ReflectionTestUtils.setField(service, "maxTiles", 32);
+        ReflectionTestUtils.setField(service, "maxCalls", 15);
+        ReflectionTestUtils.setField(service, "prefetchTiles", 8);
+    }
+
+    @Test
+    void capsKakaoCallsPerRequestAndReportsPartialResult() {
+        var result = service.search(LAT, LNG, 50_000, 500).block();
+
+        assertThat(calls.get(CallPriority.USER).get()).isLessThanOrEqualTo(15);
+        assertThat(result.partial()).isTrue();
+        assertThat(result.bakeries()).isNotEmpty();
+        // 못 본 타일은 BACKGROUND로 받아 둔다
+        assertThat(calls.get(CallPriority.BACKGROUND).get()).isPositive().isLessThanOrEqualTo(8 * KakaoMapClient.MAX_PAGES);
+    }
+
+    @Test
+    void prefetchedTilesServeTheNextRequestFromCache() {
+        var first = service.search(LAT, LNG, 50_000, 500).block();
+        int before = calls.get(CallPriority.USER).get();
+
+        var again = service.search(LAT, LNG, 50_000, 500).block();
+
+        // 캐시된 타일은 호출 상한에 들어가지 않아 같은 상한으로 더 많이 본다
+        assertThat(calls.get(CallPriority.USER).get() - before).isLessThanOrEqualTo(15);
+        assertThat(again.bakeries().size()).isGreaterThan(first.bakeries().size());
+    }
+
+    @Test
+    void rejectedTilesAreReportedAndNotCached() {
+        rejectUser.set(true);
+        var rejected = service.search(LAT, LNG, 30_000, 100).block();
+        assertThat(rejected.partial()).isTrue();
+        assertThat(rejected.bakeries()).isEmpty();
+
+        // 빈 결과가 캐시되지 않아 한도가 풀리면 다시 받는다
+        rejectUser.set(false);
+        int before = calls.get(CallPriority.USER).get();
+        var retried = service.search(LAT, LNG, 30_000, 100).block();
+        assertThat(calls.get(CallPriority.USER).get()).isGreaterThan(before);
+        assertThat(retried.bakeries()).isNotEmpty();
+    }
+
+    @Test
+    void cellWithFailedPageIsPartialAndNotCached() {
+        failUserPage.set(2);
+        var first = service.search(LAT, LNG, 1000, 45).block();
+        assertThat(first.partial()).isTrue();
+        assertThat(first.bakeries()).hasSize(30);
+
+        // 빠진 셀이 TTL 동안 남지 않아 다음 요청은 다시 받는다
+        failUserPage.set(0);
+        int before = calls.get(CallPriority.USER).get();
+        var again = service.search(LAT, LNG, 1000, 45).block();
+        assertThat(calls.get(CallPriority.USER).get()).isGreaterThan(before);
+        assertThat(again.partial()).isFalse();
+        assertThat(again.bakeries()).hasSize(45);
+    }
+
+    /** 타일 중심 근처 15곳 (이름이 모두 달라 중복 제거되지 않음) */
+    private List<KakaoBakeryDto> bakeries(double lat, double lng) {
+        List<KakaoBakeryDto> out = new ArrayList<>();
+        for (int i = 0; i < KakaoMapClient.PAGE_SIZE; i++) {
+            KakaoBakeryDto dto = new KakaoBakeryDto();
+            long id = ids.incrementAndGet();
+            dto.setId(id);
+            dto.setName("bakery-" + id);
+            dto.setLatitude(lat + i * 0.0001);
+            dto.setLongitude(lng);
+            out.add(dto);
+        }
+        return out;
+    }
+}
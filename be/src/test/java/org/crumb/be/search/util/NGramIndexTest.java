@@ -0,0 +1,78 @@
+package org.crumb.be.search.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class NGramIndexTest {
+
+    private static final double[] WEIGHTS = {1.0, 0.8, 0.6};
+
+    private final NGramIndex index = NGramIndex.build(List.of(
+            new String[]{"성수 소금빵", "소금빵", "버터 향이 좋은 빵집"},
+            new String[]{"망원 베이커리", "바게트", "소금 빵도 있어요"},
+            new String[]{"연남 케이크", null, null}
+    ), WEIGHTS);
+
+    @Test
+    void fullMatchInNameScoresOne() {
+        double[] scores = new double[index.docCount()];
+
+        int[] docs = index.search("성수소금빵", scores);
+
+        assertThat(docs).contains(0);
+        assertThat(scores[0]).isCloseTo(1.0, within(1e-9));
+    }
+
+    @Test
+    void ignoresSpacingAndCase() {
+        double[] spaced = new double[index.docCount()];
+        double[] joined = new double[index.docCount()];
+
+        index.search("소금 빵", spaced);
+        index.search("소금빵", joined);
+
+        assertThat(spaced).containsExactly(joined, within(1e-12));
+        assertThat(NGramIndex.normalize(" Ｂａｋｅｒｙ 빵 ")).isEqualTo("bakery빵");
+    }
+
+    @Test
+    void usesBestFieldWeightPerGram() {
+        double[] scores = new double[index.docCount()];
+
+        index.search("바게트", scores);
+
+        // 대표 메뉴 필드에만 있으므로 0.8
+        assertThat(scores[1]).isCloseTo(0.8, within(1e-9));
+        assertThat(scores[0]).isZero();
+    }
+
+    @Test
+    void partialCoverageScoresBelowOne() {
+        double[] scores = new double[index.docCount()];
+
+        int[] docs = index.search("연남 마카롱", scores);
+
+        assertThat(docs).containsExactly(2);
+        assertThat(scores[2]).isGreaterThan(0).isLessThan(1);
+    }
+
+    @Test
+    void noMatchOrEmptyQueryReturnsNothing() {
+        double[] scores = new double[index.docCount()];
+
+        assertThat(index.search("크루아상", scores)).isEmpty();
+        assertThat(index.search("  ", scores)).isEmpty();
+        assertThat(scores).containsOnly(0.0);
+    }
+
+    @Test
+    void singleCharacterQueryIsOneGram() {
+        assertThat(NGramIndex.gramsOf("빵")).hasSize(1);
+        // 4글자: 2-gram 3개 + 3-gram 2개 + 4-gram 1개
+        assertThat(NGramIndex.gramsOf("소금 빵집")).hasSize(6);
+    }
+}
@@ -1,6 +1,6 @@
 import os, math
 from fastapi import FastAPI, Query
-from pydantic import BaseModel
+from pydantic import BaseModel, Field
 import pandas as pd
 from sklearn.feature_extraction.text import TfidfVectorizer
 from sklearn.metrics.pairwise import cosine_similarity
@@ -78,15 +78,51 @@ def reload():
     DF, VEC, MAT = load_data()
     return {"ok": True, "rows": len(DF or [])}
 
+def _scores(ks):
+    """키워드 TF-IDF 유사도 (DF 인덱스 기준 Series). 키워드가 없으면 None"""
+    if ks and VEC is not None and MAT is not None and len(DF) == MAT.shape[0]:
+        # 전체 DF 기준으로 sims 계산 → Series로 만들고 인덱스 정렬
+        qv = VEC.transform([" ".join(ks)])
+        sims = cosine_similarity(qv, MAT).ravel()
+        return pd.Series(sims, index=DF.index)
+    return None
+
+
+def _rank(df, lat, lng, score_full, radius, limit):
+    """반경 필터 후 (유사도 내림차순, 거리 오름차순) 상위 limit. score_full이 없으면 거리순"""
+    df = df.copy()
+
+    # 거리계산 + 반경 필터
+    def dist(row):
+        return haversine(lat, lng, float(row["lat"]), float(row["lng"]))
+    df["distance"] = df.apply(dist, axis=1)
+    df = df[df["distance"] <= radius]
+
+    if score_full is not None:
+        # 부분 df에는 reindex로 안전 매핑
+        df["score"] = score_full.reindex(df.index).fillna(0.0)
+        # 유사도 우선, 같은 유사도에서는 거리 가까운 순
+        return df.sort_values(["score", "distance"], ascending=[False, True]).head(limit)
+    # 키워드가 없으면: 거리 가까운 순 Top-N
+    df["score"] = 0.0
+    return df.sort_values(["distance"], ascending=True).head(limit)
+
+
+def _split_keywords(keywords):
+    return [k.strip() for k in keywords.split(",") if k.strip()]
+
+
 @app.get("/recommend")
 def recommend(
         lat: float, lng: float,
         keywords: str = Query("", description="쉼표로 구분된 키워드"),
-        exclude: str = Query("", description="쉼표로 구분된 bakeryId 목록")
+        exclude: str = Query("", description="쉼표로 구분된 bakeryId 목록"),
+        radius: int = Query(RADIUS_M, ge=1, le=20000, description="반경(m), 기본 RECO_RADIUS_M"),
+        limit: int = Query(LIMIT, ge=1, le=100, description="개수, 기본 RECO_LIMIT")
 ):
     if DF is None:
         return []
-    df = DF.copy()
+    df = DF
 
     # 제외
     if exclude:
@@ -96,30 +132,7 @@ def recommend(
         except ValueError:
             pass
 
-    # 거리계산 + 반경 필터
-    def dist(row):
-        return haversine(lat, lng, float(row["lat"]), float(row["lng"]))
-    df["distance"] = df.apply(dist, axis=1)
-    df = df[df["distance"] <= RADIUS_M]
-
-    # 키워드
-    ks = [k.strip() for k in keywords.split(",") if k.strip()]
-
-    # 점수 계산
-    if ks and VEC is not None and MAT is not None and len(DF) == MAT.shape[0]:
-        # 키워드가 있으면: TF-IDF 유사도 → 거리 tie-break
-        # 전체 DF 기준으로 sims 계산 → Series로 만들고 인덱스 정렬
-        qv = VEC.transform([" ".join(ks)])
-        sims = cosine_similarity(qv, MAT).ravel()
-        score_full = pd.Series(sims, index=DF.index)   # DF 인덱스에 정렬
-        # 부분 df에는 reindex로 안전 매핑
-        df["score"] = score_full.reindex(df.index).fillna(0.0)
-        # 유사도 우선, 같은 유사도에서는 거리 가까운 순
-        out = df.sort_values(["score", "distance"], ascending=[False, True]).head(LIMIT)
-    else:
-        # 키워드가 없으면: 거리 가까운 순 Top-N
-        df["score"] = 0.0
-        out = df.sort_values(["distance"], ascending=True).head(LIMIT)
+    out = _rank(df, lat, lng, _scores(_split_keywords(keywords)), radius, limit)
 
     # 응답 생성 (itertuples로 안정/빠르게)
     return [
@@ -135,4 +148,46 @@ def recommend(
             "distance": float(r.distance),
         }
         for r in out.itertuples(index=False)
-    ]
\ No newline at end of file
+    ]
+
+
+class Anchor(BaseModel):
+    lat: float
+    lng: float
+
+
+class BatchRequest(BaseModel):
+    anchors: list[Anchor]
+    keywords: list[str] = []
+    exclude: list[int] = []
+    radius: int = Field(RADIUS_M, ge=1, le=20000)
+    limit: int = Field(LIMIT, ge=1, le=100)
+
+
+@app.post("/recommend/batch")
+def recommend_batch(req: BatchRequest):
+    """
+    여러 기준점 추천을 한 번에. 키워드 유사도는 한 번만 계산하고,
+    빵집 정보는 bakeries에 한 번만 담아 anchors[i]에는 (id, distance, score)만 돌려준다.
+    """
+    if DF is None:
+        return {"bakeries": [], "anchors": [[] for _ in req.anchors]}
+    df = DF[~DF["id"].isin(set(req.exclude))] if req.exclude else DF
+    score_full = _scores(_split_keywords(",".join(req.keywords)))
+
+    bakeries, anchors = {}, []
+    for a in req.anchors:
+        items = []
+        for r in _rank(df, a.lat, a.lng, score_full, req.radius, req.limit).itertuples(index=False):
+            bakeries.setdefault(int(r.id), {
+                "id": int(r.id),
+                "name": str(r.name),
+                "address": str(r.address),
+                "intro": str(r.intro),
+                "signature": str(r.signature),
+                "lat": float(r.lat),
+                "lng": float(r.lng),
+            })
+            items.append({"id": int(r.id), "distance": float(r.distance), "score": float(r.score)})
+        anchors.append(items)
+    return {"bakeries": list(bakeries.values()), "anchors": anchors}
@@ -0,0 +1,178 @@
+"""
+be LocalRecommendEngine 동등성 테스트 픽스처 생성.
+
+  cd recommend && python tools/make_parity_fixture.py            # app.recommend 결과로 픽스처 작성 (pandas/sklearn 필요)
+  cd recommend && python tools/make_parity_fixture.py --check    # app.recommend와 표준 라이브러리 재현 구현 비교만
+
+pandas/sklearn이 없으면 recommend 이미지로 실행한다 (저장소 루트에서):
+
+  docker build -t crumb-recommend recommend
+  docker run --rm -v "$PWD":/src -w /src/recommend crumb-recommend python tools/make_parity_fixture.py
+
+픽스처는 항상 app.recommend로 만든다 (be 테스트가 source == "app"을 확인).
+재현 구현은 load_data / TfidfVectorizer(analyzer="char", ngram_range=(2,4)) / recommend를
+표준 라이브러리로 옮긴 것으로, 케이스 좌표를 고르고 --check에서 비교하는 데만 쓴다.
+"""
+import csv, json, math, os, re, sys
+
+HERE = os.path.dirname(os.path.abspath(__file__))
+ROOT = os.path.dirname(HERE)
+DATA = os.path.join(ROOT, "data", "bakeries_clean.csv")
+OUT = os.path.join(ROOT, "..", "be", "src", "test", "resources", "recommend", "parity_fixture.json")
+
+RADIUS_M = 2000
+LIMIT = 10
+
+KEYWORDS = ["", "소금빵", "휘낭시에", "크루아상,에그타르트", "베이글", "케이크", "식빵 , 바게트",
+            "마카롱", "크림빵,단팥빵,소보로", "샌드위치", "NO MATCH", "빵"]
+
+
+# ---------- 표준 라이브러리 재현 ----------
+
+def haversine(lat1, lon1, lat2, lon2):
+    R = 6371000
+    dlat = math.radians(lat2 - lat1); dlon = math.radians(lon2 - lon1)
+    a = math.sin(dlat / 2) ** 2 + math.cos(math.radians(lat1)) * math.cos(math.radians(lat2)) * math.sin(dlon / 2) ** 2
+    return 2 * R * math.asin(math.sqrt(a))
+
+
+_WHITE_SPACES = re.compile(r"\s\s+")
+
+
+def char_ngrams(text, min_n=2, max_n=4):
+    text = _WHITE_SPACES.sub(" ", text.lower())
+    out = []
+    for n in range(min_n, min(max_n + 1, len(text) + 1)):
+        for i in range(len(text) - n + 1):
+            out.append(text[i:i + n])
+    return out
+
+
+def _to_float(s):
+    try:
+        return float(s)
+    except (TypeError, ValueError):
+        return float("nan")
+
+
+def load_rows():
+    with open(DATA, encoding="utf-8-sig", newline="") as f:
+        rows = list(csv.DictReader(f))
+    renumber = any(not (r.get("id") or "").strip() for r in rows)
+    if not renumber:
+        try:
+            ids = [int(float(r["id"])) for r in rows]
+        except ValueError:
+            renumber = True
+    if renumber:
+        ids = list(range(1, len(rows) + 1))
+    out = []
+    for i, r in zip(ids, rows):
+        out.append({
+            "id": i,
+            "name": r.get("name") or "", "intro": r.get("intro") or "", "signature": r.get("signature") or "",
+            "lat": _to_float(r.get("lat")), "lng": _to_float(r.get("lng")),
+        })
+    return out
+
+
+class Replica:
+    def __init__(self):
+        self.rows = load_rows()
+        docs = [r["name"] + " " + r["intro"] + " " + r["signature"] for r in self.rows]
+        self.vocab, df, counts = {}, [], []
+        for d in docs:
+            c = {}
+            for g in char_ngrams(d):
+                t = self.vocab.setdefault(g, len(self.vocab))
+                if t == len(df):
+                    df.append(0)
+                c[t] = c.get(t, 0) + 1
+            for t in c:
+                df[t] += 1
+            counts.append(c)
+        n = len(docs)
+        self.idf = [math.log((1 + n) / (1 + x)) + 1 for x in df]
+        self.vectors = [self._normalize({t: c * self.idf[t] for t, c in cnt.items()}) for cnt in counts]
+
+    @staticmethod
+    def _normalize(v):
+        norm = math.sqrt(sum(w * w for w in v.values()))
+        return {t: w / norm for t, w in v.items()} if norm > 0 else v
+
+    def recommend(self, lat, lng, keywords):
+        cand = []
+        for idx, r in enumerate(self.rows):
+            d = haversine(lat, lng, r["lat"], r["lng"])
+            if d <= RADIUS_M:  # NaN은 False
+                cand.append((idx, r, d))
+        ks = [k.strip() for k in keywords.split(",") if k.strip()]
+        if ks:
+            q = {}
+            for g in char_ngrams(" ".join(ks)):
+                t = self.vocab.get(g)
+                if t is not None:
+                    q[t] = q.get(t, 0) + 1
+            q = self._normalize({t: c * self.idf[t] for t, c in q.items()})
+            scored = [(idx, r, d, sum((w * self.vectors[idx].get(t, 0.0) for t, w in q.items()), 0.0)) for idx, r, d in cand]
+            scored.sort(key=lambda x: (-x[3], x[2]))
+        else:
+            scored = sorted(((idx, r, d, 0.0) for idx, r, d in cand), key=lambda x: x[2])
+        return [{"id": r["id"], "score": s, "distance": d} for _, r, d, s in scored[:LIMIT]]
+
+
+# ---------- FastAPI 구현 ----------
+
+def app_recommend():
+    os.chdir(ROOT)
+    sys.path.insert(0, ROOT)
+    import app  # noqa: E402  (pandas, scikit-learn 필요)
+
+    def run(lat, lng, keywords):
+        return [{"id": x["id"], "score": x["score"], "distance": x["distance"]}
+                for x in app.recommend(lat=lat, lng=lng, keywords=keywords, exclude="",
+                                        radius=RADIUS_M, limit=LIMIT)]
+    return run
+
+
+def cases(rows):
+    located = [r for r in rows if not math.isnan(r["lat"]) and not math.isnan(r["lng"])]
+    points = [(r["lat"], r["lng"]) for r in located[::max(1, len(located) // 8)]][:8]
+    points.append((points[0][0] + 0.004, points[0][1] - 0.006))  # 빵집이 아닌 지점
+    points.append((37.5665, 126.9780))                            # 반경 안에 아무것도 없을 수 있는 지점
+    for i, (lat, lng) in enumerate(points):
+        for kw in KEYWORDS[i % 3::3]:
+            yield lat, lng, kw
+
+
+def main():
+    replica = Replica()
+    mode = sys.argv[1] if len(sys.argv) > 1 else ""
+    if mode == "--check":
+        run = app_recommend()
+        bad = 0
+        for lat, lng, kw in cases(replica.rows):
+            a, b = run(lat, lng, kw), replica.recommend(lat, lng, kw)
+            if [x["id"] for x in a] != [x["id"] for x in b] or any(
+                    abs(x["score"] - y["score"]) > 1e-9 for x, y in zip(a, b)):
+                bad += 1
+                print("mismatch", lat, lng, repr(kw), a, b)
+        print("mismatches:", bad)
+        return
+    if mode:
+        sys.exit("usage: make_parity_fixture.py [--check]")
+    run = app_recommend()
+    fixture = {
+        "source": "app",
+        "radius": RADIUS_M, "limit": LIMIT,
+        "cases": [{"lat": lat, "lng": lng, "keywords": kw, "expected": run(lat, lng, kw)}
+                  for lat, lng, kw in cases(replica.rows)],
+    }
+    os.makedirs(os.path.dirname(OUT), exist_ok=True)
+    with open(OUT, "w", encoding="utf-8") as f:
+        json.dump(fixture, f, ensure_ascii=False, indent=1)
+    print("wrote", len(fixture["cases"]), "cases to", os.path.normpath(OUT))
+
+
+if __name__ == "__main__":
+    main()
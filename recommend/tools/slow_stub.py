@@ -0,0 +1,43 @@
+"""
+부하 테스트용 가짜 추천 서버: /recommend 에 고정 응답을 지연(--delay-ms) 후 돌려준다.
+FastAPI 지연을 주입한 상태에서 be의 /api/recommend/bakeries 처리량을 재기 위한 것.
+
+    python tools/slow_stub.py --port 8000 --delay-ms 2000
+    FASTAPI_HOST=http://localhost RECOMMEND_ENGINE=fastapi ./gradlew bootRun
+    k6 run ../be/loadtest/recommend.js
+"""
+import argparse
+import json
+import time
+from http.server import BaseHTTPRequestHandler, ThreadingHTTPServer
+
+BODY = json.dumps([
+    {"id": i, "name": f"빵집 {i}", "address": "대전 중구", "intro": "",
+     "lat": 36.35 + i * 1e-3, "lng": 127.38, "distance": 100.0 * i, "score": 1.0 / i}
+    for i in range(1, 11)
+], ensure_ascii=False).encode("utf-8")
+
+
+def main():
+    ap = argparse.ArgumentParser()
+    ap.add_argument("--port", type=int, default=8000)
+    ap.add_argument("--delay-ms", type=int, default=2000)
+    args = ap.parse_args()
+
+    class Handler(BaseHTTPRequestHandler):
+        def do_GET(self):
+            time.sleep(args.delay_ms / 1000)
+            self.send_response(200)
+            self.send_header("Content-Type", "application/json")
+            self.send_header("Content-Length", str(len(BODY)))
+            self.end_headers()
+            self.wfile.write(BODY)
+
+        def log_message(self, *a):
+            pass
+
+    ThreadingHTTPServer(("0.0.0.0", args.port), Handler).serve_forever()
+
+
+if __name__ == "__main__":
+    main()